@@ -0,0 +1,21 @@
+package com.nutrition.application.dto.food;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BarcodeBatchRequest {
+
+    @NotEmpty(message = "Informe pelo menos um código de barras")
+    @Size(max = 100, message = "Máximo de 100 códigos de barras por requisição")
+    private List<String> barcodes;
+}
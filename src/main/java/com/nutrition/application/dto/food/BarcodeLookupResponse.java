@@ -0,0 +1,22 @@
+package com.nutrition.application.dto.food;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BarcodeLookupResponse {
+
+    private Map<String, FoodResponse> foods; // keyed by barcode, in request order
+
+    @JsonProperty("notFound")
+    private List<String> notFound;
+}
@@ -0,0 +1,93 @@
+package com.nutrition.application.dto.food;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link FoodResponse} written from a pre-serialized JSON fragment of the food, with only
+ * {@code userPreference} spliced in per request. Apart from id and userPreference, the fields of this
+ * object are not populated: it exists to be serialized.
+ */
+@Getter
+@JsonSerialize(using = CachedFoodResponse.Serializer.class)
+public class CachedFoodResponse extends FoodResponse {
+
+    private final Fragment fragment;
+
+    public CachedFoodResponse(Long id, Fragment fragment, String userPreference) {
+        this.fragment = fragment;
+        setId(id);
+        setUserPreference(userPreference);
+    }
+
+    /**
+     * JSON of a FoodResponse without a user preference, split around the userPreference value.
+     */
+    public static final class Fragment {
+
+        // Propriedade serializada como null quando não há preferência (inclusão padrão ALWAYS)
+        private static final String PREFERENCE_FIELD = ",\"userPreference\":";
+        private static final String NULL_VALUE = "null";
+
+        private final SerializedString head;
+        private final SerializedString tail;
+
+        private Fragment(String head, String tail) {
+            this.head = new SerializedString(head);
+            this.tail = new SerializedString(tail);
+            // codificar em UTF-8 agora, não na primeira escrita
+            this.head.asUnquotedUTF8();
+            this.tail.asUnquotedUTF8();
+        }
+
+        /**
+         * Splits the JSON of a FoodResponse whose userPreference is null; null when the field is not found.
+         */
+        public static Fragment of(String json) {
+            // Fora de strings, aspas nunca vêm precedidas de vírgula escapada, então a busca é inequívoca
+            int field = json.indexOf(PREFERENCE_FIELD + NULL_VALUE);
+            if (field < 0) {
+                return null;
+            }
+            int value = field + PREFERENCE_FIELD.length();
+            return new Fragment(json.substring(0, value), json.substring(value + NULL_VALUE.length()));
+        }
+
+        public int length() {
+            return head.asUnquotedUTF8().length + tail.asUnquotedUTF8().length;
+        }
+    }
+
+    public static class Serializer extends StdSerializer<CachedFoodResponse> {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final SerializedString NULL = new SerializedString("null");
+        private static final Map<String, SerializedString> QUOTED = new ConcurrentHashMap<>();
+
+        public Serializer() {
+            super(CachedFoodResponse.class);
+        }
+
+        @Override
+        public void serialize(CachedFoodResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeRawValue(value.fragment.head);
+            gen.writeRaw(value.getUserPreference() != null ? quoted(value.getUserPreference()) : NULL);
+            gen.writeRaw(value.fragment.tail);
+        }
+
+        private static SerializedString quoted(String text) {
+            return QUOTED.computeIfAbsent(text, key ->
+                    new SerializedString('"' + new String(JsonStringEncoder.getInstance().quoteAsString(key)) + '"'));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.nutrition.application.dto.food;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    @JsonProperty("nextCursor")
+    private String nextCursor; // null on the last page
+
+    @JsonProperty("hasNext")
+    private boolean hasNext;
+}
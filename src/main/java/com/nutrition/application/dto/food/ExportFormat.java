@@ -0,0 +1,36 @@
+package com.nutrition.application.dto.food;
+
+/**
+ * Formats of the streaming catalog export.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"), // um objeto JSON por linha
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return NDJSON;
+        }
+        try {
+            return ExportFormat.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportação inválido: " + value);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.nutrition.application.dto.food;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodImportRequest {
+
+    @NotBlank(message = "Arquivo é obrigatório")
+    private String file; // relativo ao diretório de importação
+
+    private String format; // CSV ou JSON; inferido pela extensão quando ausente
+
+    private String layout; // NATIVE, TACO ou USDA
+
+    @JsonProperty("defaultCategory")
+    private String defaultCategory; // usada quando a categoria de origem não é reconhecida
+}
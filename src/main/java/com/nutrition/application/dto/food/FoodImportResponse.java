@@ -0,0 +1,34 @@
+package com.nutrition.application.dto.food;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodImportResponse {
+
+    @JsonProperty("totalRecords")
+    private long totalRecords;
+
+    private long imported;
+
+    @JsonProperty("duplicateBarcodes")
+    private long duplicateBarcodes; // repetidos dentro do próprio arquivo
+
+    @JsonProperty("alreadyExisting")
+    private long alreadyExisting; // nome ou código de barras já cadastrado
+
+    private long invalid;
+
+    private List<String> errors; // primeiros registros inválidos, com o número do registro
+
+    @JsonProperty("elapsedMs")
+    private long elapsedMs;
+}
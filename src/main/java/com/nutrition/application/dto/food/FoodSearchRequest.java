@@ -61,4 +61,7 @@ public class FoodSearchRequest {
 
     @JsonProperty("userPreference")
     private String userPreference; // FAVORITE, DISLIKED, etc.
+
+    @JsonProperty("mode")
+    private String mode; // ALPHABETICAL (default), RANKED (trigram similarity, by relevance) or FUZZY (typo tolerant)
 }
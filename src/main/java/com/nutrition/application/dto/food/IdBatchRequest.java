@@ -0,0 +1,21 @@
+package com.nutrition.application.dto.food;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdBatchRequest {
+
+    @NotEmpty(message = "Informe pelo menos um ID")
+    @Size(max = 500, message = "Máximo de 500 IDs por requisição")
+    private List<Long> ids;
+}
@@ -0,0 +1,21 @@
+package com.nutrition.application.dto.food;
+
+/**
+ * How text searches are matched and ordered.
+ */
+public enum SearchMode {
+    ALPHABETICAL, // LIKE '%termo%', ordenado por nome
+    RANKED,       // similaridade de trigramas (pg_trgm), ordenado por relevância
+    FUZZY;        // palavras com até 2 erros de digitação, em memória (apenas alimentos)
+
+    public static SearchMode from(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return ALPHABETICAL;
+        }
+        try {
+            return SearchMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de busca inválido: " + value);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.nutrition.application.dto.meals;
+
+import java.time.LocalDate;
+
+/**
+ * Period length of nutrition aggregates. Weeks start on Monday (ISO), as in PostgreSQL's date_trunc.
+ */
+public enum AggregationGranularity {
+    WEEK,
+    MONTH;
+
+    public static AggregationGranularity from(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return WEEK;
+        }
+        try {
+            return AggregationGranularity.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Granularidade inválida: " + value);
+        }
+    }
+
+    /**
+     * Field name accepted by date_trunc.
+     */
+    public String unit() {
+        return name().toLowerCase();
+    }
+
+    public LocalDate periodEnd(LocalDate periodStart) {
+        return this == WEEK ? periodStart.plusDays(6) : periodStart.plusMonths(1).minusDays(1);
+    }
+}
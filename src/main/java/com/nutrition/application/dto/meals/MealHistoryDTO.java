@@ -18,4 +18,10 @@ public class MealHistoryDTO {
     private List<DailyConsumedMealsDTO> dailyMeals;
     private Integer totalDays;
     private Integer totalMealsConsumed;
+
+    // Paginação por dia, apenas quando page ou size são informados e as refeições são incluídas
+    private Integer page;
+    private Integer size;
+    private Integer totalPages;
+    private Boolean hasNext;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.nutrition.application.dto.meals;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One flat row of the meal history query: a consumed meal joined with one of its items. Food columns
+ * are null for a meal without items.
+ */
+@Getter
+@AllArgsConstructor
+public class MealHistoryRow {
+
+    private final Long consumptionId;
+    private final LocalDate consumptionDate;
+    private final LocalDateTime consumedAt;
+    private final String notes;
+
+    private final Long mealId;
+    private final String mealName;
+    private final LocalTime mealTime;
+    private final BigDecimal mealCalories;
+    private final BigDecimal mealCarbs;
+    private final BigDecimal mealProtein;
+    private final BigDecimal mealFat;
+    private final BigDecimal mealFiber;
+    private final BigDecimal mealSodium;
+
+    private final Long foodId;
+    private final String foodName;
+    private final BigDecimal quantity;
+    private final String unit;
+    private final BigDecimal servingSize;
+    private final BigDecimal caloriesPer100g;
+    private final BigDecimal carbsPer100g;
+    private final BigDecimal proteinPer100g;
+    private final BigDecimal fatPer100g;
+    private final BigDecimal fiberPer100g;
+    private final BigDecimal sodiumPer100g;
+}
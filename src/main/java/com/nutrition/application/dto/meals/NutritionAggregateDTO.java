@@ -0,0 +1,108 @@
+package com.nutrition.application.dto.meals;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NutritionAggregateDTO {
+
+    @JsonProperty("granularity")
+    private AggregationGranularity granularity;
+
+    @JsonProperty("startDate")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @JsonProperty("endDate")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    // Meta do perfil; nula quando o usuário não definiu uma
+    @JsonProperty("dailyCalorieTarget")
+    private BigDecimal dailyCalorieTarget;
+
+    @JsonProperty("periods")
+    private List<Period> periods;
+
+    /**
+     * Totals and daily averages of one week or month. Only days with consumptions count: averages are
+     * per logged day, and the period bounds may extend beyond the requested range.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Period {
+
+        @JsonProperty("periodStart")
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+        private LocalDate periodStart;
+
+        @JsonProperty("periodEnd")
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+        private LocalDate periodEnd;
+
+        @JsonProperty("daysLogged")
+        private Integer daysLogged;
+
+        @JsonProperty("mealsCount")
+        private Integer mealsCount;
+
+        @JsonProperty("totalCalories")
+        private BigDecimal totalCalories;
+
+        @JsonProperty("totalCarbs")
+        private BigDecimal totalCarbs;
+
+        @JsonProperty("totalProtein")
+        private BigDecimal totalProtein;
+
+        @JsonProperty("totalFat")
+        private BigDecimal totalFat;
+
+        @JsonProperty("totalFiber")
+        private BigDecimal totalFiber;
+
+        @JsonProperty("totalSodium")
+        private BigDecimal totalSodium;
+
+        @JsonProperty("averageCalories")
+        private BigDecimal averageCalories;
+
+        @JsonProperty("averageCarbs")
+        private BigDecimal averageCarbs;
+
+        @JsonProperty("averageProtein")
+        private BigDecimal averageProtein;
+
+        @JsonProperty("averageFat")
+        private BigDecimal averageFat;
+
+        @JsonProperty("averageFiber")
+        private BigDecimal averageFiber;
+
+        @JsonProperty("averageSodium")
+        private BigDecimal averageSodium;
+
+        // Aderência à meta: dias dentro da tolerância e média diária em % da meta (nulos sem meta)
+        @JsonProperty("daysOnTarget")
+        private Integer daysOnTarget;
+
+        @JsonProperty("adherenceRate")
+        private BigDecimal adherenceRate;
+
+        @JsonProperty("targetPercentage")
+        private BigDecimal targetPercentage;
+    }
+}
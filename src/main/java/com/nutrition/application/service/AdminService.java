@@ -1,6 +1,11 @@
 package com.nutrition.application.service;
 
 
+import com.nutrition.infrastructure.cache.BarcodeCache;
+import com.nutrition.infrastructure.cache.CatalogStatistics;
+import com.nutrition.infrastructure.cache.FoodJsonCache;
+import com.nutrition.infrastructure.cache.RecommendationCache;
+import com.nutrition.infrastructure.cache.UserPreferenceCache;
 import com.nutrition.infrastructure.repository.FoodRepository;
 import com.nutrition.infrastructure.repository.SupplementRepository;
 import com.nutrition.infrastructure.repository.UserFoodPreferenceRepository;
@@ -28,6 +33,11 @@ public class AdminService {
     private final UserFoodPreferenceRepository foodPreferenceRepository;
     private final UserSupplementRepository userSupplementRepository;
     private final WeightHistoryRepository weightHistoryRepository;
+    private final BarcodeCache barcodeCache;
+    private final FoodJsonCache foodJsonCache;
+    private final RecommendationCache recommendationCache;
+    private final UserPreferenceCache userPreferenceCache;
+    private final CatalogStatistics catalogStatistics;
 
     public Map<String, Object> getDashboardStats() {
         try {
@@ -40,11 +50,12 @@ public class AdminService {
             stats.put("total_profiles", profileRepository.count());
             stats.put("profiles_with_calculations", profileRepository.countProfilesWithCalculatedMetrics());
 
-            // Estatísticas de alimentos
-            stats.put("total_foods", foodRepository.countActiveFoods());
-
-            // Estatísticas de suplementos
-            stats.put("total_supplements", supplementRepository.countActiveSupplements());
+            // Estatísticas de alimentos e suplementos: contadores em memória, banco apenas antes da primeira carga
+            boolean countersReady = catalogStatistics.isReady();
+            stats.put("total_foods", countersReady
+                    ? catalogStatistics.getActiveFoods() : foodRepository.countActiveFoods());
+            stats.put("total_supplements", countersReady
+                    ? catalogStatistics.getActiveSupplements() : supplementRepository.countActiveSupplements());
 
             // Estatísticas de preferências
             stats.put("food_preferences", foodPreferenceRepository.count());
@@ -66,14 +77,17 @@ public class AdminService {
         try {
             Map<String, Object> stats = new HashMap<>();
 
-            stats.put("total_active", foodRepository.countActiveFoods());
-
-            List<Object[]> categoryStats = foodRepository.countFoodsByCategory();
-            Map<String, Long> categoryCounts = new HashMap<>();
-            for (Object[] stat : categoryStats) {
-                categoryCounts.put(stat[0].toString(), ((Number) stat[1]).longValue());
+            if (catalogStatistics.isReady()) {
+                stats.put("total_active", catalogStatistics.getActiveFoods());
+                stats.put("by_category", catalogStatistics.getFoodsByCategory());
+            } else {
+                stats.put("total_active", foodRepository.countActiveFoods());
+                stats.put("by_category", toCategoryCounts(foodRepository.countFoodsByCategory()));
             }
-            stats.put("by_category", categoryCounts);
+            stats.put("barcode_cache", barcodeCache.getStatistics());
+            stats.put("recommendation_cache", recommendationCache.getStatistics());
+            stats.put("preference_cache", userPreferenceCache.getStatistics());
+            stats.put("json_cache", foodJsonCache.getStatistics());
 
             log.info("Food statistics generated successfully");
             return stats;
@@ -87,14 +101,13 @@ public class AdminService {
         try {
             Map<String, Object> stats = new HashMap<>();
 
-            stats.put("total_active", supplementRepository.countActiveSupplements());
-
-            List<Object[]> categoryStats = supplementRepository.countSupplementsByCategory();
-            Map<String, Long> categoryCounts = new HashMap<>();
-            for (Object[] stat : categoryStats) {
-                categoryCounts.put(stat[0].toString(), ((Number) stat[1]).longValue());
+            if (catalogStatistics.isReady()) {
+                stats.put("total_active", catalogStatistics.getActiveSupplements());
+                stats.put("by_category", catalogStatistics.getSupplementsByCategory());
+            } else {
+                stats.put("total_active", supplementRepository.countActiveSupplements());
+                stats.put("by_category", toCategoryCounts(supplementRepository.countSupplementsByCategory()));
             }
-            stats.put("by_category", categoryCounts);
 
             log.info("Supplement statistics generated successfully");
             return stats;
@@ -128,5 +141,13 @@ public class AdminService {
         }
     }
 
+    private Map<String, Long> toCategoryCounts(List<Object[]> categoryStats) {
+        Map<String, Long> categoryCounts = new HashMap<>();
+        for (Object[] stat : categoryStats) {
+            categoryCounts.put(stat[0].toString(), ((Number) stat[1]).longValue());
+        }
+        return categoryCounts;
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.nutrition.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nutrition.application.dto.food.ExportFormat;
+import com.nutrition.infrastructure.exception.UnprocessableEntityException;
+import com.nutrition.infrastructure.export.CatalogExportWriter;
+import com.nutrition.infrastructure.repository.CatalogExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the active food and supplement catalogs as NDJSON or CSV, optionally gzip-compressed.
+ * The body is written after the controller returns, on the MVC async executor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+
+    private final CatalogExportRepository catalogExportRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportFormat resolveFormat(String format) {
+        try {
+            return ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            throw new UnprocessableEntityException(e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the Accept-Encoding header accepts gzip: listed (or covered by "*") with a q-value above 0.
+     * An explicit gzip entry wins over "*", so "gzip;q=0" refuses it even next to "*".
+     */
+    public boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality != null ? Math.max(gzipQuality, quality) : quality;
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    // q-value do elemento; sem q vale 1, q inválido conta como recusa
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            int equals = parts[i].indexOf('=');
+            if (equals > 0 && parts[i].substring(0, equals).trim().equalsIgnoreCase("q")) {
+                try {
+                    double quality = Double.parseDouble(parts[i].substring(equals + 1).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    public StreamingResponseBody exportFoods(ExportFormat format, boolean gzip) {
+        return stream("foods", format, gzip, CatalogExportRepository.FOOD_COLUMNS,
+                catalogExportRepository::streamActiveFoods);
+    }
+
+    public StreamingResponseBody exportSupplements(ExportFormat format, boolean gzip) {
+        return stream("supplements", format, gzip, CatalogExportRepository.SUPPLEMENT_COLUMNS,
+                catalogExportRepository::streamActiveSupplements);
+    }
+
+    private StreamingResponseBody stream(String catalog, ExportFormat format, boolean gzip, List<String> columns,
+                                         Consumer<CatalogExportWriter> query) {
+        return outputStream -> {
+            long start = System.currentTimeMillis();
+            OutputStream output = gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : outputStream;
+
+            CatalogExportWriter writer = CatalogExportWriter.create(format, columns, output, objectMapper.getFactory());
+            try {
+                query.accept(writer);
+                writer.finish();
+                if (gzip) {
+                    ((GZIPOutputStream) output).finish();
+                }
+                log.info("Catalog export of {} completed: {} rows as {}{} in {} ms", catalog, writer.getRows(),
+                        format, gzip ? " (gzip)" : "", System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                // o status já foi enviado; resta interromper a resposta
+                log.error("Catalog export of {} aborted after {} rows: {}", catalog, writer.getRows(), e.getMessage());
+                throw new IOException("Exportação interrompida", e);
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.nutrition.application.service;
 
 import com.nutrition.application.dto.config.ActivityLevelResponse;
 import com.nutrition.application.dto.config.GoalResponse;
+import com.nutrition.infrastructure.cache.ResourceVersions;
 import com.nutrition.infrastructure.repository.ActivityLevelConfigRepository;
 import com.nutrition.infrastructure.repository.GoalConfigRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,15 @@ public class ConfigurationService {
 
     private final ActivityLevelConfigRepository activityLevelConfigRepository;
     private final GoalConfigRepository goalConfigRepository;
+    private final ResourceVersions resourceVersions;
+
+    /**
+     * ETag of a configuration list. The tables only change through migrations, which need a restart,
+     * so the tag is constant for the life of the process.
+     */
+    public String getConfigurationETag(String resource) {
+        return resourceVersions.tag("config", resource);
+    }
 
     @Transactional(readOnly = true)
     public List<ActivityLevelResponse> getActivityLevels() {
@@ -5,12 +5,12 @@ import com.nutrition.domain.entity.auth.User;
 import com.nutrition.domain.entity.food.UserFoodPreference;
 import com.nutrition.domain.entity.food.UserSupplement;
 import com.nutrition.domain.entity.profile.UserProfile;
+import com.nutrition.infrastructure.cache.UserPreferenceCache;
 import com.nutrition.infrastructure.repository.EmailConfirmationTokenRepository;
 import com.nutrition.infrastructure.repository.FoodRepository;
 import com.nutrition.infrastructure.repository.PasswordResetTokenRepository;
 import com.nutrition.infrastructure.repository.RefreshTokenRepository;
 import com.nutrition.infrastructure.repository.SupplementRepository;
-import com.nutrition.infrastructure.repository.UserFoodPreferenceRepository;
 import com.nutrition.infrastructure.repository.UserProfileRepository;
 import com.nutrition.infrastructure.repository.UserRepository;
 import com.nutrition.infrastructure.repository.UserSupplementRepository;
@@ -21,7 +21,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -33,14 +32,15 @@ public class DashboardService {
 
     private final UserProfileRepository profileRepository;
     private final UserSupplementRepository userSupplementRepository;
-    private final UserFoodPreferenceRepository foodPreferenceRepository;
+    private final UserPreferenceCache userPreferenceCache;
     private final WeightHistoryRepository weightHistoryRepository;
 
     public Map<String, Object> getDashboardStats(User user) {
         try {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalFoodPreferences", foodPreferenceRepository.findByUserAndPreferenceTypes(user, Arrays.stream(UserFoodPreference.PreferenceType.values()).toList()).size());
-            stats.put("favoriteFoods", foodPreferenceRepository.findByUserAndPreferenceTypeFavorite(user).size());
+            UserPreferenceCache.FoodPreferences preferences = userPreferenceCache.get(user.getId());
+            stats.put("totalFoodPreferences", preferences.size());
+            stats.put("favoriteFoods", preferences.count(UserFoodPreference.PreferenceType.FAVORITE));
             stats.put("currentSupplements", userSupplementRepository.countByUser(user));
 
             stats.put("weightRecords", weightHistoryRepository.countByUser(user));
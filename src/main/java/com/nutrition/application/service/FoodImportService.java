@@ -0,0 +1,345 @@
+package com.nutrition.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nutrition.application.dto.food.CreateFoodRequest;
+import com.nutrition.application.dto.food.FoodImportRequest;
+import com.nutrition.application.dto.food.FoodImportResponse;
+import com.nutrition.domain.entity.auth.User;
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.infrastructure.cache.BarcodeCache;
+import com.nutrition.infrastructure.cache.CatalogStatistics;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.exception.UnprocessableEntityException;
+import com.nutrition.infrastructure.importer.FoodImportField;
+import com.nutrition.infrastructure.importer.FoodImportLayout;
+import com.nutrition.infrastructure.importer.FoodRecordReader;
+import com.nutrition.infrastructure.repository.FoodBulkInsertRepository;
+import com.nutrition.infrastructure.repository.UserRepository;
+import com.nutrition.infrastructure.search.TextNormalizer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk food import from CSV or JSON files (optionally gzipped).
+ * <p>
+ * Records are streamed, validated against the {@link CreateFoodRequest} constraints, deduplicated on
+ * barcode in memory and written in multi-row chunks by {@link FoodBulkInsertRepository}. Each chunk
+ * commits on its own; re-running an interrupted import is safe because existing names and barcodes
+ * are skipped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FoodImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int PROGRESS_LOG_INTERVAL = 100_000;
+
+    private final FoodBulkInsertRepository bulkInsertRepository;
+    private final UserRepository userRepository;
+    private final FoodCatalog foodCatalog;
+    private final BarcodeCache barcodeCache;
+    private final CatalogStatistics catalogStatistics;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.import.directory:./imports}")
+    private String importDirectory;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    /**
+     * Imports a file from the configured import directory on behalf of the current admin.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public FoodImportResponse importFoods(FoodImportRequest request) {
+        try {
+            User currentUser = getCurrentUser();
+
+            Path file = resolveImportFile(request.getFile());
+            FoodImportLayout layout = parseLayout(request.getLayout());
+            Food.FoodCategory defaultCategory = request.getDefaultCategory() != null
+                    ? parseFoodCategory(request.getDefaultCategory()) : null;
+
+            FoodImportResponse response = importFile(file, parseFormat(request.getFormat(), file), layout,
+                    defaultCategory, currentUser.getId());
+
+            log.info("Food import requested by {} completed: {}", currentUser.getEmail(), request.getFile());
+            return response;
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid food import request: {}", e.getMessage());
+            throw new UnprocessableEntityException(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing foods: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Imports any readable file. Without a default category, TACO and USDA groups that do not map to a
+     * {@link Food.FoodCategory} become {@code OTHER}, while NATIVE records with an unknown category are rejected.
+     */
+    public FoodImportResponse importFile(Path file, Format format, FoodImportLayout layout,
+                                         Food.FoodCategory defaultCategory, Long createdByUserId) throws IOException {
+        long start = System.currentTimeMillis();
+
+        Food.FoodCategory fallbackCategory = defaultCategory != null || layout == FoodImportLayout.NATIVE
+                ? defaultCategory : Food.FoodCategory.OTHER;
+        int chunkSize = Math.max(1, Math.min(batchSize, FoodBulkInsertRepository.MAX_ROWS_PER_STATEMENT));
+
+        Set<String> seenBarcodes = new HashSet<>();
+        List<Food> chunk = new ArrayList<>(chunkSize);
+        List<String> errors = new ArrayList<>();
+        long total = 0;
+        long imported = 0;
+        long attempted = 0;
+        long duplicates = 0;
+        long invalid = 0;
+
+        log.info("Starting food import from {} ({}, layout {})", file, format, layout);
+
+        try (FoodRecordReader reader = openReader(file, format, layout)) {
+            Map<FoodImportField, String> record;
+            while ((record = reader.next()) != null) {
+                total++;
+                if (total % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Food import progress: {} records read, {} imported", total, imported);
+                }
+
+                Food food;
+                try {
+                    food = toFood(record, layout, fallbackCategory);
+                } catch (IllegalArgumentException e) {
+                    invalid++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("Registro " + reader.getRecordNumber() + ": " + e.getMessage());
+                    }
+                    continue;
+                }
+
+                // Código de barras repetido no próprio arquivo: vale o primeiro registro
+                if (food.getBarcode() != null && !seenBarcodes.add(food.getBarcode())) {
+                    duplicates++;
+                    continue;
+                }
+
+                chunk.add(food);
+                if (chunk.size() == chunkSize) {
+                    attempted += chunk.size();
+                    imported += bulkInsertRepository.insertIgnoringConflicts(chunk, createdByUserId);
+                    chunk.clear();
+                }
+            }
+        }
+
+        attempted += chunk.size();
+        imported += bulkInsertRepository.insertIgnoringConflicts(chunk, createdByUserId);
+
+        if (imported > 0) {
+            // As inserções não passam pelo FoodService: descartar negativos do cache e recarregar o catálogo
+            barcodeCache.clear();
+            foodCatalog.reload();
+            catalogStatistics.reconcile();
+        }
+
+        FoodImportResponse response = FoodImportResponse.builder()
+                .totalRecords(total)
+                .imported(imported)
+                .duplicateBarcodes(duplicates)
+                .alreadyExisting(attempted - imported)
+                .invalid(invalid)
+                .errors(errors)
+                .elapsedMs(System.currentTimeMillis() - start)
+                .build();
+
+        log.info("Food import finished: {} records, {} imported, {} duplicate barcodes, {} already existing, {} invalid in {} ms",
+                total, imported, duplicates, response.getAlreadyExisting(), invalid, response.getElapsedMs());
+        return response;
+    }
+
+    private FoodRecordReader openReader(Path file, Format format, FoodImportLayout layout) throws IOException {
+        InputStream input = Files.newInputStream(file);
+        try {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+                input = new GZIPInputStream(input, 64 * 1024);
+            }
+            if (format == Format.JSON) {
+                return FoodRecordReader.json(objectMapper.getFactory().createParser(input), layout);
+            }
+            return FoodRecordReader.csv(
+                    new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024), layout);
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    private Food toFood(Map<FoodImportField, String> record, FoodImportLayout layout, Food.FoodCategory fallbackCategory) {
+        Food.FoodCategory category = FoodImportLayout.resolveCategory(record.get(FoodImportField.CATEGORY), fallbackCategory);
+
+        CreateFoodRequest request = CreateFoodRequest.builder()
+                .name(record.get(FoodImportField.NAME))
+                .description(record.get(FoodImportField.DESCRIPTION))
+                .brand(record.get(FoodImportField.BRAND))
+                .category(category != null ? category.name() : null)
+                .barcode(record.get(FoodImportField.BARCODE))
+                .caloriesPer100g(parseDecimal(record, FoodImportField.CALORIES))
+                .carbsPer100g(parseDecimal(record, FoodImportField.CARBS))
+                .proteinPer100g(parseDecimal(record, FoodImportField.PROTEIN))
+                .fatPer100g(parseDecimal(record, FoodImportField.FAT))
+                .fiberPer100g(parseDecimal(record, FoodImportField.FIBER))
+                .sugarPer100g(parseDecimal(record, FoodImportField.SUGAR))
+                .sodiumPer100g(parseDecimal(record, FoodImportField.SODIUM))
+                .saturatedFatPer100g(parseDecimal(record, FoodImportField.SATURATED_FAT))
+                .servingSize(parseDecimal(record, FoodImportField.SERVING_SIZE))
+                .servingDescription(record.get(FoodImportField.SERVING_DESCRIPTION))
+                .source(record.getOrDefault(FoodImportField.SOURCE, layout.getSource()))
+                .build();
+
+        if (record.containsKey(FoodImportField.CATEGORY) && category == null) {
+            throw new IllegalArgumentException("Categoria inválida: " + record.get(FoodImportField.CATEGORY));
+        }
+
+        Set<ConstraintViolation<CreateFoodRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<CreateFoodRequest> violation = violations.iterator().next();
+            throw new IllegalArgumentException(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+
+        return Food.builder()
+                .name(request.getName())
+                .description(request.getDescription())
+                .brand(request.getBrand())
+                .category(category)
+                .barcode(request.getBarcode())
+                .caloriesPer100g(request.getCaloriesPer100g())
+                .carbsPer100g(request.getCarbsPer100g())
+                .proteinPer100g(request.getProteinPer100g())
+                .fatPer100g(request.getFatPer100g())
+                .fiberPer100g(request.getFiberPer100g())
+                .sugarPer100g(request.getSugarPer100g())
+                .sodiumPer100g(request.getSodiumPer100g())
+                .saturatedFatPer100g(request.getSaturatedFatPer100g())
+                .servingSize(request.getServingSize())
+                .servingDescription(request.getServingDescription())
+                .source(request.getSource())
+                .active(true)
+                .build();
+    }
+
+    /**
+     * Parses a nutrient value rounded to the two decimals stored in the database. Accepts a decimal comma
+     * (TACO) and treats "Tr" (traço) as zero and "NA", "*" or "-" as missing.
+     */
+    private static BigDecimal parseDecimal(Map<FoodImportField, String> record, FoodImportField field) {
+        String raw = record.get(field);
+        if (raw == null) {
+            return null;
+        }
+
+        String text = TextNormalizer.normalize(raw);
+        switch (text) {
+            case "tr", "traco" -> {
+                return BigDecimal.ZERO.setScale(2);
+            }
+            case "na", "nd", "*", "-" -> {
+                return null;
+            }
+            default -> {
+            }
+        }
+        if (text.indexOf(',') >= 0 && text.indexOf('.') < 0) {
+            text = text.replace(',', '.');
+        }
+
+        try {
+            return new BigDecimal(text).setScale(2, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + field.getPropertyName() + ": " + raw);
+        }
+    }
+
+    private Path resolveImportFile(String file) {
+        Path baseDirectory = Paths.get(importDirectory).toAbsolutePath().normalize();
+        Path resolved = baseDirectory.resolve(file).normalize();
+
+        // Somente arquivos dentro do diretório de importação
+        if (!resolved.startsWith(baseDirectory)) {
+            throw new IllegalArgumentException("Arquivo fora do diretório de importação");
+        }
+        if (!Files.isRegularFile(resolved) || !Files.isReadable(resolved)) {
+            throw new IllegalArgumentException("Arquivo de importação não encontrado: " + file);
+        }
+        return resolved;
+    }
+
+    public static Format parseFormat(String format, Path file) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato de importação inválido: " + format);
+            }
+        }
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".json") || name.endsWith(".json.gz") ? Format.JSON : Format.CSV;
+    }
+
+    public static FoodImportLayout parseLayout(String layout) {
+        if (layout == null || layout.isBlank()) {
+            return FoodImportLayout.NATIVE;
+        }
+        try {
+            return FoodImportLayout.valueOf(layout.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Layout de importação inválido: " + layout);
+        }
+    }
+
+    public static Food.FoodCategory parseFoodCategory(String category) {
+        try {
+            return Food.FoodCategory.valueOf(category.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Categoria inválida: " + category);
+        }
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication.getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    }
+}
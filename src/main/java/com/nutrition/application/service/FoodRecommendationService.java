@@ -0,0 +1,129 @@
+package com.nutrition.application.service;
+
+import com.nutrition.domain.entity.auth.User;
+import com.nutrition.domain.entity.food.UserDietaryRestriction;
+import com.nutrition.domain.entity.food.UserFoodPreference;
+import com.nutrition.domain.entity.meal.MealConsumption;
+import com.nutrition.domain.entity.meal.NutrientVector;
+import com.nutrition.domain.entity.profile.UserProfile;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.RecommendationCache;
+import com.nutrition.infrastructure.cache.UserPreferenceCache;
+import com.nutrition.infrastructure.repository.MealConsumptionRepository;
+import com.nutrition.infrastructure.repository.UserDietaryRestrictionRepository;
+import com.nutrition.infrastructure.repository.UserProfileRepository;
+import com.nutrition.infrastructure.search.FoodRecommendationEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-user food recommendations ranked against the energy and macros left for today.
+ * Results are computed over the in-memory catalog and kept in {@link RecommendationCache}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FoodRecommendationService {
+
+    /**
+     * Recommendations kept per user; pages are cut from this list.
+     */
+    public static final int MAX_RECOMMENDATIONS = 200;
+
+    private static final double DEFAULT_DAILY_CALORIES = 2000;
+
+    // Divisão padrão da meta calórica entre os macronutrientes
+    private static final double PROTEIN_SHARE = 0.25;
+    private static final double CARBS_SHARE = 0.45;
+    private static final double FAT_SHARE = 0.30;
+
+    private final FoodCatalog foodCatalog;
+    private final FoodRecommendationEngine recommendationEngine;
+    private final RecommendationCache recommendationCache;
+    private final UserProfileRepository profileRepository;
+    private final MealConsumptionRepository mealConsumptionRepository;
+    private final UserPreferenceCache userPreferenceCache;
+    private final UserDietaryRestrictionRepository dietaryRestrictionRepository;
+
+    public boolean isReady() {
+        return foodCatalog.isReady();
+    }
+
+    /**
+     * Ranked ids of active foods for the user, best first (at most {@link #MAX_RECOMMENDATIONS}).
+     */
+    @Transactional(readOnly = true)
+    public List<Long> recommendFoodIds(User user) {
+        FoodCatalog.Snapshot snapshot = foodCatalog.current();
+        LocalDate today = LocalDate.now();
+
+        List<Long> cached = recommendationCache.get(user.getId(), today, snapshot.getVersion());
+        if (cached != null) {
+            return cached;
+        }
+
+        long start = System.currentTimeMillis();
+        long generation = recommendationCache.generation();
+
+        FoodRecommendationEngine.Budget budget = remainingBudget(user, today);
+
+        Set<UserDietaryRestriction.DietaryRestrictionType> excluded =
+                EnumSet.noneOf(UserDietaryRestriction.DietaryRestrictionType.class);
+        Set<UserDietaryRestriction.DietaryRestrictionType> penalized =
+                EnumSet.noneOf(UserDietaryRestriction.DietaryRestrictionType.class);
+        for (UserDietaryRestriction restriction : dietaryRestrictionRepository.findByUserIdAndActiveTrue(user.getId())) {
+            if (restriction.getSeverity() == UserDietaryRestriction.Severity.MILD) {
+                penalized.add(restriction.getRestrictionType());
+            } else {
+                excluded.add(restriction.getRestrictionType());
+            }
+        }
+
+        Set<Long> favorites = new HashSet<>(userPreferenceCache.get(user.getId())
+                .foodIds(UserFoodPreference.PreferenceType.FAVORITE));
+
+        List<Long> foodIds = recommendationEngine.recommend(budget, excluded, penalized, favorites,
+                MAX_RECOMMENDATIONS);
+        recommendationCache.put(user.getId(), today, snapshot.getVersion(), foodIds, generation);
+
+        log.debug("Recommendations computed for user {}: {} foods in {} ms",
+                user.getId(), foodIds.size(), System.currentTimeMillis() - start);
+        return foodIds;
+    }
+
+    /**
+     * Daily target (profile calorie target split 25/45/30 between protein, carbs and fat)
+     * minus what the meals consumed today add up to.
+     */
+    private FoodRecommendationEngine.Budget remainingBudget(User user, LocalDate date) {
+        double targetCalories = profileRepository.findByUser(user)
+                .map(UserProfile::getDailyCalorieTarget)
+                .filter(target -> target.signum() > 0)
+                .map(BigDecimal::doubleValue)
+                .orElse(DEFAULT_DAILY_CALORIES);
+
+        double calories = targetCalories;
+        double protein = targetCalories * PROTEIN_SHARE / 4;
+        double carbs = targetCalories * CARBS_SHARE / 4;
+        double fat = targetCalories * FAT_SHARE / 9;
+
+        for (MealConsumption consumption : mealConsumptionRepository.findWithMealByUserIdAndConsumptionDate(user.getId(), date)) {
+            NutrientVector totals = consumption.getMeal().getNutrientTotals();
+            calories -= totals.getCalories().doubleValue();
+            protein -= totals.getProtein().doubleValue();
+            carbs -= totals.getCarbs().doubleValue();
+            fat -= totals.getFat().doubleValue();
+        }
+
+        return new FoodRecommendationEngine.Budget(calories, protein, carbs, fat);
+    }
+}
@@ -1,22 +1,50 @@
 package com.nutrition.application.service;
 
+import com.nutrition.application.dto.food.BarcodeLookupResponse;
+import com.nutrition.application.dto.food.BatchLookupResponse;
+import com.nutrition.application.dto.food.CachedFoodResponse;
 import com.nutrition.application.dto.food.CreateFoodRequest;
+import com.nutrition.application.dto.food.CursorPageResponse;
 import com.nutrition.application.dto.food.FoodResponse;
 import com.nutrition.application.dto.food.FoodSearchRequest;
+import com.nutrition.application.dto.food.FoodSuggestionResponse;
+import com.nutrition.application.dto.food.SearchMode;
 import com.nutrition.application.dto.food.UpdateFoodRequest;
 import com.nutrition.application.dto.food.UserPreferenceRequest;
 import com.nutrition.domain.entity.auth.User;
 import com.nutrition.domain.entity.food.Food;
 import com.nutrition.domain.entity.food.UserFoodPreference;
+import com.nutrition.domain.event.FoodChangedEvent;
+import com.nutrition.domain.event.FoodPreferenceChangedEvent;
+import com.nutrition.domain.event.UserNutritionChangedEvent;
+import com.nutrition.infrastructure.cache.BarcodeCache;
+import com.nutrition.infrastructure.cache.CatalogStatistics;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.FoodJsonCache;
+import com.nutrition.infrastructure.cache.ResourceVersions;
+import com.nutrition.infrastructure.cache.UserPreferenceCache;
+import com.nutrition.infrastructure.exception.NotFoundException;
 import com.nutrition.infrastructure.exception.UnprocessableEntityException;
+import com.nutrition.infrastructure.pagination.NameCursor;
 import com.nutrition.infrastructure.repository.FoodRepository;
+import com.nutrition.infrastructure.repository.MealRepository;
 import com.nutrition.infrastructure.repository.UserFoodPreferenceRepository;
 import com.nutrition.infrastructure.repository.UserRepository;
+import com.nutrition.infrastructure.search.FoodAutocompleteIndex;
+import com.nutrition.infrastructure.search.FoodFuzzyIndex;
+import com.nutrition.infrastructure.search.FoodNutrientIndex;
+import com.nutrition.infrastructure.search.FoodSearchIndex;
+import com.nutrition.infrastructure.search.FoodSimilarityIndex;
+import com.nutrition.infrastructure.search.TextNormalizer;
+import com.nutrition.infrastructure.search.TrigramSearchSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -24,8 +52,18 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,9 +71,29 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FoodService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_AUTOCOMPLETE_SIZE = FoodAutocompleteIndex.MAX_SUGGESTIONS;
+    private static final int MAX_SIMILAR_SIZE = 50;
+
     private final FoodRepository foodRepository;
+    private final MealRepository mealRepository;
     private final UserFoodPreferenceRepository preferenceRepository;
     private final UserRepository userRepository;
+    private final FoodSearchIndex foodSearchIndex;
+    private final FoodAutocompleteIndex foodAutocompleteIndex;
+    private final FoodFuzzyIndex foodFuzzyIndex;
+    private final FoodNutrientIndex foodNutrientIndex;
+    private final FoodSimilarityIndex foodSimilarityIndex;
+    private final BarcodeCache barcodeCache;
+    private final FoodCatalog foodCatalog;
+    private final FoodJsonCache foodJsonCache;
+    private final UserPreferenceCache userPreferenceCache;
+    private final CatalogStatistics catalogStatistics;
+    private final ResourceVersions resourceVersions;
+    private final TrigramSearchSupport trigramSearchSupport;
+    private final FoodRecommendationService foodRecommendationService;
+    private final NutritionRollupService nutritionRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
@@ -45,7 +103,7 @@ public class FoodService {
 
             // Verificar se já existe alimento com mesmo código de barras
             if (request.getBarcode() != null && !request.getBarcode().trim().isEmpty()) {
-                if (foodRepository.findByBarcodeAndActiveTrue(request.getBarcode()).isPresent()) {
+                if (findActiveByBarcode(request.getBarcode()) != null) {
                     throw new UnprocessableEntityException("Já existe um alimento com este código de barras");
                 }
             }
@@ -75,6 +133,9 @@ public class FoodService {
                     .build();
 
             food = foodRepository.save(food);
+            eventPublisher.publishEvent(new FoodChangedEvent(food.getId(), FoodChangedEvent.ChangeType.CREATED,
+                    Collections.singleton(food.getBarcode())));
+            catalogStatistics.foodCategoryChanged(null, food.getCategory());
 
             FoodResponse response = buildFoodResponse(food, null);
 
@@ -101,6 +162,9 @@ public class FoodService {
                 throw new UnprocessableEntityException("Alimento não encontrado");
             }
 
+            String previousBarcode = food.getBarcode();
+            Food.FoodCategory previousCategory = food.getCategory();
+
             // Atualizar campos se fornecidos
             if (request.getName() != null && !request.getName().trim().isEmpty()) {
                 food.setName(request.getName().trim());
@@ -120,30 +184,42 @@ public class FoodService {
 
             if (request.getBarcode() != null) {
                 // Verificar se já existe outro alimento com este código
-                foodRepository.findByBarcodeAndActiveTrue(request.getBarcode())
-                        .ifPresent(existingFood -> {
-                            if (!existingFood.getId().equals(foodId)) {
-                                throw new IllegalArgumentException("Já existe outro alimento com este código de barras");
-                            }
-                        });
+                Food existingFood = findActiveByBarcode(request.getBarcode());
+                if (existingFood != null && !existingFood.getId().equals(foodId)) {
+                    throw new IllegalArgumentException("Já existe outro alimento com este código de barras");
+                }
                 food.setBarcode(request.getBarcode());
             }
 
             // Atualizar informações nutricionais
+            boolean nutrientsChanged = false;
             if (request.getCaloriesPer100g() != null) {
+                nutrientsChanged |= !sameValue(food.getCaloriesPer100g(), request.getCaloriesPer100g());
                 food.setCaloriesPer100g(request.getCaloriesPer100g());
             }
             if (request.getCarbsPer100g() != null) {
+                nutrientsChanged |= !sameValue(food.getCarbsPer100g(), request.getCarbsPer100g());
                 food.setCarbsPer100g(request.getCarbsPer100g());
             }
             if (request.getProteinPer100g() != null) {
+                nutrientsChanged |= !sameValue(food.getProteinPer100g(), request.getProteinPer100g());
                 food.setProteinPer100g(request.getProteinPer100g());
             }
             if (request.getFatPer100g() != null) {
+                nutrientsChanged |= !sameValue(food.getFatPer100g(), request.getFatPer100g());
                 food.setFatPer100g(request.getFatPer100g());
             }
 
             food = foodRepository.save(food);
+            if (nutrientsChanged) {
+                // Totais persistidos das refeições que usam o alimento
+                int meals = mealRepository.recalculateTotalsForFood(food.getId());
+                log.info("Nutrient totals recalculated for {} meals containing food {}", meals, food.getId());
+                nutritionRollupService.refreshDaysForFood(food.getId());
+            }
+            eventPublisher.publishEvent(new FoodChangedEvent(food.getId(), FoodChangedEvent.ChangeType.UPDATED,
+                    Arrays.asList(previousBarcode, food.getBarcode())));
+            catalogStatistics.foodCategoryChanged(previousCategory, food.getCategory());
 
             FoodResponse response = buildFoodResponse(food, null);
 
@@ -159,53 +235,154 @@ public class FoodService {
         }
     }
 
-    public Page<FoodResponse> searchFoods(FoodSearchRequest searchRequest, int page, int size) {
+    /**
+     * Searches foods. With {@code withCount = false} the database paths return a {@link Slice} and skip
+     * the COUNT query; in-memory paths know the total anyway and always return a {@link Page}.
+     */
+    @Transactional(readOnly = true)
+    public Slice<FoodResponse> searchFoods(FoodSearchRequest searchRequest, int page, int size, boolean withCount) {
         try {
             User currentUser = getCurrentUserOrNull();
 
             Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-            Page<Food> foods;
+            Slice<Food> foods;
 
             // Support both 'name' and 'query' parameters (query is an alias for name)
             String searchName = searchRequest.getName() != null ? searchRequest.getName() : searchRequest.getQuery();
 
-            // Se tem critérios de busca, usar busca avançada
-            if (hasSearchCriteria(searchRequest)) {
-                foods = foodRepository.findByAdvancedFilters(
-                        searchName,
-                        searchRequest.getCategory(),
-                        searchRequest.getBrand(),
-                        searchRequest.getMinCalories(),
-                        searchRequest.getMaxCalories(),
-                        searchRequest.getMinProtein(),
-                        searchRequest.getMaxCarbs(),
-                        searchRequest.getMaxFat(),
-                        searchRequest.getMinFiber(),
-                        searchRequest.getMaxSodium(),
-                        null, // barcode
-                        pageable
-                );
+            SearchMode mode = SearchMode.from(searchRequest.getMode());
+            boolean hasNameTerm = TextNormalizer.normalizeTerm(searchName) != null;
+            // Sem pg_trgm, RANKED cai na busca por LIKE
+            boolean ranked = mode == SearchMode.RANKED && hasNameTerm && trigramSearchSupport.isAvailable();
+            boolean canSearchFuzzy = foodFuzzyIndex.isReady() && foodNutrientIndex.isReady()
+                    && isInMemorySearch(searchRequest, currentUser);
+
+            if (mode == SearchMode.FUZZY && hasNameTerm && canSearchFuzzy) {
+                foods = searchFuzzy(searchName, searchRequest, pageable, currentUser);
+            } else if (!ranked && isInMemorySearch(searchRequest, currentUser) && foodSearchIndex.isReady() && foodNutrientIndex.isReady()) {
+                // Filtros de texto, categoria e nutrientes: responder pelos índices em memória
+                foods = searchFromIndex(searchName, searchRequest, pageable, currentUser);
+            } else if (ranked || hasSearchCriteria(searchRequest)) {
+                // Se tem critérios de busca, usar busca avançada
+                String userPreference = searchRequest.getUserPreference() != null && !searchRequest.getUserPreference().isEmpty()
+                        ? searchRequest.getUserPreference() : null;
+
+                if (userPreference != null && currentUser == null) {
+                    // Não é possível filtrar por preferência sem usuário logado
+                    return Page.empty(pageable);
+                }
+
+                Long userId = currentUser != null ? currentUser.getId() : null;
+
+                if (ranked) {
+                    // Ordenação por relevância vem da própria consulta, sem ordenação por nome do Pageable
+                    trigramSearchSupport.applySimilarityThreshold();
+                    Pageable unsorted = PageRequest.of(page, size);
+                    if (withCount) {
+                        foods = foodRepository.findRankedByAdvancedFilters(
+                                searchName.trim(),
+                                searchRequest.getCategory(),
+                                searchRequest.getBrand(),
+                                searchRequest.getMinCalories(),
+                                searchRequest.getMaxCalories(),
+                                searchRequest.getMinProtein(),
+                                searchRequest.getMaxCarbs(),
+                                searchRequest.getMaxFat(),
+                                searchRequest.getMinFiber(),
+                                searchRequest.getMaxSodium(),
+                                null, // barcode
+                                Boolean.TRUE.equals(searchRequest.getHighProtein()),
+                                Boolean.TRUE.equals(searchRequest.getLowCarb()),
+                                Boolean.TRUE.equals(searchRequest.getHighFiber()),
+                                userId,
+                                userPreference,
+                                unsorted
+                        );
+                    } else {
+                        foods = foodRepository.findRankedSliceByAdvancedFilters(
+                                searchName.trim(),
+                                searchRequest.getCategory(),
+                                searchRequest.getBrand(),
+                                searchRequest.getMinCalories(),
+                                searchRequest.getMaxCalories(),
+                                searchRequest.getMinProtein(),
+                                searchRequest.getMaxCarbs(),
+                                searchRequest.getMaxFat(),
+                                searchRequest.getMinFiber(),
+                                searchRequest.getMaxSodium(),
+                                null, // barcode
+                                Boolean.TRUE.equals(searchRequest.getHighProtein()),
+                                Boolean.TRUE.equals(searchRequest.getLowCarb()),
+                                Boolean.TRUE.equals(searchRequest.getHighFiber()),
+                                userId,
+                                userPreference,
+                                unsorted
+                        );
+                    }
+                } else if (withCount) {
+                    foods = foodRepository.findByAdvancedFilters(
+                            searchName,
+                            searchRequest.getCategory(),
+                            searchRequest.getBrand(),
+                            searchRequest.getMinCalories(),
+                            searchRequest.getMaxCalories(),
+                            searchRequest.getMinProtein(),
+                            searchRequest.getMaxCarbs(),
+                            searchRequest.getMaxFat(),
+                            searchRequest.getMinFiber(),
+                            searchRequest.getMaxSodium(),
+                            null, // barcode
+                            Boolean.TRUE.equals(searchRequest.getHighProtein()),
+                            Boolean.TRUE.equals(searchRequest.getLowCarb()),
+                            Boolean.TRUE.equals(searchRequest.getHighFiber()),
+                            userId,
+                            userPreference,
+                            pageable
+                    );
+                } else {
+                    foods = foodRepository.findSliceByAdvancedFilters(
+                            searchName,
+                            searchRequest.getCategory(),
+                            searchRequest.getBrand(),
+                            searchRequest.getMinCalories(),
+                            searchRequest.getMaxCalories(),
+                            searchRequest.getMinProtein(),
+                            searchRequest.getMaxCarbs(),
+                            searchRequest.getMaxFat(),
+                            searchRequest.getMinFiber(),
+                            searchRequest.getMaxSodium(),
+                            null, // barcode
+                            Boolean.TRUE.equals(searchRequest.getHighProtein()),
+                            Boolean.TRUE.equals(searchRequest.getLowCarb()),
+                            Boolean.TRUE.equals(searchRequest.getHighFiber()),
+                            userId,
+                            userPreference,
+                            pageable
+                    );
+                }
             } else {
                 // Busca geral
-                foods = foodRepository.findByActiveTrueOrderByNameAsc(pageable);
+                if (foodCatalog.isReady()) {
+                    foods = pageOf(foodCatalog.current().getFoods(), pageable);
+                } else if (withCount) {
+                    foods = foodRepository.findByActiveTrueOrderByNameAsc(pageable);
+                } else {
+                    foods = foodRepository.findSliceByActiveTrueOrderByNameAsc(pageable);
+                }
             }
 
-            // Apply post-filters for boolean flags (highProtein, lowCarb, highFiber)
-            List<Food> filteredList = foods.getContent().stream()
-                    .filter(food -> applyBooleanFilters(food, searchRequest))
-                    .filter(food -> applyUserPreferenceFilter(food, currentUser, searchRequest))
-                    .collect(java.util.stream.Collectors.toList());
-
-            // Convert filtered list back to Page with correct total count
-            Page<Food> filteredFoods = new org.springframework.data.domain.PageImpl<>(
-                    filteredList,
-                    pageable,
-                    foods.getTotalElements()  // Use original database count, not filtered list size
-            );
+            // Nenhum resultado exato na primeira página: tentar com tolerância a erros de digitação
+            if (mode == SearchMode.ALPHABETICAL && hasNameTerm && canSearchFuzzy
+                    && pageable.getOffset() == 0 && !foods.hasContent()) {
+                foods = searchFuzzy(searchName, searchRequest, pageable, currentUser);
+                log.debug("Exact food search for '{}' returned nothing, fuzzy fallback found {} foods",
+                        searchName, foods.getNumberOfElements());
+            }
 
-            Page<FoodResponse> responses = filteredFoods.map(food -> buildFoodResponse(food, currentUser));
+            Slice<FoodResponse> responses = buildFoodResponses(foods, currentUser);
 
-            log.info("Food search completed: {} results", responses.getTotalElements());
+            log.info("Food search completed: {} results", foods instanceof Page
+                    ? ((Page<Food>) foods).getTotalElements() : foods.getNumberOfElements());
             return responses;
 
         } catch (IllegalArgumentException e) {
@@ -218,66 +395,453 @@ public class FoodService {
     }
 
     /**
-     * Apply boolean filters (highProtein, lowCarb, highFiber)
+     * Answers a search from the in-memory indexes and loads only the requested page: name/brand terms
+     * go through the trigram index, nutrient ranges and flags through the columnar nutrient index,
+     * and the user preference filter through the preference cache.
+     */
+    private Page<Food> searchFromIndex(String searchName, FoodSearchRequest request, Pageable pageable, User currentUser) {
+        Food.FoodCategory category = null;
+        if (request.getCategory() != null) {
+            try {
+                category = Food.FoodCategory.valueOf(request.getCategory());
+            } catch (IllegalArgumentException e) {
+                // Mesmo comportamento da consulta SQL: categoria desconhecida não retorna resultados
+                return Page.empty(pageable);
+            }
+        }
+
+        UserFoodPreference.PreferenceType preferenceType = null;
+        if (request.getUserPreference() != null && !request.getUserPreference().isEmpty()) {
+            try {
+                preferenceType = UserFoodPreference.PreferenceType.valueOf(request.getUserPreference());
+            } catch (IllegalArgumentException e) {
+                // Mesmo comportamento da consulta SQL: preferência desconhecida não retorna resultados
+                return Page.empty(pageable);
+            }
+        }
+
+        int offset = (int) pageable.getOffset();
+        boolean hasText = searchName != null || request.getBrand() != null;
+
+        if (preferenceType != null) {
+            List<Long> candidateIds;
+            if (!hasNutrientFilters(request)) {
+                FoodSearchIndex.Matches matches = foodSearchIndex.search(searchName, request.getBrand(), category);
+                candidateIds = matches.ids(0, matches.count());
+            } else if (!hasText) {
+                FoodNutrientIndex.Matches matches = foodNutrientIndex.search(buildNutrientFilter(request, category));
+                candidateIds = matches.ids(0, matches.count());
+            } else {
+                FoodNutrientIndex.Matches nutrientMatches = foodNutrientIndex.search(buildNutrientFilter(request, category));
+                FoodSearchIndex.Matches textMatches = foodSearchIndex.search(searchName, request.getBrand(), category);
+                candidateIds = textMatches.ids(0, textMatches.count()).stream()
+                        .filter(nutrientMatches::contains)
+                        .collect(Collectors.toList());
+            }
+
+            UserPreferenceCache.FoodPreferences preferences = userPreferenceCache.get(currentUser.getId());
+            UserFoodPreference.PreferenceType type = preferenceType;
+            List<Long> matchedIds = candidateIds.stream()
+                    .filter(id -> preferences.get(id) == type)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(findActiveInOrder(pageOf(matchedIds, pageable).getContent()), pageable, matchedIds.size());
+        }
+
+        if (!hasNutrientFilters(request)) {
+            FoodSearchIndex.Matches matches = foodSearchIndex.search(searchName, request.getBrand(), category);
+            return new PageImpl<>(findActiveInOrder(matches.ids(offset, pageable.getPageSize())), pageable, matches.count());
+        }
+
+        FoodNutrientIndex.Matches nutrientMatches = foodNutrientIndex.search(buildNutrientFilter(request, category));
+        if (!hasText) {
+            return new PageImpl<>(findActiveInOrder(nutrientMatches.ids(offset, pageable.getPageSize())), pageable,
+                    nutrientMatches.count());
+        }
+
+        // Os dois índices numeram os documentos na mesma ordem (nome), então basta filtrar a lista de texto
+        FoodSearchIndex.Matches textMatches = foodSearchIndex.search(searchName, request.getBrand(), category);
+        List<Long> matchedIds = textMatches.ids(0, textMatches.count()).stream()
+                .filter(nutrientMatches::contains)
+                .collect(Collectors.toList());
+
+        List<Long> pageIds = offset < matchedIds.size()
+                ? matchedIds.subList(offset, Math.min(offset + pageable.getPageSize(), matchedIds.size()))
+                : List.of();
+        return new PageImpl<>(findActiveInOrder(pageIds), pageable, matchedIds.size());
+    }
+
+    /**
+     * Typo-tolerant search: name words are matched through the fuzzy index and ranked by how many query
+     * words they cover and by edit distance; the other filters are applied like in {@link #searchFromIndex}.
+     */
+    private Page<Food> searchFuzzy(String searchName, FoodSearchRequest request, Pageable pageable, User currentUser) {
+        Food.FoodCategory category = null;
+        if (request.getCategory() != null) {
+            try {
+                category = Food.FoodCategory.valueOf(request.getCategory());
+            } catch (IllegalArgumentException e) {
+                return Page.empty(pageable);
+            }
+        }
+
+        UserFoodPreference.PreferenceType preferenceType = null;
+        if (request.getUserPreference() != null && !request.getUserPreference().isEmpty()) {
+            try {
+                preferenceType = UserFoodPreference.PreferenceType.valueOf(request.getUserPreference());
+            } catch (IllegalArgumentException e) {
+                return Page.empty(pageable);
+            }
+        }
+
+        List<Long> matchedIds = foodFuzzyIndex.search(searchName, request.getBrand(), category);
+
+        if (hasNutrientFilters(request)) {
+            FoodNutrientIndex.Matches nutrientMatches = foodNutrientIndex.search(buildNutrientFilter(request, category));
+            matchedIds = matchedIds.stream()
+                    .filter(nutrientMatches::contains)
+                    .collect(Collectors.toList());
+        }
+        if (preferenceType != null) {
+            UserPreferenceCache.FoodPreferences preferences = userPreferenceCache.get(currentUser.getId());
+            UserFoodPreference.PreferenceType type = preferenceType;
+            matchedIds = matchedIds.stream()
+                    .filter(id -> preferences.get(id) == type)
+                    .collect(Collectors.toList());
+        }
+
+        return new PageImpl<>(findActiveInOrder(pageOf(matchedIds, pageable).getContent()), pageable, matchedIds.size());
+    }
+
+    /**
+     * Same predicates as the nutrient and flag clauses of {@link FoodRepository#findByAdvancedFilters}.
+     */
+    private FoodNutrientIndex.Filter buildNutrientFilter(FoodSearchRequest request, Food.FoodCategory category) {
+        FoodNutrientIndex.Filter filter = new FoodNutrientIndex.Filter()
+                .category(category)
+                .atLeast(FoodNutrientIndex.Nutrient.CALORIES, request.getMinCalories(), false)
+                .atMost(FoodNutrientIndex.Nutrient.CALORIES, request.getMaxCalories(), false)
+                .atLeast(FoodNutrientIndex.Nutrient.PROTEIN, request.getMinProtein(), false)
+                .atMost(FoodNutrientIndex.Nutrient.CARBS, request.getMaxCarbs(), false)
+                .atMost(FoodNutrientIndex.Nutrient.FAT, request.getMaxFat(), false)
+                // Fibra e sódio não informados não excluem o alimento
+                .atLeast(FoodNutrientIndex.Nutrient.FIBER, request.getMinFiber(), true)
+                .atMost(FoodNutrientIndex.Nutrient.SODIUM, request.getMaxSodium(), true);
+
+        // Mesmos limites de Food.isHighProtein(), isLowCarb() e isHighFiber()
+        if (Boolean.TRUE.equals(request.getHighProtein())) {
+            filter.atLeast(FoodNutrientIndex.Nutrient.PROTEIN, BigDecimal.valueOf(20), false);
+        }
+        if (Boolean.TRUE.equals(request.getLowCarb())) {
+            filter.atMost(FoodNutrientIndex.Nutrient.CARBS, BigDecimal.valueOf(5), false);
+        }
+        if (Boolean.TRUE.equals(request.getHighFiber())) {
+            filter.atLeast(FoodNutrientIndex.Nutrient.FIBER, BigDecimal.valueOf(6), false);
+        }
+        return filter;
+    }
+
+    /**
+     * Resolves foods by id keeping the given order, from the catalog when possible; foods deactivated
+     * in the meantime are skipped.
      */
-    private boolean applyBooleanFilters(Food food, FoodSearchRequest request) {
-        if (Boolean.TRUE.equals(request.getHighProtein()) && !food.isHighProtein()) {
-            return false;
+    private List<Food> findActiveInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
-        if (Boolean.TRUE.equals(request.getLowCarb()) && !food.isLowCarb()) {
-            return false;
+
+        FoodCatalog.Snapshot catalog = foodCatalog.current();
+        Map<Long, Food> foodsById = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Food food = catalog.findById(id);
+            if (food != null) {
+                foodsById.put(id, food);
+            } else {
+                missing.add(id);
+            }
         }
-        if (Boolean.TRUE.equals(request.getHighFiber()) && !food.isHighFiber()) {
-            return false;
+
+        // Catálogo ainda não carregado ou versão anterior à do índice: buscar no banco
+        if (!missing.isEmpty()) {
+            foodRepository.findAllById(missing).stream()
+                    .filter(food -> Boolean.TRUE.equals(food.getActive()))
+                    .forEach(food -> foodsById.put(food.getId(), food));
         }
-        return true;
+
+        return ids.stream()
+                .map(foodsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     /**
-     * Apply user preference filter (FAVORITE, DISLIKED, etc.)
+     * Active food by id, from the catalog when it has it.
      */
-    private boolean applyUserPreferenceFilter(Food food, User currentUser, FoodSearchRequest request) {
-        if (request.getUserPreference() == null || request.getUserPreference().isEmpty()) {
-            return true; // No filter applied
+    private Food findActiveById(Long foodId) {
+        Food food = foodCatalog.current().findById(foodId);
+        if (food != null) {
+            return food;
         }
+        return foodRepository.findByIdAndActiveTrue(foodId).orElse(null);
+    }
+
+    private static boolean sameValue(BigDecimal current, BigDecimal updated) {
+        return current != null && current.compareTo(updated) == 0;
+    }
 
-        if (currentUser == null) {
-            return false; // Can't filter by preference if not logged in
+    private static <T> Page<T> pageOf(List<T> items, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return new PageImpl<>(items.subList(from, to), pageable, items.size());
+    }
+
+    /**
+     * ETag of a food as seen by the user (its response carries the user's preference), computed from the
+     * catalog without touching the database. Null when the food is not in the catalog.
+     */
+    public String getFoodETag(Long foodId, User user) {
+        FoodCatalog.Snapshot catalog = foodCatalog.current();
+        Food food = catalog.findById(foodId);
+        if (food == null) {
+            return null;
         }
+        // Alimentos nunca alterados podem não ter updatedAt; sem nenhuma data, vale a versão do catálogo
+        Object version = food.getUpdatedAt() != null ? food.getUpdatedAt()
+                : food.getCreatedAt() != null ? food.getCreatedAt()
+                : "v" + catalog.getVersion();
+        return resourceVersions.tag("food", foodId, version, preferencesVersion(user));
+    }
 
-        // Get user's preference for this food
-        return preferenceRepository.findByUserAndFood(currentUser, food)
-                .map(pref -> pref.getPreferenceType().name().equals(request.getUserPreference()))
-                .orElse(false);
+    /**
+     * ETag of a category page: any catalog change produces a new catalog version. Null until the catalog
+     * is loaded.
+     */
+    public String getFoodsByCategoryETag(String categoryName, int page, int size, User user) {
+        if (!foodCatalog.isReady()) {
+            return null;
+        }
+        return resourceVersions.tag("foods", foodCatalog.current().getVersion(), categoryName, page, size,
+                preferencesVersion(user));
+    }
+
+    private String preferencesVersion(User user) {
+        return user != null
+                ? user.getId() + "." + resourceVersions.version(ResourceVersions.Resource.FOOD_PREFERENCES, user.getId())
+                : "anonymous";
     }
 
     public FoodResponse getFoodById(Long foodId) {
         try {
             User currentUser = getCurrentUserOrNull();
 
-            Food food = foodRepository.findByIdAndActiveTrue(foodId)
-                    .orElse(null);
+            Food food = findActiveById(foodId);
 
             if (food == null) {
                 throw new UnprocessableEntityException("Alimento não encontrado");
             }
 
-            return buildFoodResponse(food, currentUser);
+            return buildFoodResponses(List.of(food), currentUser).get(0);
         } catch (Exception e) {
             log.error("Error getting food by ID: {}", e.getMessage());
             throw new UnprocessableEntityException("Erro interno do servidor");
         }
     }
 
+    /**
+     * Prefix suggestions for search-as-you-type, served from the in-memory autocomplete index.
+     */
+    public List<FoodSuggestionResponse> autocompleteFoods(String prefix, int limit) {
+        if (!foodAutocompleteIndex.isReady()) {
+            // Índice ainda sendo construído na inicialização
+            return Collections.emptyList();
+        }
+
+        int size = Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_SIZE));
+        return foodAutocompleteIndex.suggest(prefix, size).stream()
+                .map(suggestion -> FoodSuggestionResponse.builder()
+                        .id(suggestion.getId())
+                        .displayName(suggestion.getDisplayName())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Foods with the closest nutrient profile to the given one, nearest first, optionally within its category.
+     */
+    @Transactional(readOnly = true)
+    public List<FoodResponse> getSimilarFoods(Long foodId, int limit, boolean sameCategory) {
+        try {
+            Food food = findActiveById(foodId);
+            if (food == null) {
+                throw new NotFoundException("Alimento não encontrado");
+            }
+
+            if (!foodSimilarityIndex.isReady()) {
+                // Índice ainda sendo construído na inicialização
+                return Collections.emptyList();
+            }
+
+            int size = Math.max(1, Math.min(limit, MAX_SIMILAR_SIZE));
+            List<Long> ids = foodSimilarityIndex.findSimilar(food, size, sameCategory);
+            return buildFoodResponses(findActiveInOrder(ids), getCurrentUserOrNull());
+        } catch (NotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error getting similar foods: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public FoodResponse getFoodByBarcode(String barcode) {
+        try {
+            String code = barcode != null ? barcode.trim() : "";
+            if (code.isEmpty()) {
+                throw new IllegalArgumentException("Código de barras é obrigatório");
+            }
+
+            Food food = findActiveByBarcode(code);
+            if (food == null) {
+                throw new NotFoundException("Alimento não encontrado para o código de barras: " + code);
+            }
+
+            return buildFoodResponses(List.of(food), getCurrentUserOrNull()).get(0);
+        } catch (NotFoundException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            throw new UnprocessableEntityException(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error getting food by barcode: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Resolves many barcodes at once: cached ids are resolved through the catalog and all cache misses
+     * are resolved with a single IN query.
+     */
+    @Transactional(readOnly = true)
+    public BarcodeLookupResponse getFoodsByBarcodes(List<String> barcodes) {
+        try {
+            Set<String> codes = barcodes.stream()
+                    .filter(Objects::nonNull)
+                    .map(String::trim)
+                    .filter(code -> !code.isEmpty())
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+
+            Map<String, Food> foodsByBarcode = new HashMap<>();
+            Map<Long, String> cachedIds = new HashMap<>();
+            List<String> misses = new ArrayList<>();
+
+            for (String code : codes) {
+                Long cached = barcodeCache.get(code);
+                if (cached == null) {
+                    misses.add(code);
+                } else if (cached != BarcodeCache.NOT_FOUND) {
+                    cachedIds.put(cached, code);
+                }
+            }
+
+            if (!cachedIds.isEmpty()) {
+                for (Food food : findActiveInOrder(new ArrayList<>(cachedIds.keySet()))) {
+                    String code = cachedIds.remove(food.getId());
+                    if (code.equals(food.getBarcode())) {
+                        foodsByBarcode.put(code, food);
+                    } else {
+                        cachedIds.put(food.getId(), code);
+                    }
+                }
+                // Entradas obsoletas (alimento removido ou código alterado): resolver de novo pelo banco
+                if (!cachedIds.isEmpty()) {
+                    barcodeCache.invalidate(cachedIds.values());
+                    misses.addAll(cachedIds.values());
+                }
+            }
+
+            if (!misses.isEmpty()) {
+                long generation = barcodeCache.generation();
+                for (Food food : foodRepository.findByBarcodeInAndActiveTrue(misses)) {
+                    foodsByBarcode.put(food.getBarcode(), food);
+                }
+                for (String code : misses) {
+                    Food food = foodsByBarcode.get(code);
+                    barcodeCache.put(code, food != null ? food.getId() : BarcodeCache.NOT_FOUND, generation);
+                }
+            }
+
+            List<Food> found = codes.stream()
+                    .map(foodsByBarcode::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            List<FoodResponse> responses = buildFoodResponses(found, getCurrentUserOrNull());
+
+            // respostas em cache só carregam id e preferência: a chave vem da entidade
+            Map<String, FoodResponse> foods = new LinkedHashMap<>();
+            for (int i = 0; i < found.size(); i++) {
+                foods.put(found.get(i).getBarcode(), responses.get(i));
+            }
+            List<String> notFound = codes.stream()
+                    .filter(code -> !foods.containsKey(code))
+                    .collect(Collectors.toList());
+
+            log.info("Barcode batch lookup: {} requested, {} found", codes.size(), foods.size());
+            return BarcodeLookupResponse.builder()
+                    .foods(foods)
+                    .notFound(notFound)
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Error in barcode batch lookup: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Resolves many food ids at once, in request order: ids missing from the catalog are read with a single
+     * IN query and the user's preferences come from one cached lookup.
+     */
+    @Transactional(readOnly = true)
+    public BatchLookupResponse<FoodResponse> getFoodsByIds(List<Long> ids) {
+        try {
+            List<Long> requested = ids.stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            List<Food> found = findActiveInOrder(requested);
+            List<FoodResponse> responses = buildFoodResponses(found, getCurrentUserOrNull());
+
+            Map<Long, FoodResponse> foods = new LinkedHashMap<>();
+            for (int i = 0; i < found.size(); i++) {
+                foods.put(found.get(i).getId(), responses.get(i));
+            }
+            List<Long> notFound = requested.stream()
+                    .filter(id -> !foods.containsKey(id))
+                    .collect(Collectors.toList());
+
+            log.info("Food batch lookup: {} requested, {} found", requested.size(), foods.size());
+            return BatchLookupResponse.<FoodResponse>builder()
+                    .results(foods)
+                    .notFound(notFound)
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Error in food batch lookup: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
     public Page<FoodResponse> getFoodsByCategory(String categoryName, int page, int size) {
         try {
             User currentUser = getCurrentUserOrNull();
             Food.FoodCategory category = parseFoodCategory(categoryName);
 
             Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-            Page<Food> foods = foodRepository.findByCategoryAndActiveTrueOrderByNameAsc(category, pageable);
+            Page<Food> foods = foodCatalog.isReady()
+                    ? pageOf(foodCatalog.current().findByCategory(category), pageable)
+                    : foodRepository.findByCategoryAndActiveTrueOrderByNameAsc(category, pageable);
 
-            return foods.map(food -> buildFoodResponse(food, currentUser));
+            return buildFoodResponses(foods, currentUser);
         } catch (IllegalArgumentException e) {
             throw new UnprocessableEntityException("Categoria inválida: " + categoryName);
         } catch (Exception e) {
@@ -286,6 +850,51 @@ public class FoodService {
         }
     }
 
+    /**
+     * Keyset (cursor) pagination over active foods in name order. Each page seeks past the last
+     * row of the previous one, so depth does not matter and no count query is issued.
+     */
+    public CursorPageResponse<FoodResponse> scrollFoods(String cursor, String categoryName, int size) {
+        try {
+            User currentUser = getCurrentUserOrNull();
+            Food.FoodCategory category = categoryName != null && !categoryName.isBlank()
+                    ? parseFoodCategory(categoryName) : null;
+            NameCursor after = NameCursor.decode(cursor);
+
+            // Uma linha extra indica se existe próxima página
+            int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+            Pageable limit = PageRequest.of(0, pageSize + 1);
+
+            List<Food> foods = after == null
+                    ? foodRepository.findActiveFirstPage(category, limit)
+                    : foodRepository.findActivePageAfter(category, after.getName(), after.getId(), limit);
+
+            boolean hasNext = foods.size() > pageSize;
+            if (hasNext) {
+                foods = foods.subList(0, pageSize);
+            }
+
+            String nextCursor = null;
+            if (hasNext) {
+                Food last = foods.get(foods.size() - 1);
+                nextCursor = new NameCursor(last.getName(), last.getId()).encode();
+            }
+
+            return CursorPageResponse.<FoodResponse>builder()
+                    .content(buildFoodResponses(foods, currentUser))
+                    .size(foods.size())
+                    .nextCursor(nextCursor)
+                    .hasNext(hasNext)
+                    .build();
+
+        } catch (IllegalArgumentException e) {
+            throw new UnprocessableEntityException(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error scrolling foods: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
     @Transactional
     public void setFoodPreference(Long foodId, UserPreferenceRequest request) {
         try {
@@ -310,6 +919,9 @@ public class FoodService {
                 existingPreference.setNotes(request.getNotes());
                 preferenceRepository.save(existingPreference);
 
+                eventPublisher.publishEvent(new FoodPreferenceChangedEvent(currentUser.getId()));
+                eventPublisher.publishEvent(new UserNutritionChangedEvent(currentUser.getId()));
+
                 log.info("Food preference updated: {} for food {} by user {}",
                         preferenceType, food.getName(), currentUser.getEmail());
             } else {
@@ -323,6 +935,9 @@ public class FoodService {
 
                 preferenceRepository.save(newPreference);
 
+                eventPublisher.publishEvent(new FoodPreferenceChangedEvent(currentUser.getId()));
+                eventPublisher.publishEvent(new UserNutritionChangedEvent(currentUser.getId()));
+
                 log.info("Food preference created: {} for food {} by user {}",
                         preferenceType, food.getName(), currentUser.getEmail());
             }
@@ -345,6 +960,8 @@ public class FoodService {
             }
 
             preferenceRepository.deleteByUserAndFood(currentUser, food);
+            eventPublisher.publishEvent(new FoodPreferenceChangedEvent(currentUser.getId()));
+            eventPublisher.publishEvent(new UserNutritionChangedEvent(currentUser.getId()));
 
             log.info("Food preference removed for food {} by user {}",
                     food.getName(), currentUser.getEmail());
@@ -358,10 +975,10 @@ public class FoodService {
         try {
             User currentUser = getCurrentUser();
 
-            List<Food> favorites = foodRepository.findUserFavorites(currentUser);
-            return favorites.stream()
-                    .map(food -> buildFoodResponse(food, currentUser))
-                    .collect(Collectors.toList());
+            // Mais recentes primeiro, como na consulta anterior; alimentos inativos são ignorados
+            List<Long> favoriteIds = userPreferenceCache.get(currentUser.getId())
+                    .foodIds(UserFoodPreference.PreferenceType.FAVORITE);
+            return buildFoodResponses(findActiveInOrder(favoriteIds), currentUser);
         } catch (Exception e) {
             log.error("Error getting user favorites: {}", e.getMessage());
             throw new UnprocessableEntityException("Erro interno do servidor");
@@ -372,10 +989,8 @@ public class FoodService {
         try {
             User currentUser = getCurrentUser();
 
-            List<Food> favorites = foodRepository.findUserWithPreferences(currentUser);
-            return favorites.stream()
-                    .map(food -> buildFoodResponse(food, currentUser))
-                    .collect(Collectors.toList());
+            List<Long> foodIds = userPreferenceCache.get(currentUser.getId()).foodIds();
+            return buildFoodResponses(findActiveInOrder(foodIds), currentUser);
         } catch (Exception e) {
             log.error("Error getting user preferences: {}", e.getMessage());
             throw new UnprocessableEntityException("Erro interno do servidor");
@@ -386,10 +1001,17 @@ public class FoodService {
         try {
             User currentUser = getCurrentUser();
 
-            Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-            Page<Food> recommendations = foodRepository.findSuitableFoodsForUser(currentUser, pageable);
+            if (!foodRecommendationService.isReady()) {
+                // Catálogo ainda não carregado: lista por nome, como antes do motor de recomendação
+                Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
+                Page<Food> recommendations = foodRepository.findSuitableFoodsForUser(currentUser, pageable);
+                return buildFoodResponses(recommendations, currentUser);
+            }
 
-            return recommendations.map(food -> buildFoodResponse(food, currentUser));
+            // Ranking já calculado (ou em cache) para o usuário; a página é um recorte da lista
+            Page<Long> ids = pageOf(foodRecommendationService.recommendFoodIds(currentUser), PageRequest.of(page, size));
+            List<FoodResponse> content = buildFoodResponses(findActiveInOrder(ids.getContent()), currentUser);
+            return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
         } catch (Exception e) {
             log.error("Error getting recommended foods: {}", e.getMessage());
             throw new UnprocessableEntityException("Erro interno do servidor");
@@ -428,6 +1050,9 @@ public class FoodService {
             // Soft delete
             food.setActive(false);
             foodRepository.save(food);
+            eventPublisher.publishEvent(new FoodChangedEvent(food.getId(), FoodChangedEvent.ChangeType.DELETED,
+                    Collections.singleton(food.getBarcode())));
+            catalogStatistics.foodCategoryChanged(food.getCategory(), null);
 
             log.info("Food deleted (soft): {} by admin: {}", food.getName(), getCurrentUser().getEmail());
         } catch (Exception e) {
@@ -453,6 +1078,30 @@ public class FoodService {
         }
     }
 
+    /**
+     * Looks up the active food with the given barcode through the barcode cache. Unknown barcodes
+     * are cached too, so repeated scans of products we don't have never reach the database.
+     */
+    private Food findActiveByBarcode(String barcode) {
+        Long cached = barcodeCache.get(barcode);
+        if (cached != null) {
+            if (cached == BarcodeCache.NOT_FOUND) {
+                return null;
+            }
+            Food food = findActiveById(cached);
+            if (food != null && barcode.equals(food.getBarcode())) {
+                return food;
+            }
+            // Entrada obsoleta: resolver de novo pelo banco
+            barcodeCache.invalidate(Collections.singleton(barcode));
+        }
+
+        long generation = barcodeCache.generation();
+        Food food = foodRepository.findByBarcodeAndActiveTrue(barcode).orElse(null);
+        barcodeCache.put(barcode, food != null ? food.getId() : BarcodeCache.NOT_FOUND, generation);
+        return food;
+    }
+
     private Food.FoodCategory parseFoodCategory(String category) {
         try {
             return Food.FoodCategory.valueOf(category.toUpperCase());
@@ -469,6 +1118,28 @@ public class FoodService {
         }
     }
 
+    /**
+     * Searches the in-memory indexes can answer: everything, with the user preference filter only
+     * for a logged-in user (it is read from the preference cache).
+     */
+    private boolean isInMemorySearch(FoodSearchRequest request, User currentUser) {
+        return hasSearchCriteria(request) &&
+                (request.getUserPreference() == null || request.getUserPreference().isEmpty() || currentUser != null);
+    }
+
+    private boolean hasNutrientFilters(FoodSearchRequest request) {
+        return request.getMinCalories() != null ||
+                request.getMaxCalories() != null ||
+                request.getMinProtein() != null ||
+                request.getMaxCarbs() != null ||
+                request.getMaxFat() != null ||
+                request.getMinFiber() != null ||
+                request.getMaxSodium() != null ||
+                Boolean.TRUE.equals(request.getHighProtein()) ||
+                Boolean.TRUE.equals(request.getLowCarb()) ||
+                Boolean.TRUE.equals(request.getHighFiber());
+    }
+
     private boolean hasSearchCriteria(FoodSearchRequest request) {
         return request.getName() != null ||
                 request.getQuery() != null ||
@@ -488,16 +1159,55 @@ public class FoodService {
                 (request.getUserPreference() != null && !request.getUserPreference().isEmpty());
     }
 
-    private FoodResponse buildFoodResponse(Food food, User currentUser) {
-        // Buscar preferência do usuário se logado
-        String userPreference = null;
-        if (currentUser != null) {
-            UserFoodPreference preference = preferenceRepository.findByUserAndFood(currentUser, food).orElse(null);
-            if (preference != null) {
-                userPreference = preference.getPreferenceType().name();
+    private Page<FoodResponse> buildFoodResponses(Page<Food> foods, User currentUser) {
+        Map<Long, String> preferences = resolvePreferences(foods.getContent(), currentUser);
+        return foods.map(food -> toCachedResponse(food, preferences.get(food.getId())));
+    }
+
+    // Para um Page, map() devolve um Page, preservando o total
+    private Slice<FoodResponse> buildFoodResponses(Slice<Food> foods, User currentUser) {
+        Map<Long, String> preferences = resolvePreferences(foods.getContent(), currentUser);
+        return foods.map(food -> toCachedResponse(food, preferences.get(food.getId())));
+    }
+
+    private List<FoodResponse> buildFoodResponses(List<Food> foods, User currentUser) {
+        Map<Long, String> preferences = resolvePreferences(foods, currentUser);
+        return foods.stream()
+                .map(food -> toCachedResponse(food, preferences.get(food.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolves the current user's preference for a whole page of foods from the preference cache.
+     */
+    private Map<Long, String> resolvePreferences(List<Food> foods, User currentUser) {
+        if (currentUser == null || foods.isEmpty()) {
+            return Map.of();
+        }
+
+        UserPreferenceCache.FoodPreferences userPreferences = userPreferenceCache.get(currentUser.getId());
+        Map<Long, String> preferences = new HashMap<>();
+        for (Food food : foods) {
+            UserFoodPreference.PreferenceType type = userPreferences.get(food.getId());
+            if (type != null) {
+                preferences.put(food.getId(), type.name());
             }
         }
+        return preferences;
+    }
+
+    /**
+     * Response written from the food's pre-serialized JSON, with only the user preference added per request.
+     * Falls back to a regular response when the food cannot be cached.
+     */
+    private FoodResponse toCachedResponse(Food food, String userPreference) {
+        CachedFoodResponse.Fragment fragment = foodJsonCache.get(food, cached -> buildFoodResponse(cached, null));
+        return fragment != null
+                ? new CachedFoodResponse(food.getId(), fragment, userPreference)
+                : buildFoodResponse(food, userPreference);
+    }
 
+    private FoodResponse buildFoodResponse(Food food, String userPreference) {
         return FoodResponse.builder()
                 .id(food.getId())
                 .name(food.getName())
@@ -3,6 +3,7 @@ package com.nutrition.application.service;
 import com.nutrition.domain.entity.auth.User;
 import com.nutrition.domain.entity.meal.Meal;
 import com.nutrition.domain.entity.meal.MealFood;
+import com.nutrition.domain.entity.meal.NutrientVector;
 import com.nutrition.infrastructure.repository.MealRepository;
 import com.nutrition.infrastructure.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -142,13 +143,14 @@ public class MealReminderService {
         details.append("</ul>");
 
         // Add nutritional summary
+        NutrientVector totals = meal.getNutrientTotals();
         details.append(String.format(
                 "<p style='margin: 10px 0 0 0; font-size: 12px; color: #666;'>" +
                         "<strong>Total:</strong> %.0f kcal | Proteína: %.1fg | Carbs: %.1fg | Gordura: %.1fg</p>",
-                meal.getTotalCalories().doubleValue(),
-                meal.getTotalProtein().doubleValue(),
-                meal.getTotalCarbs().doubleValue(),
-                meal.getTotalFat().doubleValue()
+                totals.getCalories().doubleValue(),
+                totals.getProtein().doubleValue(),
+                totals.getCarbs().doubleValue(),
+                totals.getFat().doubleValue()
         ));
 
         return details.toString();
@@ -7,20 +7,38 @@ import com.nutrition.domain.entity.food.Food;
 import com.nutrition.domain.entity.meal.Meal;
 import com.nutrition.domain.entity.meal.MealConsumption;
 import com.nutrition.domain.entity.meal.MealFood;
+import com.nutrition.domain.entity.meal.NutrientVector;
+import com.nutrition.domain.entity.profile.UserProfile;
+import com.nutrition.domain.entity.tracking.DailyNutritionRollup;
+import com.nutrition.domain.event.UserNutritionChangedEvent;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.ResourceVersions;
+import com.nutrition.infrastructure.exception.UnprocessableEntityException;
 import com.nutrition.infrastructure.repository.FoodRepository;
 import com.nutrition.infrastructure.repository.MealConsumptionRepository;
 import com.nutrition.infrastructure.repository.MealRepository;
+import com.nutrition.infrastructure.repository.UserProfileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -28,9 +46,25 @@ import java.util.stream.Collectors;
 @Transactional
 public class MealService {
 
+    /**
+     * Days per page of the meal history: by default when only the page is given, and at most.
+     */
+    public static final int DEFAULT_HISTORY_PAGE_DAYS = 31;
+    public static final int MAX_HISTORY_PAGE_DAYS = 92;
+
+    /**
+     * Longest range accepted by {@link #getNutritionAggregate}.
+     */
+    public static final int MAX_AGGREGATE_DAYS = 1830;
+
     private final MealRepository mealRepository;
     private final FoodRepository foodRepository;
+    private final FoodCatalog foodCatalog;
     private final MealConsumptionRepository mealConsumptionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersions resourceVersions;
+    private final NutritionRollupService nutritionRollupService;
+    private final UserProfileRepository profileRepository;
 
     public MealTemplateResponseDTO createMeal(MealCreateDTO createDTO, User user) {
         log.info("Creating meal: {} for user: {}", createDTO.getName(), user.getId());
@@ -40,7 +74,7 @@ public class MealService {
                 .map(MealFoodDTO::getFoodId)
                 .collect(Collectors.toList());
 
-        List<Food> foods = foodRepository.findAllById(foodIds);
+        List<Food> foods = findFoods(foodIds);
         if (foods.size() != foodIds.size()) {
             throw new IllegalArgumentException("Um ou mais alimentos não foram encontrados");
         }
@@ -70,6 +104,8 @@ public class MealService {
             meal.addFood(mealFood);
         }
 
+        meal.recalculateTotals();
+
         // Save the meal
         Meal savedMeal = mealRepository.save(meal);
         log.info("Meal created successfully with ID: {}", savedMeal.getId());
@@ -88,7 +124,7 @@ public class MealService {
                 .map(MealFoodDTO::getFoodId)
                 .collect(Collectors.toList());
 
-        List<Food> foods = foodRepository.findAllById(foodIds);
+        List<Food> foods = findFoods(foodIds);
         if (foods.size() != foodIds.size()) {
             throw new IllegalArgumentException("Um ou mais alimentos não foram encontrados");
         }
@@ -115,8 +151,16 @@ public class MealService {
             meal.addFood(mealFood);
         }
 
+        meal.recalculateTotals();
+        // Troca só de itens não altera colunas da refeição; updatedAt versiona a lista (ETag)
+        meal.setUpdatedAt(LocalDateTime.now());
+
         Meal updatedMeal = mealRepository.save(meal);
+        // Dias em que a refeição foi consumida mudam junto com seus totais
+        nutritionRollupService.refreshDays(user.getId(),
+                mealConsumptionRepository.findConsumptionDatesByMealId(mealId));
         log.info("Meal updated successfully: {}", mealId);
+        eventPublisher.publishEvent(new UserNutritionChangedEvent(user.getId()));
 
         // Check if consumed today
         boolean isConsumedToday = mealConsumptionRepository.existsByMealIdAndUserIdAndConsumptionDate(
@@ -125,6 +169,18 @@ public class MealService {
         return mapToTemplateResponseDTO(updatedMeal, isConsumedToday);
     }
 
+    /**
+     * ETag of the user's meal template list, from one aggregate over the persisted meals and today's
+     * consumptions (isConsumedToday), so writes made through any node change it, plus the day and the
+     * food catalog version.
+     */
+    @Transactional(readOnly = true)
+    public String getMealTemplatesETag(User user) {
+        LocalDate today = LocalDate.now();
+        return resourceVersions.tag("meals", user.getId(), mealRepository.findTemplatesVersion(user.getId(), today),
+                today, foodCatalog.current().getVersion());
+    }
+
     @Transactional(readOnly = true)
     public List<MealTemplateResponseDTO> getUserMealTemplates(User user) {
         log.info("Fetching meal templates for user: {}", user.getId());
@@ -163,8 +219,11 @@ public class MealService {
         Meal meal = mealRepository.findByIdAndUser(mealId, user)
                 .orElseThrow(() -> new IllegalArgumentException("Refeição não encontrada"));
 
+        List<LocalDate> consumptionDates = mealConsumptionRepository.findConsumptionDatesByMealId(mealId);
         mealRepository.delete(meal);
+        nutritionRollupService.refreshDays(user.getId(), consumptionDates);
         log.info("Meal deleted successfully: {}", mealId);
+        eventPublisher.publishEvent(new UserNutritionChangedEvent(user.getId()));
     }
 
     public MealConsumptionResponseDTO consumeMeal(Long mealId, User user, ConsumeMealDTO consumeDTO) {
@@ -192,6 +251,8 @@ public class MealService {
                 .build();
 
         mealConsumptionRepository.save(consumption);
+        nutritionRollupService.refreshDays(user.getId(), List.of(consumptionDate));
+        eventPublisher.publishEvent(new UserNutritionChangedEvent(user.getId()));
 
         return MealConsumptionResponseDTO.builder()
                 .mealId(mealId)
@@ -218,6 +279,8 @@ public class MealService {
 
         // Delete consumption
         mealConsumptionRepository.delete(consumption);
+        nutritionRollupService.refreshDays(user.getId(), List.of(dateToUnconsume));
+        eventPublisher.publishEvent(new UserNutritionChangedEvent(user.getId()));
 
         return MealConsumptionResponseDTO.builder()
                 .mealId(mealId)
@@ -252,58 +315,239 @@ public class MealService {
         return getConsumedMealsForDate(user, LocalDate.now());
     }
 
+    /**
+     * Consumption history between the dates, most recent day first. With page or size, only that page of
+     * days is returned; without both, the whole range, as before paging. Days come from the consumptions,
+     * their meals are assembled in a single pass over flat query rows and their summaries are read from the
+     * nutrition rollups. Without meals, each day is read from its rollup row and the whole range is returned.
+     */
     @Transactional(readOnly = true)
-    public MealHistoryDTO getMealHistory(User user, LocalDate startDate, LocalDate endDate) {
+    public MealHistoryDTO getMealHistory(User user, LocalDate startDate, LocalDate endDate,
+                                         boolean includeMeals, Integer page, Integer size) {
         log.info("Fetching meal history for user: {} from {} to {}",
                 user.getId(), startDate, endDate);
 
-        List<MealConsumption> consumptions = mealConsumptionRepository
-                .findByUserIdAndConsumptionDateBetween(user.getId(), startDate, endDate);
-
-        // Group consumptions by date
-        Map<LocalDate, List<MealConsumption>> consumptionsByDate = consumptions.stream()
-                .collect(Collectors.groupingBy(MealConsumption::getConsumptionDate));
-
-        List<DailyConsumedMealsDTO> dailyMeals = consumptionsByDate.entrySet().stream()
-                .map(entry -> {
-                    LocalDate date = entry.getKey();
-                    List<ConsumedMealDTO> dayMeals = entry.getValue().stream()
-                            .map(this::mapToConsumedMealDTO)
-                            .collect(Collectors.toList());
-
-                    DailyConsumedMealsDTO.DailyNutritionalSummary summary = calculateDailySummary(dayMeals);
-
-                    return DailyConsumedMealsDTO.builder()
-                            .date(date)
-                            .meals(dayMeals)
-                            .nutritionalSummary(summary)
-                            .build();
-                })
-                .sorted((a, b) -> b.getDate().compareTo(a.getDate())) // Most recent first
-                .collect(Collectors.toList());
+        if (!includeMeals) {
+            return getDailySummaries(user, startDate, endDate);
+        }
 
-        return MealHistoryDTO.builder()
+        boolean paged = page != null || size != null;
+        int pageSize = size != null ? Math.max(1, Math.min(size, MAX_HISTORY_PAGE_DAYS)) : DEFAULT_HISTORY_PAGE_DAYS;
+        Pageable pageable = paged ? PageRequest.of(page != null ? Math.max(page, 0) : 0, pageSize) : Pageable.unpaged();
+        Page<LocalDate> days = mealConsumptionRepository.findConsumptionDates(
+                user.getId(), startDate, endDate, pageable);
+
+        List<DailyConsumedMealsDTO> dailyMeals = new ArrayList<>(days.getNumberOfElements());
+        if (days.hasContent()) {
+            // A página cobre do dia mais antigo ao mais recente dela
+            List<LocalDate> dates = days.getContent();
+            LocalDate pageStart = dates.get(dates.size() - 1);
+            LocalDate pageEnd = dates.get(0);
+            try (Stream<MealHistoryRow> rows = mealConsumptionRepository.streamHistoryRows(user.getId(), pageStart, pageEnd)) {
+                assembleHistory(rows.iterator(), dailyMeals);
+            }
+
+            Map<LocalDate, DailyNutritionRollup> rollupsByDate = new HashMap<>();
+            for (DailyNutritionRollup rollup : nutritionRollupService.findDays(user.getId(), pageStart, pageEnd)) {
+                rollupsByDate.put(rollup.getDate(), rollup);
+            }
+            for (DailyConsumedMealsDTO day : dailyMeals) {
+                DailyNutritionRollup rollup = rollupsByDate.get(day.getDate());
+                day.setNutritionalSummary(rollup != null
+                        ? NutritionRollupService.toSummary(rollup)
+                        : calculateDailySummary(day.getMeals()));
+            }
+        }
+
+        MealHistoryDTO.MealHistoryDTOBuilder history = MealHistoryDTO.builder()
                 .startDate(startDate)
                 .endDate(endDate)
                 .dailyMeals(dailyMeals)
-                .totalDays(dailyMeals.size())
-                .totalMealsConsumed(consumptions.size())
-                .build();
+                .totalDays((int) days.getTotalElements())
+                .totalMealsConsumed((int) mealConsumptionRepository
+                        .countByUserIdAndConsumptionDateBetween(user.getId(), startDate, endDate));
+        if (paged) {
+            history.page(days.getNumber())
+                    .size(pageSize)
+                    .totalPages(days.getTotalPages())
+                    .hasNext(days.hasNext());
+        }
+        return history.build();
     }
 
     @Transactional(readOnly = true)
-    public MealHistoryDTO getRecentMealHistory(User user, int days) {
+    public MealHistoryDTO getRecentMealHistory(User user, int days, boolean includeMeals, Integer page, Integer size) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days - 1);
-        return getMealHistory(user, startDate, endDate);
+        return getMealHistory(user, startDate, endDate, includeMeals, page, size);
+    }
+
+    /**
+     * Weekly or monthly nutrition totals, daily averages and calorie target adherence between the dates
+     * (by default the last year), aggregated in the database from the daily rollups.
+     */
+    @Transactional(readOnly = true)
+    public NutritionAggregateDTO getNutritionAggregate(User user, String granularity,
+                                                       LocalDate startDate, LocalDate endDate) {
+        try {
+            AggregationGranularity periodLength = AggregationGranularity.from(granularity);
+            LocalDate end = endDate != null ? endDate : LocalDate.now();
+            LocalDate start = startDate != null ? startDate : end.minusYears(1).plusDays(1);
+
+            if (start.isAfter(end)) {
+                throw new IllegalArgumentException("A data inicial deve ser anterior ou igual à data final");
+            }
+            if (start.plusDays(MAX_AGGREGATE_DAYS).isBefore(end)) {
+                throw new IllegalArgumentException("O período deve ter no máximo " + MAX_AGGREGATE_DAYS + " dias");
+            }
+
+            BigDecimal calorieTarget = profileRepository.findByUser(user)
+                    .map(UserProfile::getDailyCalorieTarget)
+                    .filter(target -> target.signum() > 0)
+                    .orElse(null);
+
+            List<NutritionAggregateDTO.Period> periods = nutritionRollupService.aggregate(
+                    user.getId(), periodLength, start, end, calorieTarget);
+
+            log.info("Nutrition aggregate for user {}: {} {} periods from {} to {}",
+                    user.getId(), periods.size(), periodLength, start, end);
+
+            return NutritionAggregateDTO.builder()
+                    .granularity(periodLength)
+                    .startDate(start)
+                    .endDate(end)
+                    .dailyCalorieTarget(calorieTarget)
+                    .periods(periods)
+                    .build();
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid aggregate parameters: {}", e.getMessage());
+            throw new UnprocessableEntityException(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error aggregating nutrition for user {}: {}", user.getId(), e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Groups rows, already ordered by day, meal time and consumption, into days and consumed meals.
+     */
+    private void assembleHistory(Iterator<MealHistoryRow> rows, List<DailyConsumedMealsDTO> dailyMeals) {
+        DailyConsumedMealsDTO day = null;
+        ConsumedMealDTO meal = null;
+        Long consumptionId = null;
+
+        while (rows.hasNext()) {
+            MealHistoryRow row = rows.next();
+
+            if (day == null || !day.getDate().equals(row.getConsumptionDate())) {
+                day = DailyConsumedMealsDTO.builder()
+                        .date(row.getConsumptionDate())
+                        .meals(new ArrayList<>())
+                        .build();
+                dailyMeals.add(day);
+            }
+
+            if (meal == null || !row.getConsumptionId().equals(consumptionId)) {
+                consumptionId = row.getConsumptionId();
+                meal = ConsumedMealDTO.builder()
+                        .id(row.getMealId())
+                        .name(row.getMealName())
+                        .mealTime(row.getMealTime())
+                        .consumedAt(row.getConsumedAt())
+                        .consumedDate(row.getConsumptionDate())
+                        .totalCalories(orZero(row.getMealCalories()))
+                        .totalCarbs(orZero(row.getMealCarbs()))
+                        .totalProtein(orZero(row.getMealProtein()))
+                        .totalFat(orZero(row.getMealFat()))
+                        .totalFiber(orZero(row.getMealFiber()))
+                        .totalSodium(orZero(row.getMealSodium()))
+                        .foods(new ArrayList<>())
+                        .notes(row.getNotes())
+                        .build();
+                day.getMeals().add(meal);
+            }
+
+            if (row.getFoodId() != null) {
+                NutrientVector totals = NutrientVector.empty().addItem(row.getQuantity(), row.getUnit(),
+                        row.getServingSize(), row.getCaloriesPer100g(), row.getCarbsPer100g(),
+                        row.getProteinPer100g(), row.getFatPer100g(), row.getFiberPer100g(),
+                        row.getSodiumPer100g(), null, null);
+
+                meal.getFoods().add(MealFoodDTO.builder()
+                        .foodId(row.getFoodId())
+                        .foodName(row.getFoodName())
+                        .quantity(row.getQuantity())
+                        .unit(row.getUnit())
+                        .calories(totals.getCalories())
+                        .carbs(totals.getCarbs())
+                        .protein(totals.getProtein())
+                        .fat(totals.getFat())
+                        .fiber(totals.getFiber())
+                        .sodium(totals.getSodium())
+                        .build());
+            }
+        }
+    }
+
+    // Totais persistidos da refeição: null quando nenhum item tem o nutriente
+    private static BigDecimal orZero(BigDecimal total) {
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    private MealHistoryDTO getDailySummaries(User user, LocalDate startDate, LocalDate endDate) {
+        List<DailyNutritionRollup> rollups = nutritionRollupService.findDays(user.getId(), startDate, endDate);
+
+        int mealsConsumed = 0;
+        List<DailyConsumedMealsDTO> dailyMeals = new ArrayList<>(rollups.size());
+        for (DailyNutritionRollup rollup : rollups) {
+            mealsConsumed += rollup.getMealsCount();
+            dailyMeals.add(DailyConsumedMealsDTO.builder()
+                    .date(rollup.getDate())
+                    .nutritionalSummary(NutritionRollupService.toSummary(rollup))
+                    .build());
+        }
+
+        return MealHistoryDTO.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .dailyMeals(dailyMeals)
+                .totalDays(dailyMeals.size())
+                .totalMealsConsumed(mealsConsumed)
+                .build();
     }
 
     // Private helper methods
 
+    /**
+     * Resolves the foods of a meal from the in-memory catalog. Foods it doesn't have (inactive or not
+     * yet published) are loaded with a single findAllById, like before.
+     */
+    private List<Food> findFoods(List<Long> foodIds) {
+        FoodCatalog.Snapshot catalog = foodCatalog.current();
+        Map<Long, Food> foods = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long foodId : foodIds) {
+            Food food = catalog.findById(foodId);
+            if (food != null) {
+                foods.put(foodId, food);
+            } else {
+                missing.add(foodId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            foodRepository.findAllById(missing).forEach(food -> foods.put(food.getId(), food));
+        }
+        return new ArrayList<>(foods.values());
+    }
+
     private MealTemplateResponseDTO mapToTemplateResponseDTO(Meal meal, boolean isConsumedToday) {
         List<MealFoodResponseDTO> foodResponses = meal.getFoods().stream()
                 .map(this::mapMealFoodToResponseDTO)
                 .collect(Collectors.toList());
+        NutrientVector totals = meal.getNutrientTotals();
 
         return MealTemplateResponseDTO.builder()
                 .id(meal.getId())
@@ -311,12 +555,12 @@ public class MealService {
                 .mealTime(meal.getMealTime())
                 .isTemplate(meal.getIsTemplate())
                 .isOneTime(meal.getIsOneTime())
-                .totalCalories(meal.getTotalCalories())
-                .totalCarbs(meal.getTotalCarbs())
-                .totalProtein(meal.getTotalProtein())
-                .totalFat(meal.getTotalFat())
-                .totalFiber(meal.getTotalFiber())
-                .totalSodium(meal.getTotalSodium())
+                .totalCalories(totals.getCalories())
+                .totalCarbs(totals.getCarbs())
+                .totalProtein(totals.getProtein())
+                .totalFat(totals.getFat())
+                .totalFiber(totals.getFiber())
+                .totalSodium(totals.getSodium())
                 .foods(foodResponses)
                 .isConsumedToday(isConsumedToday)
                 .createdAt(meal.getCreatedAt())
@@ -326,18 +570,19 @@ public class MealService {
 
     private MealFoodResponseDTO mapMealFoodToResponseDTO(MealFood mealFood) {
         FoodResponse foodResponse = mapFoodToResponseDTO(mealFood.getFood());
+        NutrientVector totals = mealFood.getNutrientTotals();
 
         return MealFoodResponseDTO.builder()
                 .id(mealFood.getId())
                 .food(foodResponse)
                 .quantity(mealFood.getQuantityAsDouble())
                 .unit(mealFood.getUnit())
-                .totalCalories(mealFood.getTotalCalories())
-                .totalCarbs(mealFood.getTotalCarbs())
-                .totalProtein(mealFood.getTotalProtein())
-                .totalFat(mealFood.getTotalFat())
-                .totalFiber(mealFood.getTotalFiber())
-                .totalSodium(mealFood.getTotalSodium())
+                .totalCalories(totals.getCalories())
+                .totalCarbs(totals.getCarbs())
+                .totalProtein(totals.getProtein())
+                .totalFat(totals.getFat())
+                .totalFiber(totals.getFiber())
+                .totalSodium(totals.getSodium())
                 .build();
     }
 
@@ -377,19 +622,9 @@ public class MealService {
         Meal meal = consumption.getMeal();
 
         List<MealFoodDTO> foodDTOs = meal.getFoods().stream()
-                .map(mealFood -> MealFoodDTO.builder()
-                        .foodId(mealFood.getFood().getId())
-                        .foodName(mealFood.getFood().getName())
-                        .quantity(mealFood.getQuantity())
-                        .unit(mealFood.getUnit())
-                        .calories(mealFood.getTotalCalories())
-                        .carbs(mealFood.getTotalCarbs())
-                        .protein(mealFood.getTotalProtein())
-                        .fat(mealFood.getTotalFat())
-                        .fiber(mealFood.getTotalFiber())
-                        .sodium(mealFood.getTotalSodium())
-                        .build())
+                .map(this::mapToMealFoodDTO)
                 .collect(Collectors.toList());
+        NutrientVector totals = meal.getNutrientTotals();
 
         return ConsumedMealDTO.builder()
                 .id(meal.getId())
@@ -397,17 +632,34 @@ public class MealService {
                 .mealTime(meal.getMealTime())
                 .consumedAt(consumption.getConsumedAt())
                 .consumedDate(consumption.getConsumptionDate())
-                .totalCalories(meal.getTotalCalories())
-                .totalCarbs(meal.getTotalCarbs())
-                .totalProtein(meal.getTotalProtein())
-                .totalFat(meal.getTotalFat())
-                .totalFiber(meal.getTotalFiber())
-                .totalSodium(meal.getTotalSodium())
+                .totalCalories(totals.getCalories())
+                .totalCarbs(totals.getCarbs())
+                .totalProtein(totals.getProtein())
+                .totalFat(totals.getFat())
+                .totalFiber(totals.getFiber())
+                .totalSodium(totals.getSodium())
                 .foods(foodDTOs)
                 .notes(consumption.getNotes())
                 .build();
     }
 
+    private MealFoodDTO mapToMealFoodDTO(MealFood mealFood) {
+        NutrientVector totals = mealFood.getNutrientTotals();
+
+        return MealFoodDTO.builder()
+                .foodId(mealFood.getFood().getId())
+                .foodName(mealFood.getFood().getName())
+                .quantity(mealFood.getQuantity())
+                .unit(mealFood.getUnit())
+                .calories(totals.getCalories())
+                .carbs(totals.getCarbs())
+                .protein(totals.getProtein())
+                .fat(totals.getFat())
+                .fiber(totals.getFiber())
+                .sodium(totals.getSodium())
+                .build();
+    }
+
     private DailyConsumedMealsDTO.DailyNutritionalSummary calculateDailySummary(List<ConsumedMealDTO> meals) {
         return DailyConsumedMealsDTO.DailyNutritionalSummary.builder()
                 .totalCalories(meals.stream()
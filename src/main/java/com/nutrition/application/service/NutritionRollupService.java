@@ -0,0 +1,171 @@
+package com.nutrition.application.service;
+
+import com.nutrition.application.dto.meals.AggregationGranularity;
+import com.nutrition.application.dto.meals.DailyConsumedMealsDTO;
+import com.nutrition.application.dto.meals.NutritionAggregateDTO;
+import com.nutrition.domain.entity.tracking.DailyNutritionRollup;
+import com.nutrition.infrastructure.exception.UnprocessableEntityException;
+import com.nutrition.infrastructure.repository.DailyNutritionRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@code daily_nutrition_rollups}: one row per user and day with the totals of the meals
+ * consumed that day. Rows are recomputed from the source tables inside the transaction that changed
+ * them, after locking the affected users: concurrent refreshes of a user run one at a time, so the
+ * last one to commit always wrote totals computed from every committed consumption. {@link #rebuild()}
+ * recomputes every row from scratch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NutritionRollupService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final DailyNutritionRollupRepository rollupRepository;
+
+    @Value("${app.nutrition.adherence-tolerance:0.10}")
+    private BigDecimal adherenceTolerance;
+
+    /**
+     * Recomputes the user's rows for the given days, removing days left without consumptions.
+     */
+    @Transactional
+    public void refreshDays(Long userId, Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        // Sem o lock, duas transações do mesmo usuário podem gravar totais que não veem o consumo da outra
+        rollupRepository.lockUser(userId);
+        rollupRepository.upsertDays(userId, dates);
+        rollupRepository.deleteEmptyDays(userId, dates);
+    }
+
+    /**
+     * Recomputes the days on which meals containing the food were consumed, after its nutrients changed.
+     */
+    @Transactional
+    public void refreshDaysForFood(Long foodId) {
+        rollupRepository.lockUsersWithFood(foodId);
+        int days = rollupRepository.upsertDaysForFood(foodId);
+        log.info("Nutrition rollups recalculated for {} days with food {}", days, foodId);
+    }
+
+    /**
+     * Backfill: recomputes every row from the consumptions.
+     */
+    @Transactional
+    public Map<String, Object> rebuild() {
+        try {
+            long start = System.currentTimeMillis();
+            int removed = rollupRepository.deleteAllRows();
+            int days = rollupRepository.insertAllDays();
+            long duration = System.currentTimeMillis() - start;
+
+            log.info("Nutrition rollups rebuilt: {} days (previously {}) in {} ms", days, removed, duration);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("days", days);
+            result.put("previous_days", removed);
+            result.put("duration_ms", duration);
+            return result;
+        } catch (Exception e) {
+            log.error("Error rebuilding nutrition rollups: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Rows of the user between the dates, most recent first.
+     */
+    @Transactional(readOnly = true)
+    public List<DailyNutritionRollup> findDays(Long userId, LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDate, endDate);
+    }
+
+    /**
+     * Weekly or monthly totals and daily averages of the user's days between the dates, aggregated by
+     * the database over the rollup rows. With a calorie target, a day is on target when its calories
+     * are within the configured tolerance of it.
+     */
+    @Transactional(readOnly = true)
+    public List<NutritionAggregateDTO.Period> aggregate(Long userId, AggregationGranularity granularity,
+                                                       LocalDate startDate, LocalDate endDate,
+                                                       BigDecimal calorieTarget) {
+        // Sem meta, os limites são irrelevantes: a aderência é descartada abaixo
+        BigDecimal minCalories = BigDecimal.ZERO;
+        BigDecimal maxCalories = BigDecimal.ZERO;
+        if (calorieTarget != null) {
+            minCalories = calorieTarget.multiply(BigDecimal.ONE.subtract(adherenceTolerance));
+            maxCalories = calorieTarget.multiply(BigDecimal.ONE.add(adherenceTolerance));
+        }
+
+        List<Object[]> rows = rollupRepository.aggregateByPeriod(userId, granularity.unit(), startDate, endDate,
+                minCalories, maxCalories);
+
+        List<NutritionAggregateDTO.Period> periods = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            LocalDate periodStart = row[0] instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) row[0];
+            int daysLogged = ((Number) row[1]).intValue();
+            BigDecimal averageCalories = decimal(row[9]);
+
+            NutritionAggregateDTO.Period.PeriodBuilder period = NutritionAggregateDTO.Period.builder()
+                    .periodStart(periodStart)
+                    .periodEnd(granularity.periodEnd(periodStart))
+                    .daysLogged(daysLogged)
+                    .mealsCount(((Number) row[2]).intValue())
+                    .totalCalories(decimal(row[3]))
+                    .totalCarbs(decimal(row[4]))
+                    .totalProtein(decimal(row[5]))
+                    .totalFat(decimal(row[6]))
+                    .totalFiber(decimal(row[7]))
+                    .totalSodium(decimal(row[8]))
+                    .averageCalories(averageCalories)
+                    .averageCarbs(decimal(row[10]))
+                    .averageProtein(decimal(row[11]))
+                    .averageFat(decimal(row[12]))
+                    .averageFiber(decimal(row[13]))
+                    .averageSodium(decimal(row[14]));
+
+            if (calorieTarget != null) {
+                int daysOnTarget = ((Number) row[15]).intValue();
+                period.daysOnTarget(daysOnTarget)
+                        .adherenceRate(BigDecimal.valueOf(daysOnTarget).multiply(HUNDRED)
+                                .divide(BigDecimal.valueOf(daysLogged), 2, RoundingMode.HALF_UP))
+                        .targetPercentage(averageCalories.multiply(HUNDRED)
+                                .divide(calorieTarget, 2, RoundingMode.HALF_UP));
+            }
+            periods.add(period.build());
+        }
+        return periods;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    public static DailyConsumedMealsDTO.DailyNutritionalSummary toSummary(DailyNutritionRollup rollup) {
+        return DailyConsumedMealsDTO.DailyNutritionalSummary.builder()
+                .totalCalories(rollup.getTotalCalories())
+                .totalCarbs(rollup.getTotalCarbs())
+                .totalProtein(rollup.getTotalProtein())
+                .totalFat(rollup.getTotalFat())
+                .totalFiber(rollup.getTotalFiber())
+                .totalSodium(rollup.getTotalSodium())
+                .mealsCount(rollup.getMealsCount())
+                .build();
+    }
+}
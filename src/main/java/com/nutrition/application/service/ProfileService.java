@@ -11,6 +11,8 @@ import com.nutrition.application.dto.profile.WeightUpdateRequest;
 import com.nutrition.domain.entity.auth.User;
 import com.nutrition.domain.entity.profile.UserProfile;
 import com.nutrition.domain.entity.profile.WeightHistory;
+import com.nutrition.domain.event.UserNutritionChangedEvent;
+import com.nutrition.infrastructure.cache.ResourceVersions;
 import com.nutrition.infrastructure.exception.NotFoundException;
 import com.nutrition.infrastructure.exception.UnprocessableEntityException;
 import com.nutrition.infrastructure.repository.ActivityLevelConfigRepository;
@@ -19,6 +21,7 @@ import com.nutrition.infrastructure.repository.UserRepository;
 import com.nutrition.infrastructure.repository.WeightHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,6 +42,8 @@ public class ProfileService {
     private final TotalDailyEnergyExpenditureCalculationService calculationService;
     private final ProfileValidationService validationService;
     private final ActivityLevelConfigRepository activityLevelConfigRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersions resourceVersions;
 
     @Transactional
     public ProfileResponse createProfile(User currentUser, CreateProfileRequest request) {
@@ -109,6 +114,7 @@ public class ProfileService {
             }
 
             profile = profileRepository.save(profile);
+            eventPublisher.publishEvent(new UserNutritionChangedEvent(currentUser.getId()));
 
             // Criar primeiro registro de peso
             WeightHistory firstWeight = WeightHistory.builder()
@@ -254,6 +260,7 @@ public class ProfileService {
             }
 
             profile = profileRepository.save(profile);
+            eventPublisher.publishEvent(new UserNutritionChangedEvent(currentUser.getId()));
 
             ProfileResponse response = buildProfileResponse(profile);
 
@@ -358,6 +365,7 @@ public class ProfileService {
                 }
 
                 profileRepository.save(profile);
+                eventPublisher.publishEvent(new UserNutritionChangedEvent(currentUser.getId()));
             }
 
             return buildWeightHistoryResponse(weightRecord, currentUser);
@@ -367,6 +375,18 @@ public class ProfileService {
         }
     }
 
+    /**
+     * ETag of the user's profile, from its persisted modification time, so writes made through any node
+     * change it. Includes the locale (translated labels) and the date, since age, daysToTarget and
+     * recommendedWeeklyWeightChange are computed from today. Null when the user has no profile.
+     */
+    public String getProfileETag(User currentUser) {
+        return profileRepository.findLastModifiedByUserId(currentUser.getId())
+                .map(modifiedAt -> resourceVersions.tag("profile", currentUser.getId(), modifiedAt,
+                        currentUser.getPreferredLocale(), LocalDate.now()))
+                .orElse(null);
+    }
+
     public ProfileResponse getProfile(User currentUser) {
         try {
             UserProfile profile = profileRepository.findByUser(currentUser)
@@ -394,6 +414,7 @@ public class ProfileService {
             }
 
             profileRepository.delete(profile);
+            eventPublisher.publishEvent(new UserNutritionChangedEvent(currentUser.getId()));
             weightHistoryRepository.deleteByUser(currentUser);
         } catch (Exception e) {
             log.error("Error deleting profile: {}", e.getMessage());
@@ -452,6 +473,7 @@ public class ProfileService {
                 if (newLatestWeight != null) {
                     profile.setCurrentWeight(newLatestWeight.getWeight());
                     profileRepository.save(profile);
+                    eventPublisher.publishEvent(new UserNutritionChangedEvent(currentUser.getId()));
                     log.info("Updated current weight to: {}", newLatestWeight.getWeight());
 
                     // Recalculate metabolic data with new current weight
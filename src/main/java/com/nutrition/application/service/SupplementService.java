@@ -2,8 +2,11 @@ package com.nutrition.application.service;
 
 import com.nutrition.application.dto.food.AddScheduleRequest;
 import com.nutrition.application.dto.food.AddSupplementRequest;
+import com.nutrition.application.dto.food.BatchLookupResponse;
 import com.nutrition.application.dto.food.CreateSupplementRequest;
+import com.nutrition.application.dto.food.CursorPageResponse;
 import com.nutrition.application.dto.food.ScheduleResponse;
+import com.nutrition.application.dto.food.SearchMode;
 import com.nutrition.application.dto.food.SupplementResponse;
 import com.nutrition.application.dto.food.TimeRoutineRequest;
 import com.nutrition.application.dto.food.UpdateScheduleRequest;
@@ -14,16 +17,20 @@ import com.nutrition.domain.entity.auth.User;
 import com.nutrition.domain.entity.food.Supplement;
 import com.nutrition.domain.entity.food.UserSupplement;
 import com.nutrition.domain.entity.food.UserSupplementSchedule;
+import com.nutrition.infrastructure.cache.CatalogStatistics;
 import com.nutrition.infrastructure.exception.UnprocessableEntityException;
+import com.nutrition.infrastructure.pagination.NameCursor;
 import com.nutrition.infrastructure.repository.SupplementRepository;
 import com.nutrition.infrastructure.repository.UserRepository;
 import com.nutrition.infrastructure.repository.UserSupplementRepository;
 import com.nutrition.infrastructure.repository.UserSupplementScheduleRepository;
+import com.nutrition.infrastructure.search.TrigramSearchSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -32,7 +39,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,10 +52,14 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SupplementService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final SupplementRepository supplementRepository;
     private final UserSupplementRepository userSupplementRepository;
     private final UserSupplementScheduleRepository userSupplementScheduleRepository;
     private final UserRepository userRepository;
+    private final TrigramSearchSupport trigramSearchSupport;
+    private final CatalogStatistics catalogStatistics;
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
@@ -81,6 +97,7 @@ public class SupplementService {
                     .build();
 
             supplement = supplementRepository.save(supplement);
+            catalogStatistics.supplementCategoryChanged(null, supplement.getCategory());
 
             SupplementResponse response = buildSupplementResponse(supplement, null);
 
@@ -96,40 +113,70 @@ public class SupplementService {
     /**
      * Enhanced search method with proper parameter mapping
      */
-    public Page<SupplementResponse> searchSupplements(String searchTerm, String category,
-                                                      String form, String brand, Boolean verified,
-                                                      int page, int size) {
+    @Transactional(readOnly = true)
+    public Slice<SupplementResponse> searchSupplements(String searchTerm, String category,
+                                                       String form, String brand, Boolean verified,
+                                                       String mode, boolean withCount, int page, int size) {
         try {
             User currentUser = getCurrentUserOrNull();
 
             Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-            Page<Supplement> supplements;
-
-            if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            Slice<Supplement> supplements;
+
+            // Com withCount = false, usar as variantes Slice, que não executam COUNT
+            if (searchTerm != null && !searchTerm.trim().isEmpty() && SearchMode.from(mode) == SearchMode.RANKED
+                    && trigramSearchSupport.isAvailable()) {
+                // Similaridade de trigramas, ordenada por relevância (sem pg_trgm, cai na busca por texto)
+                trigramSearchSupport.applySimilarityThreshold();
+                supplements = withCount
+                        ? supplementRepository.searchRanked(searchTerm.trim(), PageRequest.of(page, size))
+                        : supplementRepository.searchRankedSlice(searchTerm.trim(), PageRequest.of(page, size));
+            } else if (searchTerm != null && !searchTerm.trim().isEmpty()) {
                 // Simple text search
-                supplements = supplementRepository.searchByNameDescriptionBrandOrIngredient(searchTerm, pageable);
+                supplements = withCount
+                        ? supplementRepository.searchByNameDescriptionBrandOrIngredient(searchTerm, pageable)
+                        : supplementRepository.searchSliceByNameDescriptionBrandOrIngredient(searchTerm, pageable);
             } else if (hasAdvancedFilters(category, form, brand, verified)) {
                 // Advanced filtered search - FIX: passing all required parameters
-                supplements = supplementRepository.findByAdvancedFilters(
-                        null,  // name
-                        category,  // category (String)
-                        form,  // form (String)
-                        brand,  // brand
-                        null,   // ingredient
-                        null,   // servingUnit
-                        null,   // hasNutritionalValue
-                        pageable
-                );
+                if (withCount) {
+                    supplements = supplementRepository.findByAdvancedFilters(
+                            null,  // name
+                            category,  // category (String)
+                            form,  // form (String)
+                            brand,  // brand
+                            null,   // ingredient
+                            null,   // servingUnit
+                            null,   // hasNutritionalValue
+                            pageable
+                    );
+                } else {
+                    supplements = supplementRepository.findSliceByAdvancedFilters(
+                            null,  // name
+                            category,  // category (String)
+                            form,  // form (String)
+                            brand,  // brand
+                            null,   // ingredient
+                            null,   // servingUnit
+                            null,   // hasNutritionalValue
+                            pageable
+                    );
+                }
             } else {
                 // Default: all active supplements
-                supplements = supplementRepository.findByActiveTrueOrderByNameAsc(pageable);
+                supplements = withCount
+                        ? supplementRepository.findByActiveTrueOrderByNameAsc(pageable)
+                        : supplementRepository.findSliceByActiveTrueOrderByNameAsc(pageable);
             }
 
-            Page<SupplementResponse> responses = supplements.map(supplement -> buildSupplementResponse(supplement, currentUser));
+            // Para um Page, map() devolve um Page, preservando o total
+            Slice<SupplementResponse> responses = supplements.map(supplement -> buildSupplementResponse(supplement, currentUser));
 
-            log.info("Supplement search completed: {} results", supplements.getTotalElements());
+            log.info("Supplement search completed: {} results", supplements.getNumberOfElements());
             return responses;
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid search parameters: {}", e.getMessage());
+            throw new UnprocessableEntityException(e.getMessage());
         } catch (Exception e) {
             log.error("Error searching supplements: {}", e.getMessage());
             throw new UnprocessableEntityException("Erro interno do servidor");
@@ -190,6 +237,48 @@ public class SupplementService {
         }
     }
 
+    /**
+     * Resolves many supplement ids at once with a single IN query, in request order.
+     */
+    @Transactional(readOnly = true)
+    public BatchLookupResponse<SupplementResponse> getSupplementsByIds(List<Long> ids) {
+        try {
+            User currentUser = getCurrentUserOrNull();
+            List<Long> requested = ids.stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            Map<Long, Supplement> supplementsById = new HashMap<>();
+            if (!requested.isEmpty()) {
+                for (Supplement supplement : supplementRepository.findByIdInAndActiveTrue(requested)) {
+                    supplementsById.put(supplement.getId(), supplement);
+                }
+            }
+
+            Map<Long, SupplementResponse> supplements = new LinkedHashMap<>();
+            List<Long> notFound = new ArrayList<>();
+            for (Long id : requested) {
+                Supplement supplement = supplementsById.get(id);
+                if (supplement != null) {
+                    supplements.put(id, buildSupplementResponse(supplement, currentUser));
+                } else {
+                    notFound.add(id);
+                }
+            }
+
+            log.info("Supplement batch lookup: {} requested, {} found", requested.size(), supplements.size());
+            return BatchLookupResponse.<SupplementResponse>builder()
+                    .results(supplements)
+                    .notFound(notFound)
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Error in supplement batch lookup: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
     public Page<SupplementResponse> getSupplementsByCategory(String categoryName, int page, int size) {
         try {
             User currentUser = getCurrentUserOrNull();
@@ -205,6 +294,52 @@ public class SupplementService {
         }
     }
 
+    /**
+     * Keyset (cursor) pagination over active supplements in name order, without a count query.
+     */
+    public CursorPageResponse<SupplementResponse> scrollSupplements(String cursor, String categoryName, int size) {
+        try {
+            User currentUser = getCurrentUserOrNull();
+            Supplement.SupplementCategory category = categoryName != null && !categoryName.isBlank()
+                    ? parseSupplementCategory(categoryName) : null;
+            NameCursor after = NameCursor.decode(cursor);
+
+            // Uma linha extra indica se existe próxima página
+            int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+            Pageable limit = PageRequest.of(0, pageSize + 1);
+
+            List<Supplement> supplements = after == null
+                    ? supplementRepository.findActiveFirstPage(category, limit)
+                    : supplementRepository.findActivePageAfter(category, after.getName(), after.getId(), limit);
+
+            boolean hasNext = supplements.size() > pageSize;
+            if (hasNext) {
+                supplements = supplements.subList(0, pageSize);
+            }
+
+            String nextCursor = null;
+            if (hasNext) {
+                Supplement last = supplements.get(supplements.size() - 1);
+                nextCursor = new NameCursor(last.getName(), last.getId()).encode();
+            }
+
+            return CursorPageResponse.<SupplementResponse>builder()
+                    .content(supplements.stream()
+                            .map(supplement -> buildSupplementResponse(supplement, currentUser))
+                            .collect(Collectors.toList()))
+                    .size(supplements.size())
+                    .nextCursor(nextCursor)
+                    .hasNext(hasNext)
+                    .build();
+
+        } catch (IllegalArgumentException e) {
+            throw new UnprocessableEntityException(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error scrolling supplements: {}", e.getMessage());
+            throw new UnprocessableEntityException("Erro interno do servidor");
+        }
+    }
+
     public Page<SupplementResponse> getSupplementsByForm(String formName, int page, int size) {
         try {
             User currentUser = getCurrentUserOrNull();
@@ -272,6 +407,7 @@ public class SupplementService {
             // Soft delete
             supplement.setActive(false);
             supplementRepository.save(supplement);
+            catalogStatistics.supplementCategoryChanged(supplement.getCategory(), null);
 
             log.info("Supplement deleted (soft): {} by admin: {}", supplement.getName(), getCurrentUser().getEmail());
         } catch (Exception e) {
@@ -57,6 +57,31 @@ public class Meal {
     @Builder.Default
     private List<MealConsumption> consumptions = new ArrayList<>();
 
+    // Totais nutricionais persistidos (null quando nenhum item tem o nutriente), mantidos por recalculateTotals()
+    @Column(name = "total_calories", precision = 10, scale = 2)
+    private BigDecimal totalCalories;
+
+    @Column(name = "total_carbs", precision = 10, scale = 2)
+    private BigDecimal totalCarbs;
+
+    @Column(name = "total_protein", precision = 10, scale = 2)
+    private BigDecimal totalProtein;
+
+    @Column(name = "total_fat", precision = 10, scale = 2)
+    private BigDecimal totalFat;
+
+    @Column(name = "total_fiber", precision = 10, scale = 2)
+    private BigDecimal totalFiber;
+
+    @Column(name = "total_sodium", precision = 10, scale = 2)
+    private BigDecimal totalSodium;
+
+    @Column(name = "total_sugar", precision = 10, scale = 2)
+    private BigDecimal totalSugar;
+
+    @Column(name = "total_saturated_fat", precision = 10, scale = 2)
+    private BigDecimal totalSaturatedFat;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -66,62 +91,59 @@ public class Meal {
     private LocalDateTime updatedAt;
 
     // Existing utility methods...
+    /**
+     * Recomputes the persisted totals from the meal's foods. Must be called whenever the foods change.
+     */
+    public void recalculateTotals() {
+        NutrientVector totals = NutrientVector.sum(foods);
+        totalCalories = totals.getOrNull(NutrientVector.CALORIES);
+        totalCarbs = totals.getOrNull(NutrientVector.CARBS);
+        totalProtein = totals.getOrNull(NutrientVector.PROTEIN);
+        totalFat = totals.getOrNull(NutrientVector.FAT);
+        totalFiber = totals.getOrNull(NutrientVector.FIBER);
+        totalSodium = totals.getOrNull(NutrientVector.SODIUM);
+        totalSugar = totals.getOrNull(NutrientVector.SUGAR);
+        totalSaturatedFat = totals.getOrNull(NutrientVector.SATURATED_FAT);
+    }
+
+    /**
+     * All nutrient totals of the meal, read from the persisted columns without loading its foods.
+     */
+    public NutrientVector getNutrientTotals() {
+        return NutrientVector.ofTotals(totalCalories, totalCarbs, totalProtein, totalFat,
+                totalFiber, totalSodium, totalSugar, totalSaturatedFat);
+    }
+
     public BigDecimal getTotalCalories() {
-        if (foods == null || foods.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        return foods.stream()
-                .map(MealFood::getTotalCalories)
-                .filter(calories -> calories != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return totalCalories != null ? totalCalories : BigDecimal.ZERO;
     }
 
     public BigDecimal getTotalCarbs() {
-        if (foods == null || foods.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        return foods.stream()
-                .map(MealFood::getTotalCarbs)
-                .filter(carbs -> carbs != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return totalCarbs != null ? totalCarbs : BigDecimal.ZERO;
     }
 
     public BigDecimal getTotalProtein() {
-        if (foods == null || foods.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        return foods.stream()
-                .map(MealFood::getTotalProtein)
-                .filter(protein -> protein != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return totalProtein != null ? totalProtein : BigDecimal.ZERO;
     }
 
     public BigDecimal getTotalFat() {
-        if (foods == null || foods.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        return foods.stream()
-                .map(MealFood::getTotalFat)
-                .filter(fat -> fat != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return totalFat != null ? totalFat : BigDecimal.ZERO;
     }
 
     public BigDecimal getTotalFiber() {
-        if (foods == null || foods.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        return foods.stream()
-                .map(mealFood -> mealFood.getTotalFiber() != null ? mealFood.getTotalFiber() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return totalFiber != null ? totalFiber : BigDecimal.ZERO;
     }
 
     public BigDecimal getTotalSodium() {
-        if (foods == null || foods.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        return foods.stream()
-                .map(mealFood -> mealFood.getTotalSodium() != null ? mealFood.getTotalSodium() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return totalSodium != null ? totalSodium : BigDecimal.ZERO;
+    }
+
+    public BigDecimal getTotalSugar() {
+        return totalSugar != null ? totalSugar : BigDecimal.ZERO;
+    }
+
+    public BigDecimal getTotalSaturatedFat() {
+        return totalSaturatedFat != null ? totalSaturatedFat : BigDecimal.ZERO;
     }
 
     // Existing methods...
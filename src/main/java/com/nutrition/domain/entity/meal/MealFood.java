@@ -17,7 +17,6 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 @Entity
 @Table(name = "meal_foods")
@@ -47,93 +46,44 @@ public class MealFood {
     private String unit; // "g", "ml", "porção", etc.
 
     // Métodos para calcular valores nutricionais baseados na quantidade
-    public BigDecimal getTotalCalories() {
-        if (food == null || quantity == null) return BigDecimal.ZERO;
+    /**
+     * All nutrient totals of this item, computed in one pass. Prefer it over the individual getters
+     * when reading more than one nutrient.
+     */
+    public NutrientVector getNutrientTotals() {
+        return NutrientVector.of(this);
+    }
 
-        BigDecimal multiplier = getQuantityMultiplier();
-        return food.getCaloriesPer100g()
-                .multiply(multiplier)
-                .setScale(2, RoundingMode.HALF_UP);
+    public BigDecimal getTotalCalories() {
+        return getNutrientTotals().getCalories();
     }
 
     public BigDecimal getTotalCarbs() {
-        if (food == null || quantity == null) return BigDecimal.ZERO;
-
-        BigDecimal multiplier = getQuantityMultiplier();
-        return food.getCarbsPer100g()
-                .multiply(multiplier)
-                .setScale(2, RoundingMode.HALF_UP);
+        return getNutrientTotals().getCarbs();
     }
 
     public BigDecimal getTotalProtein() {
-        if (food == null || quantity == null) return BigDecimal.ZERO;
-
-        BigDecimal multiplier = getQuantityMultiplier();
-        return food.getProteinPer100g()
-                .multiply(multiplier)
-                .setScale(2, RoundingMode.HALF_UP);
+        return getNutrientTotals().getProtein();
     }
 
     public BigDecimal getTotalFat() {
-        if (food == null || quantity == null) return BigDecimal.ZERO;
-
-        BigDecimal multiplier = getQuantityMultiplier();
-        return food.getFatPer100g()
-                .multiply(multiplier)
-                .setScale(2, RoundingMode.HALF_UP);
+        return getNutrientTotals().getFat();
     }
 
     public BigDecimal getTotalFiber() {
-        if (food == null || quantity == null || food.getFiberPer100g() == null) return BigDecimal.ZERO;
-
-        BigDecimal multiplier = getQuantityMultiplier();
-        return food.getFiberPer100g()
-                .multiply(multiplier)
-                .setScale(2, RoundingMode.HALF_UP);
+        return getNutrientTotals().getFiber();
     }
 
     public BigDecimal getTotalSodium() {
-        if (food == null || quantity == null || food.getSodiumPer100g() == null) return BigDecimal.ZERO;
-
-        BigDecimal multiplier = getQuantityMultiplier();
-        return food.getSodiumPer100g()
-                .multiply(multiplier)
-                .setScale(2, RoundingMode.HALF_UP);
+        return getNutrientTotals().getSodium();
     }
 
     public BigDecimal getTotalSugar() {
-        if (food == null || quantity == null || food.getSugarPer100g() == null) return BigDecimal.ZERO;
-
-        BigDecimal multiplier = getQuantityMultiplier();
-        return food.getSugarPer100g()
-                .multiply(multiplier)
-                .setScale(2, RoundingMode.HALF_UP);
+        return getNutrientTotals().getSugar();
     }
 
     public BigDecimal getTotalSaturatedFat() {
-        if (food == null || quantity == null || food.getSaturatedFatPer100g() == null) return BigDecimal.ZERO;
-
-        BigDecimal multiplier = getQuantityMultiplier();
-        return food.getSaturatedFatPer100g()
-                .multiply(multiplier)
-                .setScale(2, RoundingMode.HALF_UP);
-    }
-
-    /**
-     * Calcula o multiplicador baseado na quantidade e unidade
-     * Se a unidade é "porção" e o alimento tem servingSize, usa essa referência
-     * Caso contrário, assume que a quantidade é em gramas
-     */
-    private BigDecimal getQuantityMultiplier() {
-        if ("porção".equals(unit) || "serving".equals(unit)) {
-            if (food.getServingSize() != null && food.getServingSize().compareTo(BigDecimal.ZERO) > 0) {
-                // quantidade * servingSize / 100
-                return quantity.multiply(food.getServingSize()).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-            }
-        }
-
-        // Assume quantidade em gramas: quantidade / 100
-        return quantity.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+        return getNutrientTotals().getSaturatedFat();
     }
 
     // Getter para quantidade como Double para compatibilidade com DTOs
@@ -0,0 +1,252 @@
+package com.nutrition.domain.entity.meal;
+
+import com.nutrition.domain.entity.food.Food;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Nutrient totals of a meal item or a whole meal, computed in fixed point over primitive longs.
+ * <p>
+ * Values are read as hundredths, the multiplier as ten-thousandths (the scale of
+ * {@link #quantityMultiplier}), so each product is exact in micro-units and is rounded
+ * HALF_UP to hundredths, exactly like {@code setScale(2, HALF_UP)}. Totals are kept as sums of those
+ * rounded values and only become {@link BigDecimal} when read: scale 2 when at least one item
+ * contributed to the nutrient, {@link BigDecimal#ZERO} otherwise, as the BigDecimal sums did.
+ * Inputs that cannot be represented exactly this way fall back to the BigDecimal computation.
+ */
+public final class NutrientVector {
+
+    static final int CALORIES = 0;
+    static final int CARBS = 1;
+    static final int PROTEIN = 2;
+    static final int FAT = 3;
+    static final int FIBER = 4;
+    static final int SODIUM = 5;
+    static final int SUGAR = 6;
+    static final int SATURATED_FAT = 7;
+    private static final int SIZE = 8;
+
+    private static final long NOT_EXACT = Long.MIN_VALUE;
+
+    // Abaixo de 2^52 o double de um valor com escala até 2 recupera exatamente os centésimos
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private static final long MICROS_PER_HUNDREDTH = 10_000;
+
+    private final long[] hundredths = new long[SIZE];
+    private int present; // bit por nutriente com pelo menos uma parcela
+
+    private NutrientVector() {
+    }
+
+    public static NutrientVector empty() {
+        return new NutrientVector();
+    }
+
+    public static NutrientVector of(MealFood item) {
+        NutrientVector vector = new NutrientVector();
+        vector.add(item);
+        return vector;
+    }
+
+    public static NutrientVector sum(List<MealFood> items) {
+        NutrientVector vector = new NutrientVector();
+        if (items != null) {
+            for (MealFood item : items) {
+                vector.add(item);
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Vector of already computed totals, such as the ones persisted on {@link Meal}. Null stands for a
+     * nutrient no item contributed to.
+     */
+    static NutrientVector ofTotals(BigDecimal calories, BigDecimal carbs, BigDecimal protein, BigDecimal fat,
+                                   BigDecimal fiber, BigDecimal sodium, BigDecimal sugar, BigDecimal saturatedFat) {
+        NutrientVector vector = new NutrientVector();
+        vector.set(CALORIES, calories);
+        vector.set(CARBS, carbs);
+        vector.set(PROTEIN, protein);
+        vector.set(FAT, fat);
+        vector.set(FIBER, fiber);
+        vector.set(SODIUM, sodium);
+        vector.set(SUGAR, sugar);
+        vector.set(SATURATED_FAT, saturatedFat);
+        return vector;
+    }
+
+    public BigDecimal getCalories() {
+        return get(CALORIES);
+    }
+
+    public BigDecimal getCarbs() {
+        return get(CARBS);
+    }
+
+    public BigDecimal getProtein() {
+        return get(PROTEIN);
+    }
+
+    public BigDecimal getFat() {
+        return get(FAT);
+    }
+
+    public BigDecimal getFiber() {
+        return get(FIBER);
+    }
+
+    public BigDecimal getSodium() {
+        return get(SODIUM);
+    }
+
+    public BigDecimal getSugar() {
+        return get(SUGAR);
+    }
+
+    public BigDecimal getSaturatedFat() {
+        return get(SATURATED_FAT);
+    }
+
+    /**
+     * Total at scale 2, or null when no item contributed to the nutrient.
+     */
+    BigDecimal getOrNull(int nutrient) {
+        return (present & (1 << nutrient)) != 0 ? BigDecimal.valueOf(hundredths[nutrient], 2) : null;
+    }
+
+    private BigDecimal get(int nutrient) {
+        BigDecimal total = getOrNull(nutrient);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    private void set(int nutrient, BigDecimal total) {
+        if (total != null) {
+            hundredths[nutrient] = total.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            present |= 1 << nutrient;
+        }
+    }
+
+    private void add(MealFood item) {
+        Food food = item.getFood();
+        if (food == null) {
+            return;
+        }
+        addItem(item.getQuantity(), item.getUnit(), food.getServingSize(),
+                food.getCaloriesPer100g(), food.getCarbsPer100g(), food.getProteinPer100g(), food.getFatPer100g(),
+                food.getFiberPer100g(), food.getSodiumPer100g(), food.getSugarPer100g(),
+                food.getSaturatedFatPer100g());
+    }
+
+    /**
+     * Adds one meal item given as raw values, e.g. from a query projection instead of entities.
+     */
+    public NutrientVector addItem(BigDecimal quantity, String unit, BigDecimal servingSize,
+                                  BigDecimal calories, BigDecimal carbs, BigDecimal protein, BigDecimal fat,
+                                  BigDecimal fiber, BigDecimal sodium, BigDecimal sugar, BigDecimal saturatedFat) {
+        if (quantity == null) {
+            return this;
+        }
+
+        long multiplier = multiplier(quantity, unit, servingSize);
+        add(CALORIES, calories, multiplier, quantity, unit, servingSize);
+        add(CARBS, carbs, multiplier, quantity, unit, servingSize);
+        add(PROTEIN, protein, multiplier, quantity, unit, servingSize);
+        add(FAT, fat, multiplier, quantity, unit, servingSize);
+        add(FIBER, fiber, multiplier, quantity, unit, servingSize);
+        add(SODIUM, sodium, multiplier, quantity, unit, servingSize);
+        add(SUGAR, sugar, multiplier, quantity, unit, servingSize);
+        add(SATURATED_FAT, saturatedFat, multiplier, quantity, unit, servingSize);
+        return this;
+    }
+
+    private void add(int nutrient, BigDecimal per100g, long multiplier,
+                     BigDecimal quantity, String unit, BigDecimal servingSize) {
+        if (per100g == null) {
+            return;
+        }
+
+        long total = NOT_EXACT;
+        long value = toHundredths(per100g);
+        if (value != NOT_EXACT && multiplier != NOT_EXACT) {
+            try {
+                total = divideHalfUp(Math.multiplyExact(value, multiplier), MICROS_PER_HUNDREDTH);
+            } catch (ArithmeticException e) {
+                total = NOT_EXACT;
+            }
+        }
+        if (total == NOT_EXACT) {
+            total = per100g.multiply(quantityMultiplier(quantity, unit, servingSize))
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        }
+
+        hundredths[nutrient] += total;
+        present |= 1 << nutrient;
+    }
+
+    /**
+     * Calcula o multiplicador baseado na quantidade e unidade
+     * Se a unidade é "porção" e o alimento tem servingSize, usa essa referência
+     * Caso contrário, assume que a quantidade é em gramas
+     */
+    static BigDecimal quantityMultiplier(BigDecimal quantity, String unit, BigDecimal servingSize) {
+        if (isServingBased(unit, servingSize)) {
+            // quantidade * servingSize / 100
+            return quantity.multiply(servingSize).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+        }
+
+        // Assume quantidade em gramas: quantidade / 100
+        return quantity.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+    }
+
+    private static boolean isServingBased(String unit, BigDecimal servingSize) {
+        return ("porção".equals(unit) || "serving".equals(unit))
+                && servingSize != null && servingSize.compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    /**
+     * Same multiplier in ten-thousandths, computed on longs.
+     */
+    private static long multiplier(BigDecimal quantity, String unit, BigDecimal servingSize) {
+        long hundredthsOfQuantity = toHundredths(quantity);
+        if (hundredthsOfQuantity == NOT_EXACT) {
+            return NOT_EXACT;
+        }
+        if (!isServingBased(unit, servingSize)) {
+            // (q / 100) / 100 em décimos de milésimo é o próprio valor em centésimos
+            return hundredthsOfQuantity;
+        }
+
+        long hundredthsOfServing = toHundredths(servingSize);
+        if (hundredthsOfServing == NOT_EXACT) {
+            return NOT_EXACT;
+        }
+        try {
+            return divideHalfUp(Math.multiplyExact(hundredthsOfQuantity, hundredthsOfServing), 100);
+        } catch (ArithmeticException e) {
+            return NOT_EXACT;
+        }
+    }
+
+    private static long toHundredths(BigDecimal value) {
+        if (value.scale() < 0 || value.scale() > 2 || value.precision() > MAX_EXACT_DIGITS) {
+            return NOT_EXACT;
+        }
+        return Math.round(value.doubleValue() * 100);
+    }
+
+    // HALF_UP: empates se afastam de zero, como em BigDecimal
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
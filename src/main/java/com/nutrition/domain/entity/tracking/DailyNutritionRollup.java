@@ -0,0 +1,74 @@
+package com.nutrition.domain.entity.tracking;
+
+import com.nutrition.domain.entity.auth.User;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Nutrient totals of the meals a user consumed on one day. Rows are written only by the SQL in
+ * {@code DailyNutritionRollupRepository}, recomputed from consumptions and persisted meal totals.
+ */
+@Entity
+@Table(name = "daily_nutrition_rollups")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyNutritionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "total_calories", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalCalories;
+
+    @Column(name = "total_carbs", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalCarbs;
+
+    @Column(name = "total_protein", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalProtein;
+
+    @Column(name = "total_fat", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalFat;
+
+    @Column(name = "total_fiber", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalFiber;
+
+    @Column(name = "total_sodium", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalSodium;
+
+    @Column(name = "total_sugar", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalSugar;
+
+    @Column(name = "total_saturated_fat", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalSaturatedFat;
+
+    @Column(name = "meals_count", nullable = false)
+    private Integer mealsCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
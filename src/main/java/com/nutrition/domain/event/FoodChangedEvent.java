@@ -0,0 +1,41 @@
+package com.nutrition.domain.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published by FoodService whenever an admin changes the food catalog.
+ * Listeners that keep in-memory views of the catalog should react after commit.
+ */
+@Getter
+public class FoodChangedEvent {
+
+    private final Long foodId;
+    private final ChangeType changeType;
+
+    // Códigos de barras afetados pela mudança (anterior e atual), para invalidar caches por código
+    private final Set<String> barcodes;
+
+    public FoodChangedEvent(Long foodId, ChangeType changeType) {
+        this(foodId, changeType, Collections.emptySet());
+    }
+
+    public FoodChangedEvent(Long foodId, ChangeType changeType, Collection<String> barcodes) {
+        this.foodId = foodId;
+        this.changeType = changeType;
+        this.barcodes = barcodes.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
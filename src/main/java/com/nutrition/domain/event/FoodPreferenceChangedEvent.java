@@ -0,0 +1,14 @@
+package com.nutrition.domain.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when a user sets or removes a food preference.
+ */
+@Getter
+@RequiredArgsConstructor
+public class FoodPreferenceChangedEvent {
+
+    private final Long userId;
+}
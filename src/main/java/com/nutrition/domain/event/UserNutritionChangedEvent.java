@@ -0,0 +1,15 @@
+package com.nutrition.domain.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when something that feeds a user's food recommendations changes: food preferences,
+ * consumed meals or the calorie target in the profile.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserNutritionChangedEvent {
+
+    private final Long userId;
+}
@@ -0,0 +1,125 @@
+package com.nutrition.infrastructure.cache;
+
+import com.nutrition.domain.event.FoodChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache from barcode to active food id, including negative entries for unknown barcodes.
+ * <p>
+ * Writers invalidate the affected barcodes after commit. A generation counter guards against a reader
+ * that loaded from the database before the commit putting the stale value back afterwards: loads must
+ * capture {@link #generation()} before querying and pass it to {@link #put}.
+ */
+@Component
+@Slf4j
+public class BarcodeCache {
+
+    /**
+     * Cached marker for barcodes known not to belong to any active food.
+     */
+    public static final long NOT_FOUND = 0L;
+
+    private final int maxEntries;
+
+    // guarded by this
+    private final LinkedHashMap<String, Long> entries;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BarcodeCache(@Value("${app.cache.barcode.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > BarcodeCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached food id, {@link #NOT_FOUND} for a cached unknown barcode, or null when the
+     * barcode is not cached.
+     */
+    public Long get(String barcode) {
+        Long foodId;
+        synchronized (this) {
+            foodId = entries.get(barcode);
+        }
+
+        if (foodId == null) {
+            misses.incrementAndGet();
+        } else if (foodId == NOT_FOUND) {
+            negativeHits.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return foodId;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches a lookup result unless an invalidation happened since {@code loadGeneration} was read.
+     */
+    public synchronized void put(String barcode, long foodId, long loadGeneration) {
+        if (loadGeneration == generation) {
+            entries.put(barcode, foodId);
+        }
+    }
+
+    public synchronized void invalidate(Collection<String> barcodes) {
+        generation++;
+        for (String barcode : barcodes) {
+            entries.remove(barcode);
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodChanged(FoodChangedEvent event) {
+        if (!event.getBarcodes().isEmpty()) {
+            invalidate(event.getBarcodes());
+            log.debug("Barcode cache invalidated for food {}: {}", event.getFoodId(), event.getBarcodes());
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.get() + negativeHits.get();
+        long lookups = hitCount + misses.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("max_entries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("negative_hits", negativeHits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hit_rate", lookups > 0 ? (double) hitCount / lookups : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,175 @@
+package com.nutrition.infrastructure.cache;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.domain.entity.food.Supplement;
+import com.nutrition.infrastructure.repository.FoodRepository;
+import com.nutrition.infrastructure.repository.SupplementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Active food and supplement counts per category, kept in atomic counters so admin dashboards do not
+ * run {@code GROUP BY} aggregates on every load.
+ * <p>
+ * Services report category changes of the catalog (create, category update, soft delete) and the
+ * counters move after commit. Writes that bypass the services, such as bulk imports, call
+ * {@link #reconcile()}; a scheduled reconcile also corrects any drift from changes that raced with it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogStatistics {
+
+    private final FoodRepository foodRepository;
+    private final SupplementRepository supplementRepository;
+
+    private final Map<Food.FoodCategory, AtomicLong> foodCounts = counters(Food.FoodCategory.class);
+    private final Map<Supplement.SupplementCategory, AtomicLong> supplementCounts =
+            counters(Supplement.SupplementCategory.class);
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Resets every counter from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.statistics.reconcile-interval:300000}",
+            initialDelayString = "${app.statistics.reconcile-interval:300000}")
+    public void reconcile() {
+        try {
+            long start = System.currentTimeMillis();
+
+            Map<Food.FoodCategory, Long> foods = new EnumMap<>(Food.FoodCategory.class);
+            for (Object[] row : foodRepository.countFoodsByCategory()) {
+                foods.put((Food.FoodCategory) row[0], ((Number) row[1]).longValue());
+            }
+            Map<Supplement.SupplementCategory, Long> supplements = new EnumMap<>(Supplement.SupplementCategory.class);
+            for (Object[] row : supplementRepository.countSupplementsByCategory()) {
+                supplements.put((Supplement.SupplementCategory) row[0], ((Number) row[1]).longValue());
+            }
+
+            long drift = reset(foodCounts, foods) + reset(supplementCounts, supplements);
+            ready = true;
+
+            if (drift != 0) {
+                log.info("Catalog statistics reconciled with a drift of {} items", drift);
+            }
+            log.debug("Catalog statistics reconciled in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error reconciling catalog statistics: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Moves one active food from {@code previous} to {@code current} after the surrounding transaction
+     * commits. Null stands for "not active": (null, category) is a creation, (category, null) a deletion.
+     */
+    public void foodCategoryChanged(Food.FoodCategory previous, Food.FoodCategory current) {
+        if (previous != current) {
+            afterCommit(() -> move(foodCounts, previous, current));
+        }
+    }
+
+    /**
+     * Same as {@link #foodCategoryChanged} for supplements.
+     */
+    public void supplementCategoryChanged(Supplement.SupplementCategory previous, Supplement.SupplementCategory current) {
+        if (previous != current) {
+            afterCommit(() -> move(supplementCounts, previous, current));
+        }
+    }
+
+    public long getActiveFoods() {
+        return total(foodCounts);
+    }
+
+    public Map<String, Long> getFoodsByCategory() {
+        return byCategory(foodCounts);
+    }
+
+    public long getActiveSupplements() {
+        return total(supplementCounts);
+    }
+
+    public Map<String, Long> getSupplementsByCategory() {
+        return byCategory(supplementCounts);
+    }
+
+    private static <E extends Enum<E>> Map<E, AtomicLong> counters(Class<E> type) {
+        Map<E, AtomicLong> counters = new EnumMap<>(type);
+        for (E category : type.getEnumConstants()) {
+            counters.put(category, new AtomicLong());
+        }
+        return counters;
+    }
+
+    private static <E extends Enum<E>> long reset(Map<E, AtomicLong> counters, Map<E, Long> actual) {
+        long drift = 0;
+        for (Map.Entry<E, AtomicLong> counter : counters.entrySet()) {
+            long value = actual.getOrDefault(counter.getKey(), 0L);
+            drift += Math.abs(counter.getValue().getAndSet(value) - value);
+        }
+        return drift;
+    }
+
+    private static <E extends Enum<E>> void move(Map<E, AtomicLong> counters, E previous, E current) {
+        if (previous != null) {
+            counters.get(previous).decrementAndGet();
+        }
+        if (current != null) {
+            counters.get(current).incrementAndGet();
+        }
+    }
+
+    private static <E extends Enum<E>> long total(Map<E, AtomicLong> counters) {
+        long total = 0;
+        for (AtomicLong counter : counters.values()) {
+            total += counter.get();
+        }
+        return total;
+    }
+
+    // Mesmo formato da consulta agrupada: apenas categorias com itens ativos
+    private static <E extends Enum<E>> Map<String, Long> byCategory(Map<E, AtomicLong> counters) {
+        Map<String, Long> counts = new HashMap<>();
+        counters.forEach((category, counter) -> {
+            long value = counter.get();
+            if (value > 0) {
+                counts.put(category.toString(), value);
+            }
+        });
+        return counts;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,308 @@
+package com.nutrition.infrastructure.cache;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.domain.event.FoodChangedEvent;
+import com.nutrition.infrastructure.repository.FoodRepository;
+import com.nutrition.infrastructure.search.TextNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable, versioned snapshot of the active food catalog, indexed by id, barcode and category.
+ * <p>
+ * Readers take {@link #current()} without locking. Admin changes ({@link FoodChangedEvent}) are applied
+ * after commit by copying the snapshot with the changed food removed and re-inserted at its name position
+ * (binary search over sort keys computed once per food), then publishing the new version, followed by a
+ * {@link FoodCatalogChangedEvent} so derived indexes can apply the change or rebuild from it.
+ * <p>
+ * The {@link Food} instances are detached and shared between threads: treat them as read-only.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FoodCatalog {
+
+    private final FoodRepository foodRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    // serializa quem publica novas versões
+    private final Object publishLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reload();
+    }
+
+    /**
+     * Replaces the snapshot with a fresh copy of every active food.
+     */
+    public void reload() {
+        synchronized (publishLock) {
+            long start = System.currentTimeMillis();
+
+            List<Food> foods = foodRepository.findByActiveTrue();
+            Snapshot snapshot = publish(Snapshot.build(current.get().version + 1, foods), null);
+
+            log.info("Food catalog loaded: version {}, {} foods in {} ms",
+                    snapshot.version, snapshot.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodChanged(FoodChangedEvent event) {
+        try {
+            synchronized (publishLock) {
+                // Leitura sob o lock: eventos concorrentes do mesmo alimento não podem publicar leituras fora de ordem
+                Food food = foodRepository.findById(event.getFoodId()).orElse(null);
+
+                Snapshot previous = current.get();
+                Food active = food != null && Boolean.TRUE.equals(food.getActive()) ? food : null;
+                Snapshot snapshot = publish(previous.apply(event.getFoodId(), active), event.getFoodId());
+
+                log.debug("Food catalog version {} published for food {} ({})",
+                        snapshot.version, event.getFoodId(), event.getChangeType());
+            }
+        } catch (Exception e) {
+            log.error("Error updating food catalog for food {}: {}", event.getFoodId(), e.getMessage());
+        }
+    }
+
+    public Snapshot current() {
+        return current.get();
+    }
+
+    public boolean isReady() {
+        return current.get().version > 0;
+    }
+
+    private Snapshot publish(Snapshot snapshot, Long changedFoodId) {
+        current.set(snapshot);
+        eventPublisher.publishEvent(new FoodCatalogChangedEvent(snapshot, changedFoodId));
+        return snapshot;
+    }
+
+    /**
+     * Name order of the catalog: accent-folded name, then name, then id. Computed once per food version, so
+     * sorting and binary searches do not fold names on every comparison.
+     */
+    public static final class NameKey implements Comparable<NameKey> {
+
+        private final String normalizedName;
+        private final String name;
+        private final long id;
+
+        private NameKey(String normalizedName, String name, long id) {
+            this.normalizedName = normalizedName;
+            this.name = name;
+            this.id = id;
+        }
+
+        public static NameKey of(Food food) {
+            return new NameKey(TextNormalizer.normalize(food.getName()), food.getName(), food.getId());
+        }
+
+        public String getNormalizedName() {
+            return normalizedName;
+        }
+
+        @Override
+        public int compareTo(NameKey other) {
+            int result = normalizedName.compareTo(other.normalizedName);
+            if (result == 0) {
+                result = name.compareTo(other.name);
+            }
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * One version of the active catalog. Version 0 is the empty catalog used before the first load.
+     */
+    public static final class Snapshot {
+
+        private static final Snapshot EMPTY = build(0, Collections.emptyList());
+
+        private final long version;
+        // foods[i] tem a chave keys[i]; ambos em ordem de nome
+        private final Food[] foods;
+        private final NameKey[] keys;
+        private final Map<Long, Food> byId;
+        private final Map<String, Food> byBarcode;
+        private final Map<Food.FoodCategory, List<Food>> byCategory;
+
+        private Snapshot(long version, Food[] foods, NameKey[] keys, Map<Long, Food> byId,
+                         Map<String, Food> byBarcode, Map<Food.FoodCategory, List<Food>> byCategory) {
+            this.version = version;
+            this.foods = foods;
+            this.keys = keys;
+            this.byId = byId;
+            this.byBarcode = byBarcode;
+            this.byCategory = byCategory;
+        }
+
+        static Snapshot build(long version, Collection<Food> values) {
+            Food[] unsorted = values.toArray(new Food[0]);
+            NameKey[] unsortedKeys = new NameKey[unsorted.length];
+            Integer[] order = new Integer[unsorted.length];
+            for (int i = 0; i < unsorted.length; i++) {
+                unsortedKeys[i] = NameKey.of(unsorted[i]);
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(i -> unsortedKeys[i]));
+
+            Food[] foods = new Food[unsorted.length];
+            NameKey[] keys = new NameKey[unsorted.length];
+            Map<Long, Food> byId = new HashMap<>(foods.length * 2);
+            Map<String, Food> byBarcode = new HashMap<>();
+            Map<Food.FoodCategory, List<Food>> byCategory = new EnumMap<>(Food.FoodCategory.class);
+
+            for (int i = 0; i < foods.length; i++) {
+                Food food = unsorted[order[i]];
+                foods[i] = food;
+                keys[i] = unsortedKeys[order[i]];
+                byId.put(food.getId(), food);
+                if (food.getBarcode() != null) {
+                    byBarcode.put(food.getBarcode(), food);
+                }
+                byCategory.computeIfAbsent(food.getCategory(), category -> new ArrayList<>()).add(food);
+            }
+            byCategory.replaceAll((category, list) -> Collections.unmodifiableList(list));
+
+            return new Snapshot(version, foods, keys, byId, byBarcode, byCategory);
+        }
+
+        /**
+         * Next version with one food replaced; {@code food} is null when it left the active catalog. Only the
+         * changed positions move: the sorted arrays are copied around them and just the affected category
+         * lists are rebuilt.
+         */
+        Snapshot apply(Long foodId, Food food) {
+            Food previous = byId.get(foodId);
+
+            Food[] newFoods = foods;
+            NameKey[] newKeys = keys;
+            if (previous != null) {
+                int position = Arrays.binarySearch(keys, NameKey.of(previous));
+                newFoods = remove(foods, position);
+                newKeys = remove(keys, position);
+            }
+            if (food != null) {
+                NameKey key = NameKey.of(food);
+                int position = -Arrays.binarySearch(newKeys, key) - 1;
+                newFoods = insert(newFoods, position, food);
+                newKeys = insert(newKeys, position, key);
+            }
+
+            Map<Long, Food> newById = new HashMap<>(byId);
+            Map<String, Food> newByBarcode = new HashMap<>(byBarcode);
+            if (previous != null) {
+                newById.remove(foodId);
+                if (previous.getBarcode() != null) {
+                    newByBarcode.remove(previous.getBarcode(), previous);
+                }
+            }
+            if (food != null) {
+                newById.put(foodId, food);
+                if (food.getBarcode() != null) {
+                    newByBarcode.put(food.getBarcode(), food);
+                }
+            }
+
+            Map<Food.FoodCategory, List<Food>> newByCategory = new EnumMap<>(byCategory);
+            if (previous != null) {
+                refreshCategory(newByCategory, newFoods, previous.getCategory());
+            }
+            if (food != null && (previous == null || food.getCategory() != previous.getCategory())) {
+                refreshCategory(newByCategory, newFoods, food.getCategory());
+            }
+
+            return new Snapshot(version + 1, newFoods, newKeys, Collections.unmodifiableMap(newById),
+                    Collections.unmodifiableMap(newByBarcode), Collections.unmodifiableMap(newByCategory));
+        }
+
+        private static void refreshCategory(Map<Food.FoodCategory, List<Food>> byCategory, Food[] foods,
+                                            Food.FoodCategory category) {
+            List<Food> list = new ArrayList<>();
+            for (Food food : foods) {
+                if (food.getCategory() == category) {
+                    list.add(food);
+                }
+            }
+            if (list.isEmpty()) {
+                byCategory.remove(category);
+            } else {
+                byCategory.put(category, Collections.unmodifiableList(list));
+            }
+        }
+
+        private static <T> T[] remove(T[] array, int position) {
+            T[] result = Arrays.copyOf(array, array.length - 1);
+            System.arraycopy(array, position + 1, result, position, array.length - position - 1);
+            return result;
+        }
+
+        private static <T> T[] insert(T[] array, int position, T value) {
+            T[] result = Arrays.copyOf(array, array.length + 1);
+            System.arraycopy(array, position, result, position + 1, array.length - position);
+            result[position] = value;
+            return result;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Active foods in name order.
+         */
+        public List<Food> getFoods() {
+            return Collections.unmodifiableList(Arrays.asList(foods));
+        }
+
+        /**
+         * Name keys of {@link #getFoods()}, in the same order.
+         */
+        public List<NameKey> getNameKeys() {
+            return Collections.unmodifiableList(Arrays.asList(keys));
+        }
+
+        public Food findById(Long id) {
+            return byId.get(id);
+        }
+
+        public Food findByBarcode(String barcode) {
+            return byBarcode.get(barcode);
+        }
+
+        /**
+         * Active foods of the category in name order.
+         */
+        public List<Food> findByCategory(Food.FoodCategory category) {
+            return byCategory.getOrDefault(category, Collections.emptyList());
+        }
+
+        public int size() {
+            return foods.length;
+        }
+    }
+}
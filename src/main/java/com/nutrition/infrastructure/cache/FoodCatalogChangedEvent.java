@@ -0,0 +1,18 @@
+package com.nutrition.infrastructure.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by {@link FoodCatalog} right after a new catalog version becomes current.
+ * Listeners run on the publishing thread, in version order.
+ */
+@Getter
+@RequiredArgsConstructor
+public class FoodCatalogChangedEvent {
+
+    private final FoodCatalog.Snapshot snapshot;
+
+    // Alimento que originou a versão, ou null numa recarga completa
+    private final Long changedFoodId;
+}
@@ -0,0 +1,146 @@
+package com.nutrition.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nutrition.application.dto.food.CachedFoodResponse;
+import com.nutrition.application.dto.food.FoodResponse;
+import com.nutrition.domain.entity.food.Food;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Pre-serialized JSON of each food's {@link FoodResponse}, so list endpoints copy cached bytes instead of
+ * mapping and serializing every food again.
+ * <p>
+ * Fragments are written with the application {@link ObjectMapper} (same naming as the API) and tied to the
+ * food's {@code updatedAt}: a changed food simply misses and is serialized again. Bounded LRU, like
+ * {@link BarcodeCache}: catalog changes drop the affected entries so deleted foods do not linger, and bump a
+ * generation so a fragment serialized before the change is not put back afterwards.
+ */
+@Component
+@Slf4j
+public class FoodJsonCache {
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+
+    // guarded by this
+    private final LinkedHashMap<Long, Entry> entries;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public FoodJsonCache(ObjectMapper objectMapper, @Value("${app.cache.json.max-entries:20000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > FoodJsonCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Fragment for the food's current version, built from {@code mapper} on a miss. Null when the food
+     * cannot be cached (no updatedAt yet, or serialization failed).
+     */
+    public CachedFoodResponse.Fragment get(Food food, Function<Food, FoodResponse> mapper) {
+        LocalDateTime version = food.getUpdatedAt();
+        if (food.getId() == null || version == null) {
+            return null;
+        }
+
+        Entry entry;
+        long loadGeneration;
+        synchronized (this) {
+            entry = entries.get(food.getId());
+            loadGeneration = generation;
+        }
+        if (entry != null && entry.version.equals(version)) {
+            hits.incrementAndGet();
+            return entry.fragment;
+        }
+        misses.incrementAndGet();
+
+        try {
+            FoodResponse response = mapper.apply(food);
+            response.setUserPreference(null);
+            CachedFoodResponse.Fragment fragment = CachedFoodResponse.Fragment.of(objectMapper.writeValueAsString(response));
+            if (fragment != null) {
+                put(food.getId(), new Entry(version, fragment), loadGeneration);
+            }
+            return fragment;
+        } catch (JsonProcessingException e) {
+            log.warn("Error serializing food {} for the JSON cache: {}", food.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Caches a fragment unless the catalog changed since {@code loadGeneration} was read.
+     */
+    private synchronized void put(Long foodId, Entry entry, long loadGeneration) {
+        if (loadGeneration == generation) {
+            entries.put(foodId, entry);
+        }
+    }
+
+    @EventListener
+    public synchronized void onCatalogChanged(FoodCatalogChangedEvent event) {
+        generation++;
+        if (event.getChangedFoodId() != null) {
+            entries.remove(event.getChangedFoodId());
+        } else {
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        long lookups = hits.get() + misses.get();
+        int size;
+        long bytes = 0;
+        synchronized (this) {
+            size = entries.size();
+            for (Entry entry : entries.values()) {
+                bytes += entry.fragment.length();
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", size);
+        stats.put("max_entries", maxEntries);
+        stats.put("bytes", bytes);
+        stats.put("evictions", evictions.get());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("hit_rate", lookups > 0 ? (double) hits.get() / lookups : 0.0);
+        return stats;
+    }
+
+    private static final class Entry {
+
+        private final LocalDateTime version;
+        private final CachedFoodResponse.Fragment fragment;
+
+        private Entry(LocalDateTime version, CachedFoodResponse.Fragment fragment) {
+            this.version = version;
+            this.fragment = fragment;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.nutrition.infrastructure.cache;
+
+import java.util.Arrays;
+
+/**
+ * Insertion-ordered map from long keys to byte values backed by primitive arrays: entries live in
+ * parallel key/value arrays and an open-addressing table points into them, so nothing is boxed.
+ * <p>
+ * Not thread-safe. Instances shared between threads must not be modified after they are published.
+ */
+public final class LongByteHashMap {
+
+    /**
+     * Returned by {@link #get(long)} for absent keys; not allowed as a value.
+     */
+    public static final byte NO_VALUE = -1;
+
+    private long[] keys;
+    private byte[] values;
+    private int size;
+
+    // posição da entrada + 1 nos arrays acima; 0 = vazio
+    private int[] table;
+
+    public LongByteHashMap() {
+        this(8);
+    }
+
+    public LongByteHashMap(int expectedSize) {
+        int capacity = Math.max(4, expectedSize);
+        this.keys = new long[capacity];
+        this.values = new byte[capacity];
+        this.table = new int[tableSizeFor(capacity)];
+    }
+
+    public byte get(long key) {
+        int slot = find(key);
+        return table[slot] == 0 ? NO_VALUE : values[table[slot] - 1];
+    }
+
+    public boolean containsKey(long key) {
+        return table[find(key)] != 0;
+    }
+
+    /**
+     * Sets the value for the key; a new key goes to the end of the iteration order.
+     */
+    public void put(long key, byte value) {
+        if (value == NO_VALUE) {
+            throw new IllegalArgumentException("Valor reservado: " + value);
+        }
+
+        int slot = find(key);
+        if (table[slot] != 0) {
+            values[table[slot] - 1] = value;
+            return;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        table[slot] = size;
+
+        // manter a ocupação da tabela em no máximo 50%
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Key of the i-th entry in insertion order.
+     */
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Value of the i-th entry in insertion order.
+     */
+    public byte valueAt(int index) {
+        return values[index];
+    }
+
+    public int count(byte value) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int find(long key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != 0 && keys[table[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int tableSize) {
+        table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int entries) {
+        return Integer.highestOneBit(entries * 2 - 1) << 1;
+    }
+}
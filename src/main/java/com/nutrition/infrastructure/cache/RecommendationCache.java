@@ -0,0 +1,109 @@
+package com.nutrition.infrastructure.cache;
+
+import com.nutrition.domain.event.UserNutritionChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of each user's ranked food recommendations.
+ * <p>
+ * An entry is valid for one day and one {@link FoodCatalog} version, and is dropped after commit when a
+ * {@link UserNutritionChangedEvent} arrives for its user. As in {@link BarcodeCache}, loads capture
+ * {@link #generation()} before reading the inputs, so a result computed from pre-commit data is not stored.
+ */
+@Component
+@Slf4j
+public class RecommendationCache {
+
+    private final int maxEntries;
+
+    // guarded by this
+    private final LinkedHashMap<Long, Entry> entries;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RecommendationCache(@Value("${app.cache.recommendations.max-users:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > RecommendationCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cached food ids for the user, or null when missing or computed for another day or catalog version.
+     */
+    public List<Long> get(Long userId, LocalDate date, long catalogVersion) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(userId);
+        }
+        if (entry == null || !entry.date.equals(date) || entry.catalogVersion != catalogVersion) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.foodIds;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void put(Long userId, LocalDate date, long catalogVersion, List<Long> foodIds, long loadGeneration) {
+        if (loadGeneration == generation) {
+            entries.put(userId, new Entry(date, catalogVersion, List.copyOf(foodIds)));
+        }
+    }
+
+    public synchronized void invalidate(Long userId) {
+        generation++;
+        entries.remove(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserNutritionChanged(UserNutritionChangedEvent event) {
+        invalidate(event.getUserId());
+        log.debug("Recommendation cache invalidated for user {}", event.getUserId());
+    }
+
+    public Map<String, Object> getStatistics() {
+        long lookups = hits.get() + misses.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("max_entries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("hit_rate", lookups > 0 ? (double) hits.get() / lookups : 0.0);
+        return stats;
+    }
+
+    private static final class Entry {
+
+        private final LocalDate date;
+        private final long catalogVersion;
+        private final List<Long> foodIds;
+
+        private Entry(LocalDate date, long catalogVersion, List<Long> foodIds) {
+            this.date = date;
+            this.catalogVersion = catalogVersion;
+            this.foodIds = foodIds;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nutrition.infrastructure.cache;
+
+import com.nutrition.domain.event.FoodPreferenceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ETag construction, plus in-memory version counters for per-user state that only lives in this process.
+ * <p>
+ * Tags of database-backed resources (profile, meal list, food updatedAt) are built from persisted state, so
+ * a write made through any node changes them. The counters here only version in-process caches - the food preferences of
+ * {@link UserPreferenceCache}, like the {@link FoodCatalog} version - and are as single-node as those caches:
+ * with several nodes, a change made on one is not seen by the caches nor the counters of the others.
+ * <p>
+ * Counters are striped by user id: a change bumps the stripe of its user, which at worst also invalidates
+ * the tags of the other users sharing that stripe. Every tag includes an epoch taken at startup, since
+ * counters (and the catalog version) start over when the process restarts.
+ */
+@Component
+@Slf4j
+public class ResourceVersions {
+
+    public enum Resource {
+        FOOD_PREFERENCES
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int stripes;
+    private final Map<Resource, AtomicLongArray> versions = new EnumMap<>(Resource.class);
+
+    public ResourceVersions(@Value("${app.cache.etag.stripes:65536}") int stripes) {
+        this.stripes = stripes;
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLongArray(stripes));
+        }
+    }
+
+    public long version(Resource resource, Long userId) {
+        return userId != null ? versions.get(resource).get(stripe(userId)) : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodPreferenceChanged(FoodPreferenceChangedEvent event) {
+        bump(Resource.FOOD_PREFERENCES, event.getUserId());
+    }
+
+    /**
+     * Strong ETag (quoted) built from the process epoch and the given parts.
+     */
+    public String tag(Object... parts) {
+        StringBuilder tag = new StringBuilder(64).append('"').append(epoch);
+        for (Object part : parts) {
+            tag.append('-').append(part);
+        }
+        return tag.append('"').toString();
+    }
+
+    private void bump(Resource resource, Long userId) {
+        versions.get(resource).incrementAndGet(stripe(userId));
+        log.debug("{} version bumped for user {}", resource, userId);
+    }
+
+    private int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) stripes);
+    }
+}
@@ -0,0 +1,155 @@
+package com.nutrition.infrastructure.cache;
+
+import com.nutrition.domain.entity.food.UserFoodPreference;
+import com.nutrition.domain.event.FoodPreferenceChangedEvent;
+import com.nutrition.infrastructure.repository.UserFoodPreferenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of each user's food preferences, loaded with a single query on first use.
+ * <p>
+ * Entries are dropped after commit when a {@link FoodPreferenceChangedEvent} arrives for their user. As in
+ * {@link BarcodeCache}, a load that started before the commit is not stored.
+ */
+@Component
+@Slf4j
+public class UserPreferenceCache {
+
+    private final UserFoodPreferenceRepository preferenceRepository;
+    private final int maxEntries;
+
+    // guarded by this
+    private final LinkedHashMap<Long, FoodPreferences> entries;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UserPreferenceCache(UserFoodPreferenceRepository preferenceRepository,
+                               @Value("${app.cache.preferences.max-users:10000}") int maxEntries) {
+        this.preferenceRepository = preferenceRepository;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FoodPreferences> eldest) {
+                return size() > UserPreferenceCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The user's preferences, loading them from the database when not cached.
+     */
+    public FoodPreferences get(Long userId) {
+        long loadGeneration;
+        synchronized (this) {
+            FoodPreferences cached = entries.get(userId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+
+        List<Object[]> rows = preferenceRepository.findFoodPreferencesByUserId(userId);
+        LongByteHashMap preferences = new LongByteHashMap(rows.size());
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                preferences.put((Long) row[0], (byte) ((UserFoodPreference.PreferenceType) row[1]).ordinal());
+            }
+        }
+        FoodPreferences loaded = new FoodPreferences(preferences);
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(Long userId) {
+        generation++;
+        entries.remove(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodPreferenceChanged(FoodPreferenceChangedEvent event) {
+        invalidate(event.getUserId());
+        log.debug("Preference cache invalidated for user {}", event.getUserId());
+    }
+
+    public Map<String, Object> getStatistics() {
+        long lookups = hits.get() + misses.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("max_entries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("hit_rate", lookups > 0 ? (double) hits.get() / lookups : 0.0);
+        return stats;
+    }
+
+    /**
+     * Read-only view of one user's preferences, most recently created first.
+     */
+    public static final class FoodPreferences {
+
+        private static final UserFoodPreference.PreferenceType[] TYPES = UserFoodPreference.PreferenceType.values();
+
+        private final LongByteHashMap preferences;
+
+        private FoodPreferences(LongByteHashMap preferences) {
+            this.preferences = preferences;
+        }
+
+        /**
+         * Preference for the food, or null when the user has none.
+         */
+        public UserFoodPreference.PreferenceType get(Long foodId) {
+            byte value = preferences.get(foodId);
+            return value == LongByteHashMap.NO_VALUE ? null : TYPES[value];
+        }
+
+        public int size() {
+            return preferences.size();
+        }
+
+        public int count(UserFoodPreference.PreferenceType type) {
+            return preferences.count((byte) type.ordinal());
+        }
+
+        public List<Long> foodIds() {
+            List<Long> ids = new ArrayList<>(preferences.size());
+            for (int i = 0; i < preferences.size(); i++) {
+                ids.add(preferences.keyAt(i));
+            }
+            return ids;
+        }
+
+        public List<Long> foodIds(UserFoodPreference.PreferenceType type) {
+            byte value = (byte) type.ordinal();
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < preferences.size(); i++) {
+                if (preferences.valueAt(i) == value) {
+                    ids.add(preferences.keyAt(i));
+                }
+            }
+            return ids;
+        }
+    }
+}
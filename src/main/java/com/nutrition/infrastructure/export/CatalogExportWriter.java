@@ -0,0 +1,163 @@
+package com.nutrition.infrastructure.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.nutrition.application.dto.food.ExportFormat;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes catalog rows straight from the JDBC cursor to the response stream, one row at a time.
+ * No entity or DTO is built, so memory use does not grow with the catalog.
+ */
+public abstract class CatalogExportWriter implements RowCallbackHandler {
+
+    protected final List<String> columns;
+    private long rows;
+
+    protected CatalogExportWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public static CatalogExportWriter create(ExportFormat format, List<String> columns,
+                                             OutputStream output, JsonFactory jsonFactory) throws IOException {
+        return format == ExportFormat.CSV
+                ? new CsvWriter(columns, output)
+                : new NdjsonWriter(columns, output, jsonFactory);
+    }
+
+    @Override
+    public final void processRow(ResultSet rs) throws SQLException {
+        try {
+            writeRow(rs);
+            rows++;
+        } catch (IOException e) {
+            // cliente desconectado: interromper a leitura do cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Flushes buffered output; the caller owns and closes the underlying stream.
+     */
+    public abstract void finish() throws IOException;
+
+    protected abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+    private static final class NdjsonWriter extends CatalogExportWriter {
+
+        private final JsonGenerator generator;
+        private final SerializedString[] fieldNames;
+
+        private NdjsonWriter(List<String> columns, OutputStream output, JsonFactory jsonFactory) throws IOException {
+            super(columns);
+            this.generator = jsonFactory.createGenerator(output);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+
+            this.fieldNames = new SerializedString[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                fieldNames[i] = new SerializedString(columns.get(i));
+            }
+        }
+
+        @Override
+        protected void writeRow(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < fieldNames.length; i++) {
+                generator.writeFieldName(fieldNames[i]);
+
+                Object value = rs.getObject(i + 1);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (getRows() > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter extends CatalogExportWriter {
+
+        private final Writer writer;
+
+        private CsvWriter(List<String> columns, OutputStream output) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 16 * 1024);
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        @Override
+        protected void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i + 1);
+                if (value instanceof Timestamp timestamp) {
+                    writer.write(timestamp.toLocalDateTime().toString());
+                } else if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (value != null) {
+                    writeText(value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeText(String text) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < text.length() && !quote; i++) {
+                char c = text.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.nutrition.infrastructure.importer;
+
+/**
+ * Food attributes that can be read from an import file, named after the {@code CreateFoodRequest} properties.
+ */
+public enum FoodImportField {
+    NAME("name"),
+    DESCRIPTION("description"),
+    BRAND("brand"),
+    CATEGORY("category"),
+    BARCODE("barcode"),
+    CALORIES("caloriesPer100g"),
+    CARBS("carbsPer100g"),
+    PROTEIN("proteinPer100g"),
+    FAT("fatPer100g"),
+    FIBER("fiberPer100g"),
+    SUGAR("sugarPer100g"),
+    SODIUM("sodiumPer100g"),
+    SATURATED_FAT("saturatedFatPer100g"),
+    SERVING_SIZE("servingSize"),
+    SERVING_DESCRIPTION("servingDescription"),
+    SOURCE("source");
+
+    private final String propertyName;
+
+    FoodImportField(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+}
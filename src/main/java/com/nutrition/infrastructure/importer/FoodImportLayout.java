@@ -0,0 +1,168 @@
+package com.nutrition.infrastructure.importer;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.infrastructure.search.TextNormalizer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Column layouts accepted by the bulk food import. Each layout maps source headers (compared
+ * case, accent and punctuation insensitive) to {@link FoodImportField}s.
+ */
+public enum FoodImportLayout {
+
+    /**
+     * Field names of {@code CreateFoodRequest}, in camelCase or snake_case.
+     */
+    NATIVE("Manual"),
+
+    /**
+     * Tabela Brasileira de Composição de Alimentos (TACO/NEPA-Unicamp) spreadsheet export.
+     */
+    TACO("TACO"),
+
+    /**
+     * USDA FoodData Central / SR Legacy CSV and JSON exports.
+     */
+    USDA("USDA");
+
+    private static final Map<String, Food.FoodCategory> CATEGORY_KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        // avaliadas em ordem; a primeira palavra-chave contida na categoria de origem vence
+        CATEGORY_KEYWORDS.put("cereal", Food.FoodCategory.CEREALS_GRAINS);
+        CATEGORY_KEYWORDS.put("grain", Food.FoodCategory.CEREALS_GRAINS);
+        CATEGORY_KEYWORDS.put("verdura", Food.FoodCategory.VEGETABLES);
+        CATEGORY_KEYWORDS.put("hortali", Food.FoodCategory.VEGETABLES);
+        CATEGORY_KEYWORDS.put("legum", Food.FoodCategory.VEGETABLES);
+        CATEGORY_KEYWORDS.put("vegetable", Food.FoodCategory.VEGETABLES);
+        CATEGORY_KEYWORDS.put("fruta", Food.FoodCategory.FRUITS);
+        CATEGORY_KEYWORDS.put("fruit", Food.FoodCategory.FRUITS);
+        CATEGORY_KEYWORDS.put("leite", Food.FoodCategory.DAIRY);
+        CATEGORY_KEYWORDS.put("dairy", Food.FoodCategory.DAIRY);
+        CATEGORY_KEYWORDS.put("carne", Food.FoodCategory.PROTEINS);
+        CATEGORY_KEYWORDS.put("pescado", Food.FoodCategory.PROTEINS);
+        CATEGORY_KEYWORDS.put("ovos", Food.FoodCategory.PROTEINS);
+        CATEGORY_KEYWORDS.put("meat", Food.FoodCategory.PROTEINS);
+        CATEGORY_KEYWORDS.put("poultry", Food.FoodCategory.PROTEINS);
+        CATEGORY_KEYWORDS.put("fish", Food.FoodCategory.PROTEINS);
+        CATEGORY_KEYWORDS.put("egg", Food.FoodCategory.PROTEINS);
+        CATEGORY_KEYWORDS.put("gordura", Food.FoodCategory.FATS_OILS);
+        CATEGORY_KEYWORDS.put("oleo", Food.FoodCategory.FATS_OILS);
+        CATEGORY_KEYWORDS.put("fats", Food.FoodCategory.FATS_OILS);
+        CATEGORY_KEYWORDS.put("bebida", Food.FoodCategory.BEVERAGES);
+        CATEGORY_KEYWORDS.put("beverage", Food.FoodCategory.BEVERAGES);
+        CATEGORY_KEYWORDS.put("acucar", Food.FoodCategory.SWEETS_DESSERTS);
+        CATEGORY_KEYWORDS.put("doce", Food.FoodCategory.SWEETS_DESSERTS);
+        CATEGORY_KEYWORDS.put("sweet", Food.FoodCategory.SWEETS_DESSERTS);
+        CATEGORY_KEYWORDS.put("snack", Food.FoodCategory.SNACKS);
+        CATEGORY_KEYWORDS.put("tempero", Food.FoodCategory.CONDIMENTS_SPICES);
+        CATEGORY_KEYWORDS.put("condiment", Food.FoodCategory.CONDIMENTS_SPICES);
+        CATEGORY_KEYWORDS.put("spice", Food.FoodCategory.CONDIMENTS_SPICES);
+        CATEGORY_KEYWORDS.put("preparad", Food.FoodCategory.PREPARED_FOODS);
+        CATEGORY_KEYWORDS.put("prepared", Food.FoodCategory.PREPARED_FOODS);
+        CATEGORY_KEYWORDS.put("nozes", Food.FoodCategory.NUTS_SEEDS);
+        CATEGORY_KEYWORDS.put("semente", Food.FoodCategory.NUTS_SEEDS);
+        CATEGORY_KEYWORDS.put("nut", Food.FoodCategory.NUTS_SEEDS);
+        CATEGORY_KEYWORDS.put("seed", Food.FoodCategory.NUTS_SEEDS);
+    }
+
+    private final String source;
+    private final Map<String, FoodImportField> columns = new HashMap<>();
+
+    FoodImportLayout(String source) {
+        this.source = source;
+    }
+
+    static {
+        for (FoodImportField field : FoodImportField.values()) {
+            NATIVE.map(field, field.getPropertyName());
+        }
+        NATIVE.map(FoodImportField.CALORIES, "calories");
+        NATIVE.map(FoodImportField.CARBS, "carbs");
+        NATIVE.map(FoodImportField.PROTEIN, "protein");
+        NATIVE.map(FoodImportField.FAT, "fat");
+
+        TACO.map(FoodImportField.NAME, "Descrição dos alimentos", "Alimento", "Descrição");
+        TACO.map(FoodImportField.CATEGORY, "Categoria", "Grupo");
+        TACO.map(FoodImportField.CALORIES, "Energia (kcal)", "Energia kcal", "kcal");
+        TACO.map(FoodImportField.PROTEIN, "Proteína (g)", "Proteína");
+        TACO.map(FoodImportField.FAT, "Lipídeos (g)", "Lipídeos", "Lipídios (g)");
+        TACO.map(FoodImportField.CARBS, "Carboidrato (g)", "Carboidrato", "Carboidratos (g)");
+        TACO.map(FoodImportField.FIBER, "Fibra Alimentar (g)", "Fibra alimentar");
+        TACO.map(FoodImportField.SODIUM, "Sódio (mg)", "Sódio");
+        TACO.map(FoodImportField.SATURATED_FAT, "Saturados (g)", "Ácidos graxos saturados (g)");
+
+        USDA.map(FoodImportField.NAME, "description", "Shrt_Desc", "Long_Desc", "food_description");
+        USDA.map(FoodImportField.BRAND, "brand_owner", "brand_name");
+        USDA.map(FoodImportField.CATEGORY, "food_category", "branded_food_category", "FdGrp_Desc");
+        USDA.map(FoodImportField.BARCODE, "gtin_upc", "upc");
+        USDA.map(FoodImportField.CALORIES, "Energy (kcal)", "Energ_Kcal", "energy_kcal", "Energy");
+        USDA.map(FoodImportField.PROTEIN, "Protein (g)", "Protein_(g)", "Protein");
+        USDA.map(FoodImportField.FAT, "Total lipid (fat) (g)", "Lipid_Tot_(g)", "Total lipid (fat)");
+        USDA.map(FoodImportField.CARBS, "Carbohydrate, by difference (g)", "Carbohydrt_(g)", "Carbohydrate, by difference");
+        USDA.map(FoodImportField.FIBER, "Fiber, total dietary (g)", "Fiber_TD_(g)", "Fiber, total dietary");
+        USDA.map(FoodImportField.SUGAR, "Sugars, total including NLEA (g)", "Sugar_Tot_(g)", "Sugars, total");
+        USDA.map(FoodImportField.SODIUM, "Sodium, Na (mg)", "Sodium_(mg)", "Sodium, Na");
+        USDA.map(FoodImportField.SATURATED_FAT, "Fatty acids, total saturated (g)", "FA_Sat_(g)", "Fatty acids, total saturated");
+        USDA.map(FoodImportField.SERVING_SIZE, "serving_size", "GmWt_1");
+        USDA.map(FoodImportField.SERVING_DESCRIPTION, "household_serving_fulltext", "GmWt_Desc1");
+    }
+
+    private void map(FoodImportField field, String... headers) {
+        for (String header : headers) {
+            columns.put(normalizeHeader(header), field);
+        }
+    }
+
+    /**
+     * Source recorded on imported foods when the file does not provide one.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Field for a source column, or null when the column is not imported.
+     */
+    public FoodImportField resolve(String header) {
+        return header != null ? columns.get(normalizeHeader(header)) : null;
+    }
+
+    /**
+     * Maps a source category to a {@link Food.FoodCategory}: enum name, display name, then keywords
+     * of the TACO and USDA groups. Unknown or blank categories fall back to {@code fallback}.
+     */
+    public static Food.FoodCategory resolveCategory(String category, Food.FoodCategory fallback) {
+        String normalized = TextNormalizer.normalizeTerm(category);
+        if (normalized == null) {
+            return fallback;
+        }
+        for (Food.FoodCategory candidate : Food.FoodCategory.values()) {
+            if (candidate.name().equalsIgnoreCase(normalized)
+                    || TextNormalizer.normalize(candidate.getDisplayName()).equals(normalized)) {
+                return candidate;
+            }
+        }
+        for (Map.Entry<String, Food.FoodCategory> keyword : CATEGORY_KEYWORDS.entrySet()) {
+            if (normalized.contains(keyword.getKey())) {
+                return keyword.getValue();
+            }
+        }
+        return fallback;
+    }
+
+    private static String normalizeHeader(String header) {
+        String normalized = TextNormalizer.normalize(header.trim());
+        StringBuilder key = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+}
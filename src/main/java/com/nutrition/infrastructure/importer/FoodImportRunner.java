@@ -0,0 +1,57 @@
+package com.nutrition.infrastructure.importer;
+
+import com.nutrition.application.dto.food.FoodImportResponse;
+import com.nutrition.application.service.FoodImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command line entry point for the bulk food import, e.g.
+ * {@code java -jar app.jar --import-foods=/data/taco.csv --import-layout=TACO}.
+ * Optional: {@code --import-format=CSV|JSON} and {@code --import-default-category=OTHER}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FoodImportRunner implements ApplicationRunner {
+
+    private static final String FILE_OPTION = "import-foods";
+
+    private final FoodImportService foodImportService;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(FILE_OPTION)) {
+            return;
+        }
+
+        Path file = Paths.get(option(args, FILE_OPTION));
+        if (!Files.isRegularFile(file)) {
+            log.error("Food import file not found: {}", file);
+            return;
+        }
+
+        String category = option(args, "import-default-category");
+        FoodImportResponse response = foodImportService.importFile(
+                file,
+                FoodImportService.parseFormat(option(args, "import-format"), file),
+                FoodImportService.parseLayout(option(args, "import-layout")),
+                category != null ? FoodImportService.parseFoodCategory(category) : null,
+                null);
+
+        response.getErrors().forEach(error -> log.warn("Food import: {}", error));
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+}
@@ -0,0 +1,270 @@
+package com.nutrition.infrastructure.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams records from an import file one at a time, keyed by {@link FoodImportField}.
+ * Columns the layout does not know are dropped, so memory use does not depend on the file size.
+ */
+public abstract class FoodRecordReader implements Closeable {
+
+    protected final FoodImportLayout layout;
+    protected long recordNumber;
+
+    protected FoodRecordReader(FoodImportLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Reads a CSV file with a header row. The delimiter (comma, semicolon or tab) is taken from the header.
+     */
+    public static FoodRecordReader csv(Reader reader, FoodImportLayout layout) throws IOException {
+        return new CsvReader(reader, layout);
+    }
+
+    /**
+     * Reads a JSON array of objects, or a single top-level object wrapping such an array
+     * (e.g. {@code {"FoundationFoods": [...]}}).
+     */
+    public static FoodRecordReader json(JsonParser parser, FoodImportLayout layout) throws IOException {
+        return new JsonReader(parser, layout);
+    }
+
+    /**
+     * Next record, or null at the end of the file.
+     */
+    public abstract Map<FoodImportField, String> next() throws IOException;
+
+    /**
+     * 1-based position of the last record returned, for error messages.
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    private static final class CsvReader extends FoodRecordReader {
+
+        private final Reader reader;
+        private final char delimiter;
+        private final FoodImportField[] fields;
+        private final List<String> values = new ArrayList<>();
+        private final StringBuilder value = new StringBuilder();
+        private int pending = -2;
+
+        private CsvReader(Reader reader, FoodImportLayout layout) throws IOException {
+            super(layout);
+            this.reader = reader;
+
+            String header = readHeaderLine();
+            this.delimiter = detectDelimiter(header);
+
+            List<String> headers = split(header);
+            this.fields = new FoodImportField[headers.size()];
+            for (int i = 0; i < headers.size(); i++) {
+                fields[i] = layout.resolve(headers.get(i));
+            }
+        }
+
+        @Override
+        public Map<FoodImportField, String> next() throws IOException {
+            while (readRow()) {
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue; // linha em branco
+                }
+                recordNumber++;
+
+                Map<FoodImportField, String> record = new EnumMap<>(FoodImportField.class);
+                for (int i = 0; i < values.size() && i < fields.length; i++) {
+                    if (fields[i] != null && !values.get(i).isBlank()) {
+                        record.put(fields[i], values.get(i).trim());
+                    }
+                }
+                return record;
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        private String readHeaderLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c = reader.read();
+            if (c == '\uFEFF') {
+                c = reader.read(); // BOM
+            }
+            while (c != -1 && c != '\n') {
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+                c = reader.read();
+            }
+            if (line.length() == 0) {
+                throw new IllegalArgumentException("Arquivo de importação sem cabeçalho");
+            }
+            return line.toString();
+        }
+
+        private static char detectDelimiter(String header) {
+            int commas = 0;
+            int semicolons = 0;
+            int tabs = 0;
+            for (int i = 0; i < header.length(); i++) {
+                switch (header.charAt(i)) {
+                    case ',' -> commas++;
+                    case ';' -> semicolons++;
+                    case '\t' -> tabs++;
+                    default -> {
+                    }
+                }
+            }
+            if (tabs > commas && tabs > semicolons) {
+                return '\t';
+            }
+            return semicolons > commas ? ';' : ',';
+        }
+
+        private List<String> split(String line) {
+            List<String> result = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    result.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            result.add(current.toString());
+            return result;
+        }
+
+        /**
+         * Reads one row into {@link #values}, honouring quoted fields that contain delimiters,
+         * escaped quotes ({@code ""}) or line breaks. Returns false at the end of the input.
+         */
+        private boolean readRow() throws IOException {
+            values.clear();
+            value.setLength(0);
+
+            int c = pending != -2 ? pending : reader.read();
+            pending = -2;
+            if (c == -1) {
+                return false;
+            }
+
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next == '"') {
+                            value.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        value.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int next = reader.read();
+                        if (next != '\n') {
+                            pending = next;
+                        }
+                    }
+                    break;
+                } else {
+                    value.append((char) c);
+                }
+                c = reader.read();
+            }
+            values.add(value.toString());
+            return true;
+        }
+    }
+
+    private static final class JsonReader extends FoodRecordReader {
+
+        private final JsonParser parser;
+
+        private JsonReader(JsonParser parser, FoodImportLayout layout) throws IOException {
+            super(layout);
+            this.parser = parser;
+
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                // objeto envolvendo a lista: avançar até o primeiro array
+                while (token != null && token != JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Arquivo JSON deve conter uma lista de alimentos");
+            }
+        }
+
+        @Override
+        public Map<FoodImportField, String> next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Registro " + (recordNumber + 1) + " não é um objeto JSON");
+            }
+            recordNumber++;
+
+            Map<FoodImportField, String> record = new EnumMap<>(FoodImportField.class);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                FoodImportField field = layout.resolve(parser.getCurrentName());
+                JsonToken valueToken = parser.nextToken();
+                if (field != null && valueToken.isScalarValue() && valueToken != JsonToken.VALUE_NULL) {
+                    String text = parser.getText();
+                    if (!text.isBlank()) {
+                        record.put(field, text.trim());
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nutrition.infrastructure.pagination;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination ordered by {@code (name, id)}.
+ * <p>
+ * The token is the URL-safe Base64 of {@code "<id>:<name>"} for the last row of the previous page.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class NameCursor {
+
+    private final String name;
+    private final Long id;
+
+    public String encode() {
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}; returns null for a blank token (first page).
+     */
+    public static NameCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new NameCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException também é IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
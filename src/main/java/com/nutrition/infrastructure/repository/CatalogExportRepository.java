@@ -0,0 +1,64 @@
+package com.nutrition.infrastructure.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Row-by-row reads of the active catalogs for the streaming export.
+ * <p>
+ * The PostgreSQL driver only uses a server-side cursor when a fetch size is set and auto-commit is off,
+ * hence the read-only transaction: rows arrive {@code fetchSize} at a time instead of the whole table
+ * being buffered in the driver.
+ */
+@Repository
+public class CatalogExportRepository {
+
+    public static final List<String> FOOD_COLUMNS = List.of(
+            "id", "name", "description", "brand", "category", "barcode",
+            "calories_per_100g", "carbs_per_100g", "protein_per_100g", "fat_per_100g",
+            "fiber_per_100g", "sugar_per_100g", "sodium_per_100g", "saturated_fat_per_100g",
+            "serving_size", "serving_description", "serving_unit", "source", "updated_at");
+
+    public static final List<String> SUPPLEMENT_COLUMNS = List.of(
+            "id", "name", "description", "brand", "category", "form",
+            "serving_size", "serving_unit", "servings_per_container",
+            "calories_per_serving", "carbs_per_serving", "protein_per_serving", "fat_per_serving",
+            "main_ingredient", "ingredient_amount", "ingredient_unit",
+            "recommended_dosage", "usage_instructions", "warnings", "regulatory_info", "updated_at");
+
+    private static final String FOODS_SQL =
+            "SELECT " + String.join(", ", FOOD_COLUMNS) + " FROM foods WHERE active = true ORDER BY id";
+
+    private static final String SUPPLEMENTS_SQL =
+            "SELECT " + String.join(", ", SUPPLEMENT_COLUMNS) + " FROM supplements WHERE active = true ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogExportRepository(DataSource dataSource,
+                                   @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Feeds every active food, in id order, to the handler; columns follow {@link #FOOD_COLUMNS}.
+     */
+    @Transactional(readOnly = true)
+    public void streamActiveFoods(RowCallbackHandler handler) {
+        jdbcTemplate.query(FOODS_SQL, handler);
+    }
+
+    /**
+     * Feeds every active supplement, in id order, to the handler; columns follow {@link #SUPPLEMENT_COLUMNS}.
+     */
+    @Transactional(readOnly = true)
+    public void streamActiveSupplements(RowCallbackHandler handler) {
+        jdbcTemplate.query(SUPPLEMENTS_SQL, handler);
+    }
+}
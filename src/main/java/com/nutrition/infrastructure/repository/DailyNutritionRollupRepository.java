@@ -0,0 +1,120 @@
+package com.nutrition.infrastructure.repository;
+
+import com.nutrition.domain.entity.tracking.DailyNutritionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyNutritionRollupRepository extends JpaRepository<DailyNutritionRollup, Long> {
+
+    List<DailyNutritionRollup> findByUserIdAndDateBetweenOrderByDateDesc(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Per-period aggregates of the user's days between the dates, oldest period first: period start,
+     * logged days, meals, the sums and per-day averages of calories, carbs, protein, fat, fiber and
+     * sodium, and the days whose calories fall between the bounds.
+     */
+    @Query(value = "SELECT CAST(date_trunc(:unit, CAST(r.date AS TIMESTAMP)) AS DATE) AS period_start, " +
+            "COUNT(*), COALESCE(SUM(r.meals_count), 0), " +
+            "SUM(r.total_calories), SUM(r.total_carbs), SUM(r.total_protein), " +
+            "SUM(r.total_fat), SUM(r.total_fiber), SUM(r.total_sodium), " +
+            "ROUND(AVG(r.total_calories), 2), ROUND(AVG(r.total_carbs), 2), ROUND(AVG(r.total_protein), 2), " +
+            "ROUND(AVG(r.total_fat), 2), ROUND(AVG(r.total_fiber), 2), ROUND(AVG(r.total_sodium), 2), " +
+            "COUNT(*) FILTER (WHERE r.total_calories BETWEEN :minCalories AND :maxCalories) " +
+            "FROM daily_nutrition_rollups r " +
+            "WHERE r.user_id = :userId AND r.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY 1 ORDER BY 1",
+            nativeQuery = true)
+    List<Object[]> aggregateByPeriod(@Param("userId") Long userId,
+                                     @Param("unit") String unit,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate,
+                                     @Param("minCalories") BigDecimal minCalories,
+                                     @Param("maxCalories") BigDecimal maxCalories);
+
+    // Totais do dia recalculados a partir dos consumos e dos totais persistidos das refeições
+    String DAY_TOTALS = "SELECT mc.user_id, mc.consumption_date, " +
+            "COALESCE(SUM(m.total_calories), 0), COALESCE(SUM(m.total_carbs), 0), " +
+            "COALESCE(SUM(m.total_protein), 0), COALESCE(SUM(m.total_fat), 0), " +
+            "COALESCE(SUM(m.total_fiber), 0), COALESCE(SUM(m.total_sodium), 0), " +
+            "COALESCE(SUM(m.total_sugar), 0), COALESCE(SUM(m.total_saturated_fat), 0), " +
+            "COUNT(*), CURRENT_TIMESTAMP " +
+            "FROM meal_consumptions mc JOIN meals m ON m.id = mc.meal_id ";
+
+    String UPSERT = "INSERT INTO daily_nutrition_rollups (user_id, date, total_calories, total_carbs, " +
+            "total_protein, total_fat, total_fiber, total_sodium, total_sugar, total_saturated_fat, " +
+            "meals_count, updated_at) ";
+
+    String ON_CONFLICT = " GROUP BY mc.user_id, mc.consumption_date " +
+            "ON CONFLICT (user_id, date) DO UPDATE SET " +
+            "total_calories = EXCLUDED.total_calories, total_carbs = EXCLUDED.total_carbs, " +
+            "total_protein = EXCLUDED.total_protein, total_fat = EXCLUDED.total_fat, " +
+            "total_fiber = EXCLUDED.total_fiber, total_sodium = EXCLUDED.total_sodium, " +
+            "total_sugar = EXCLUDED.total_sugar, total_saturated_fat = EXCLUDED.total_saturated_fat, " +
+            "meals_count = EXCLUDED.meals_count, updated_at = EXCLUDED.updated_at";
+
+    /**
+     * Locks the user's row until the transaction ends, so refreshes of the same user run one at a time and
+     * each one recomputes from the consumptions committed by the previous one. NO KEY UPDATE does not
+     * block the foreign key checks of inserts that reference the user.
+     */
+    @Query(value = "SELECT u.id FROM users u WHERE u.id = :userId FOR NO KEY UPDATE", nativeQuery = true)
+    Long lockUser(@Param("userId") Long userId);
+
+    /**
+     * Same lock for every user who consumed a meal containing the food, taken in id order.
+     */
+    @Query(value = "SELECT u.id FROM users u WHERE u.id IN (" +
+            "SELECT c.user_id FROM meal_consumptions c " +
+            "JOIN meal_foods mf ON mf.meal_id = c.meal_id WHERE mf.food_id = :foodId) " +
+            "ORDER BY u.id FOR NO KEY UPDATE",
+            nativeQuery = true)
+    List<Long> lockUsersWithFood(@Param("foodId") Long foodId);
+
+    /**
+     * Recomputes the user's rows for the given days that still have consumptions.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT + DAY_TOTALS +
+            "WHERE mc.user_id = :userId AND mc.consumption_date IN (:dates)" + ON_CONFLICT,
+            nativeQuery = true)
+    int upsertDays(@Param("userId") Long userId, @Param("dates") Collection<LocalDate> dates);
+
+    /**
+     * Removes the user's rows for the given days that no longer have consumptions.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM daily_nutrition_rollups r " +
+            "WHERE r.user_id = :userId AND r.date IN (:dates) " +
+            "AND NOT EXISTS (SELECT 1 FROM meal_consumptions mc " +
+            "WHERE mc.user_id = r.user_id AND mc.consumption_date = r.date)",
+            nativeQuery = true)
+    int deleteEmptyDays(@Param("userId") Long userId, @Param("dates") Collection<LocalDate> dates);
+
+    /**
+     * Recomputes every day, of every user, on which a meal containing the food was consumed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT + DAY_TOTALS +
+            "WHERE (mc.user_id, mc.consumption_date) IN (" +
+            "SELECT c.user_id, c.consumption_date FROM meal_consumptions c " +
+            "JOIN meal_foods mf ON mf.meal_id = c.meal_id WHERE mf.food_id = :foodId)" + ON_CONFLICT,
+            nativeQuery = true)
+    int upsertDaysForFood(@Param("foodId") Long foodId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM daily_nutrition_rollups", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT + DAY_TOTALS + ON_CONFLICT, nativeQuery = true)
+    int insertAllDays();
+}
@@ -0,0 +1,85 @@
+package com.nutrition.infrastructure.repository;
+
+import com.nutrition.domain.entity.food.Food;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Multi-row inserts for the bulk food import, bypassing the persistence context.
+ * <p>
+ * IDENTITY keys stop Hibernate from batching {@code save()} calls, so each row would be a round trip.
+ * Here a whole chunk goes in one {@code INSERT ... VALUES (...), (...)} statement; rows hitting
+ * {@code uk_foods_barcode} or {@code uk_foods_name} are skipped by {@code ON CONFLICT DO NOTHING}
+ * and the update count is exactly the number of rows inserted.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FoodBulkInsertRepository {
+
+    private static final String INSERT_PREFIX = """
+            INSERT INTO foods (name, description, brand, category, barcode,
+                               calories_per_100g, carbs_per_100g, protein_per_100g, fat_per_100g,
+                               fiber_per_100g, sugar_per_100g, sodium_per_100g, saturated_fat_per_100g,
+                               serving_size, serving_description, source, created_by_user_id, active,
+                               updated_at)
+            VALUES
+            """;
+
+    // updated_at preenchido na inserção: é a versão usada pelo ETag e pelo cache de JSON dos alimentos
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, CURRENT_TIMESTAMP)";
+    private static final int COLUMNS = 17;
+
+    // PostgreSQL aceita no máximo 32767 parâmetros por comando
+    public static final int MAX_ROWS_PER_STATEMENT = 32767 / COLUMNS;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the foods (at most {@link #MAX_ROWS_PER_STATEMENT}) and returns how many were new.
+     */
+    public int insertIgnoringConflicts(List<Food> foods, Long createdByUserId) {
+        if (foods.isEmpty()) {
+            return 0;
+        }
+        if (foods.size() > MAX_ROWS_PER_STATEMENT) {
+            throw new IllegalArgumentException("Lote de importação maior que " + MAX_ROWS_PER_STATEMENT + " registros");
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + foods.size() * (ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[foods.size() * COLUMNS];
+
+        int arg = 0;
+        for (int i = 0; i < foods.size(); i++) {
+            if (i > 0) {
+                sql.append(",\n");
+            }
+            sql.append(ROW);
+
+            Food food = foods.get(i);
+            args[arg++] = food.getName();
+            args[arg++] = food.getDescription();
+            args[arg++] = food.getBrand();
+            args[arg++] = food.getCategory().name();
+            args[arg++] = food.getBarcode();
+            args[arg++] = food.getCaloriesPer100g();
+            args[arg++] = food.getCarbsPer100g();
+            args[arg++] = food.getProteinPer100g();
+            args[arg++] = food.getFatPer100g();
+            args[arg++] = food.getFiberPer100g();
+            args[arg++] = food.getSugarPer100g();
+            args[arg++] = food.getSodiumPer100g();
+            args[arg++] = food.getSaturatedFatPer100g();
+            args[arg++] = food.getServingSize();
+            args[arg++] = food.getServingDescription();
+            args[arg++] = food.getSource();
+            args[arg++] = createdByUserId;
+        }
+        sql.append("\nON CONFLICT DO NOTHING");
+
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+}
@@ -4,12 +4,14 @@ import com.nutrition.domain.entity.auth.User;
 import com.nutrition.domain.entity.food.Food;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +27,24 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
 
     Optional<Food> findByBarcodeAndActiveTrue(String barcode);
 
+    List<Food> findByBarcodeInAndActiveTrue(Collection<String> barcodes);
+
+    // Paginação por cursor (keyset) em (name, id), sem COUNT; o limite vem do Pageable
+    @Query("SELECT f FROM Food f WHERE f.active = true AND (:category IS NULL OR f.category = :category) " +
+            "ORDER BY f.name ASC, f.id ASC")
+    List<Food> findActiveFirstPage(@Param("category") Food.FoodCategory category, Pageable pageable);
+
+    // f.name >= :name é redundante, mas permite ao planner usar o índice (name, id) como intervalo
+    @Query("SELECT f FROM Food f WHERE f.active = true AND (:category IS NULL OR f.category = :category) AND " +
+            "f.name >= :name AND (f.name > :name OR f.id > :id) " +
+            "ORDER BY f.name ASC, f.id ASC")
+    List<Food> findActivePageAfter(@Param("category") Food.FoodCategory category,
+                                   @Param("name") String name,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    List<Food> findByActiveTrue();
+
     @Query("SELECT f FROM Food f JOIN f.userPreferences up WHERE up.user = :user AND " +
             "up.preferenceType IS NOT NULL AND f.active = true ORDER BY up.createdAt DESC")
     List<Food> findUserWithPreferences(@Param("user") User user);
@@ -39,9 +59,14 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
             "ORDER BY f.name ASC")
     Page<Food> findSuitableFoodsForUser(@Param("user") User user, Pageable pageable);
 
-    @Query(value = "SELECT f.* FROM foods f WHERE f.active = true AND " +
-            "(:name IS NULL OR remove_accents(LOWER(f.name)) LIKE remove_accents(LOWER(CONCAT('%', :name, '%')))) AND " +
-            "(:category IS NULL OR f.category = CAST(:category AS text)) AND " +
+    String NAME_CONTAINS_FILTER =
+            "(:name IS NULL OR remove_accents(LOWER(f.name)) LIKE remove_accents(LOWER(CONCAT('%', :name, '%')))) AND ";
+
+    // Usa os índices GIN de pg_trgm (V12); o limite vem de pg_trgm.word_similarity_threshold
+    String NAME_SIMILAR_FILTER = "(remove_accents(LOWER(:term)) <% remove_accents(LOWER(f.name)) OR " +
+            "remove_accents(LOWER(:term)) <% remove_accents(LOWER(f.brand))) AND ";
+
+    String ADVANCED_FILTERS = "(:category IS NULL OR f.category = CAST(:category AS text)) AND " +
             "(:brand IS NULL OR remove_accents(LOWER(f.brand)) LIKE remove_accents(LOWER(CONCAT('%', :brand, '%')))) AND " +
             "(:minCalories IS NULL OR f.calories_per_100g >= :minCalories) AND " +
             "(:maxCalories IS NULL OR f.calories_per_100g <= :maxCalories) AND " +
@@ -50,8 +75,22 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
             "(:maxFat IS NULL OR f.fat_per_100g <= :maxFat) AND " +
             "(:minFiber IS NULL OR f.fiber_per_100g IS NULL OR f.fiber_per_100g >= :minFiber) AND " +
             "(:maxSodium IS NULL OR f.sodium_per_100g IS NULL OR f.sodium_per_100g <= :maxSodium) AND " +
-            "(:barcode IS NULL OR f.barcode = :barcode) " +
-            "ORDER BY f.name ASC", nativeQuery = true)
+            "(:barcode IS NULL OR f.barcode = :barcode) AND " +
+            // Mesmos limites de Food.isHighProtein(), isLowCarb() e isHighFiber()
+            "(:highProtein = false OR f.protein_per_100g >= 20) AND " +
+            "(:lowCarb = false OR f.carbs_per_100g <= 5) AND " +
+            "(:highFiber = false OR (f.fiber_per_100g IS NOT NULL AND f.fiber_per_100g >= 6)) AND " +
+            "(:preferenceType IS NULL OR EXISTS (SELECT 1 FROM user_food_preferences up " +
+            "WHERE up.food_id = f.id AND up.user_id = :userId AND up.preference_type = CAST(:preferenceType AS text))) ";
+
+    String RELEVANCE_ORDER = "ORDER BY GREATEST(word_similarity(remove_accents(LOWER(:term)), remove_accents(LOWER(f.name))), " +
+            "COALESCE(word_similarity(remove_accents(LOWER(:term)), remove_accents(LOWER(f.brand))), 0)) DESC, " +
+            "similarity(remove_accents(LOWER(:term)), remove_accents(LOWER(f.name))) DESC, f.name ASC";
+
+    @Query(value = "SELECT f.* FROM foods f WHERE f.active = true AND " + NAME_CONTAINS_FILTER + ADVANCED_FILTERS +
+            "ORDER BY f.name ASC",
+            countQuery = "SELECT COUNT(*) FROM foods f WHERE f.active = true AND " + NAME_CONTAINS_FILTER + ADVANCED_FILTERS,
+            nativeQuery = true)
     Page<Food> findByAdvancedFilters(@Param("name") String name,
                                      @Param("category") String category,
                                      @Param("brand") String brand,
@@ -63,8 +102,80 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
                                      @Param("minFiber") BigDecimal minFiber,
                                      @Param("maxSodium") BigDecimal maxSodium,
                                      @Param("barcode") String barcode,
+                                     @Param("highProtein") boolean highProtein,
+                                     @Param("lowCarb") boolean lowCarb,
+                                     @Param("highFiber") boolean highFiber,
+                                     @Param("userId") Long userId,
+                                     @Param("preferenceType") String preferenceType,
                                      Pageable pageable);
 
+    @Query(value = "SELECT f.* FROM foods f WHERE f.active = true AND " + NAME_SIMILAR_FILTER + ADVANCED_FILTERS +
+            RELEVANCE_ORDER,
+            countQuery = "SELECT COUNT(*) FROM foods f WHERE f.active = true AND " + NAME_SIMILAR_FILTER + ADVANCED_FILTERS,
+            nativeQuery = true)
+    Page<Food> findRankedByAdvancedFilters(@Param("term") String term,
+                                           @Param("category") String category,
+                                           @Param("brand") String brand,
+                                           @Param("minCalories") BigDecimal minCalories,
+                                           @Param("maxCalories") BigDecimal maxCalories,
+                                           @Param("minProtein") BigDecimal minProtein,
+                                           @Param("maxCarbs") BigDecimal maxCarbs,
+                                           @Param("maxFat") BigDecimal maxFat,
+                                           @Param("minFiber") BigDecimal minFiber,
+                                           @Param("maxSodium") BigDecimal maxSodium,
+                                           @Param("barcode") String barcode,
+                                           @Param("highProtein") boolean highProtein,
+                                           @Param("lowCarb") boolean lowCarb,
+                                           @Param("highFiber") boolean highFiber,
+                                           @Param("userId") Long userId,
+                                           @Param("preferenceType") String preferenceType,
+                                           Pageable pageable);
+
+    // Variantes Slice: sem consulta COUNT, buscam uma linha a mais para saber se há próxima página
+    @Query(value = "SELECT f.* FROM foods f WHERE f.active = true AND " + NAME_CONTAINS_FILTER + ADVANCED_FILTERS +
+            "ORDER BY f.name ASC",
+            nativeQuery = true)
+    Slice<Food> findSliceByAdvancedFilters(@Param("name") String name,
+                                           @Param("category") String category,
+                                           @Param("brand") String brand,
+                                           @Param("minCalories") BigDecimal minCalories,
+                                           @Param("maxCalories") BigDecimal maxCalories,
+                                           @Param("minProtein") BigDecimal minProtein,
+                                           @Param("maxCarbs") BigDecimal maxCarbs,
+                                           @Param("maxFat") BigDecimal maxFat,
+                                           @Param("minFiber") BigDecimal minFiber,
+                                           @Param("maxSodium") BigDecimal maxSodium,
+                                           @Param("barcode") String barcode,
+                                           @Param("highProtein") boolean highProtein,
+                                           @Param("lowCarb") boolean lowCarb,
+                                           @Param("highFiber") boolean highFiber,
+                                           @Param("userId") Long userId,
+                                           @Param("preferenceType") String preferenceType,
+                                           Pageable pageable);
+
+    @Query(value = "SELECT f.* FROM foods f WHERE f.active = true AND " + NAME_SIMILAR_FILTER + ADVANCED_FILTERS +
+            RELEVANCE_ORDER,
+            nativeQuery = true)
+    Slice<Food> findRankedSliceByAdvancedFilters(@Param("term") String term,
+                                                 @Param("category") String category,
+                                                 @Param("brand") String brand,
+                                                 @Param("minCalories") BigDecimal minCalories,
+                                                 @Param("maxCalories") BigDecimal maxCalories,
+                                                 @Param("minProtein") BigDecimal minProtein,
+                                                 @Param("maxCarbs") BigDecimal maxCarbs,
+                                                 @Param("maxFat") BigDecimal maxFat,
+                                                 @Param("minFiber") BigDecimal minFiber,
+                                                 @Param("maxSodium") BigDecimal maxSodium,
+                                                 @Param("barcode") String barcode,
+                                                 @Param("highProtein") boolean highProtein,
+                                                 @Param("lowCarb") boolean lowCarb,
+                                                 @Param("highFiber") boolean highFiber,
+                                                 @Param("userId") Long userId,
+                                                 @Param("preferenceType") String preferenceType,
+                                                 Pageable pageable);
+
+    Slice<Food> findSliceByActiveTrueOrderByNameAsc(Pageable pageable);
+
 
     @Query("SELECT COUNT(f) FROM Food f WHERE f.active = true")
     long countActiveFoods();
@@ -1,6 +1,9 @@
 package com.nutrition.infrastructure.repository;
 
+import com.nutrition.application.dto.meals.MealHistoryRow;
 import com.nutrition.domain.entity.meal.MealConsumption;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,6 +12,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MealConsumptionRepository extends JpaRepository<MealConsumption, Long> {
@@ -23,18 +27,52 @@ public interface MealConsumptionRepository extends JpaRepository<MealConsumption
             "ORDER BY m.mealTime ASC")
     List<MealConsumption> findByUserIdAndConsumptionDate(@Param("userId") Long userId, @Param("date") LocalDate date);
 
-    @Query("SELECT mc FROM MealConsumption mc " +
-            "JOIN FETCH mc.meal m " +
-            "JOIN FETCH m.foods mf " +
-            "JOIN FETCH mf.food f " +
+    /**
+     * Days between the dates on which the user consumed something, most recent first.
+     */
+    @Query(value = "SELECT DISTINCT mc.consumptionDate FROM MealConsumption mc " +
+            "WHERE mc.user.id = :userId AND mc.consumptionDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY mc.consumptionDate DESC",
+            countQuery = "SELECT COUNT(DISTINCT mc.consumptionDate) FROM MealConsumption mc " +
+                    "WHERE mc.user.id = :userId AND mc.consumptionDate BETWEEN :startDate AND :endDate")
+    Page<LocalDate> findConsumptionDates(@Param("userId") Long userId,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate,
+                                         Pageable pageable);
+
+    long countByUserIdAndConsumptionDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Flat history rows between the dates, one per consumed meal item, most recent day first and in meal
+     * time order within the day. Meant to be consumed in a single pass inside a read-only transaction.
+     */
+    @Query("SELECT new com.nutrition.application.dto.meals.MealHistoryRow(" +
+            "mc.id, mc.consumptionDate, mc.consumedAt, mc.notes, " +
+            "m.id, m.name, m.mealTime, m.totalCalories, m.totalCarbs, m.totalProtein, m.totalFat, " +
+            "m.totalFiber, m.totalSodium, " +
+            "f.id, f.name, mf.quantity, mf.unit, f.servingSize, f.caloriesPer100g, f.carbsPer100g, " +
+            "f.proteinPer100g, f.fatPer100g, f.fiberPer100g, f.sodiumPer100g) " +
+            "FROM MealConsumption mc " +
+            "JOIN mc.meal m " +
+            "LEFT JOIN m.foods mf " +
+            "LEFT JOIN mf.food f " +
             "WHERE mc.user.id = :userId " +
             "AND mc.consumptionDate BETWEEN :startDate AND :endDate " +
-            "ORDER BY mc.consumptionDate DESC, m.mealTime ASC")
-    List<MealConsumption> findByUserIdAndConsumptionDateBetween(
+            "ORDER BY mc.consumptionDate DESC, m.mealTime ASC, mc.id ASC, mf.id ASC")
+    Stream<MealHistoryRow> streamHistoryRows(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    // Apenas a refeição, com seus totais persistidos: sem carregar meal_foods nem foods
+    @Query("SELECT mc FROM MealConsumption mc " +
+            "JOIN FETCH mc.meal m " +
+            "WHERE mc.user.id = :userId AND mc.consumptionDate = :date")
+    List<MealConsumption> findWithMealByUserIdAndConsumptionDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    @Query("SELECT mc.consumptionDate FROM MealConsumption mc WHERE mc.meal.id = :mealId")
+    List<LocalDate> findConsumptionDatesByMealId(@Param("mealId") Long mealId);
+
     boolean existsByMealIdAndUserIdAndConsumptionDate(Long mealId, Long userId, LocalDate consumptionDate);
 
 }
@@ -3,10 +3,12 @@ package com.nutrition.infrastructure.repository;
 import com.nutrition.domain.entity.auth.User;
 import com.nutrition.domain.entity.meal.Meal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +20,48 @@ public interface MealRepository extends JpaRepository<Meal, Long> {
 
     @Query("SELECT DISTINCT m FROM Meal m LEFT JOIN FETCH m.foods mf LEFT JOIN FETCH mf.food WHERE m.id = :id AND m.user = :user")
     Optional<Meal> findByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    // Mesma aritmética de NutrientVector: multiplicador com 4 casas, cada item arredondado a 2 casas
+    String MEAL_ITEMS = "SELECT mf.meal_id, f.calories_per_100g, f.carbs_per_100g, f.protein_per_100g, " +
+            "f.fat_per_100g, f.fiber_per_100g, f.sodium_per_100g, f.sugar_per_100g, f.saturated_fat_per_100g, " +
+            "CASE WHEN mf.unit IN ('porção', 'serving') AND f.serving_size > 0 " +
+            "THEN ROUND(mf.quantity * f.serving_size / 100, 4) " +
+            "ELSE ROUND(mf.quantity / 100, 4) END AS multiplier " +
+            "FROM meal_foods mf JOIN foods f ON f.id = mf.food_id";
+
+    /**
+     * Recomputes the persisted totals of every meal containing the food, after its nutrients changed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE meals m SET " +
+            "total_calories = t.calories, total_carbs = t.carbs, total_protein = t.protein, total_fat = t.fat, " +
+            "total_fiber = t.fiber, total_sodium = t.sodium, total_sugar = t.sugar, " +
+            "total_saturated_fat = t.saturated_fat, updated_at = CURRENT_TIMESTAMP " +
+            "FROM (SELECT i.meal_id, " +
+            "SUM(ROUND(i.calories_per_100g * i.multiplier, 2)) AS calories, " +
+            "SUM(ROUND(i.carbs_per_100g * i.multiplier, 2)) AS carbs, " +
+            "SUM(ROUND(i.protein_per_100g * i.multiplier, 2)) AS protein, " +
+            "SUM(ROUND(i.fat_per_100g * i.multiplier, 2)) AS fat, " +
+            "SUM(ROUND(i.fiber_per_100g * i.multiplier, 2)) AS fiber, " +
+            "SUM(ROUND(i.sodium_per_100g * i.multiplier, 2)) AS sodium, " +
+            "SUM(ROUND(i.sugar_per_100g * i.multiplier, 2)) AS sugar, " +
+            "SUM(ROUND(i.saturated_fat_per_100g * i.multiplier, 2)) AS saturated_fat " +
+            "FROM (" + MEAL_ITEMS + " WHERE mf.meal_id IN " +
+            "(SELECT DISTINCT meal_id FROM meal_foods WHERE food_id = :foodId)) i " +
+            "GROUP BY i.meal_id) t " +
+            "WHERE m.id = t.meal_id",
+            nativeQuery = true)
+    int recalculateTotalsForFood(@Param("foodId") Long foodId);
+
+    /**
+     * Persisted version of the user's meal list: meal count and latest meal change, then count and latest
+     * id of the consumptions on the date. Creating, changing or deleting either moves one of them.
+     */
+    @Query(value = "SELECT CONCAT(" +
+            "(SELECT COUNT(*) FROM meals WHERE user_id = :userId), '.', " +
+            "(SELECT MAX(updated_at) FROM meals WHERE user_id = :userId), '.', " +
+            "(SELECT COUNT(*) FROM meal_consumptions WHERE user_id = :userId AND consumption_date = :date), '.', " +
+            "(SELECT MAX(id) FROM meal_consumptions WHERE user_id = :userId AND consumption_date = :date))",
+            nativeQuery = true)
+    String findTemplatesVersion(@Param("userId") Long userId, @Param("date") LocalDate date);
 }
\ No newline at end of file
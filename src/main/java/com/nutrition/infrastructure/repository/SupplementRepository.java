@@ -3,11 +3,13 @@ package com.nutrition.infrastructure.repository;
 import com.nutrition.domain.entity.food.Supplement;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,24 +18,67 @@ public interface SupplementRepository extends JpaRepository<Supplement, Long> {
 
     Page<Supplement> findByActiveTrueOrderByNameAsc(Pageable pageable);
 
+    Slice<Supplement> findSliceByActiveTrueOrderByNameAsc(Pageable pageable);
+
     Optional<Supplement> findByIdAndActiveTrue(Long id);
 
-    @Query(value = "SELECT s.* FROM supplements s WHERE s.active = true AND " +
-            "(remove_accents(LOWER(s.name)) LIKE remove_accents(LOWER(CONCAT('%', :searchTerm, '%'))) OR " +
+    List<Supplement> findByIdInAndActiveTrue(Collection<Long> ids);
+
+    String SEARCH_TERM_FILTER = "(remove_accents(LOWER(s.name)) LIKE remove_accents(LOWER(CONCAT('%', :searchTerm, '%'))) OR " +
             "remove_accents(LOWER(s.description)) LIKE remove_accents(LOWER(CONCAT('%', :searchTerm, '%'))) OR " +
             "remove_accents(LOWER(s.brand)) LIKE remove_accents(LOWER(CONCAT('%', :searchTerm, '%'))) OR " +
-            "remove_accents(LOWER(s.main_ingredient)) LIKE remove_accents(LOWER(CONCAT('%', :searchTerm, '%'))))",
+            "remove_accents(LOWER(s.main_ingredient)) LIKE remove_accents(LOWER(CONCAT('%', :searchTerm, '%'))))";
+
+    @Query(value = "SELECT s.* FROM supplements s WHERE s.active = true AND " + SEARCH_TERM_FILTER,
             nativeQuery = true)
     Page<Supplement> searchByNameDescriptionBrandOrIngredient(@Param("searchTerm") String searchTerm, Pageable pageable);
 
+    // Variante Slice: sem consulta COUNT
+    @Query(value = "SELECT s.* FROM supplements s WHERE s.active = true AND " + SEARCH_TERM_FILTER,
+            nativeQuery = true)
+    Slice<Supplement> searchSliceByNameDescriptionBrandOrIngredient(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    // Usa os índices GIN de pg_trgm (V12); o limite vem de pg_trgm.word_similarity_threshold
+    String SIMILAR_FILTER = "(remove_accents(LOWER(:term)) <% remove_accents(LOWER(s.name)) OR " +
+            "remove_accents(LOWER(:term)) <% remove_accents(LOWER(s.brand)) OR " +
+            "remove_accents(LOWER(:term)) <% remove_accents(LOWER(s.main_ingredient))) ";
+
+    String RELEVANCE_ORDER = "ORDER BY GREATEST(word_similarity(remove_accents(LOWER(:term)), remove_accents(LOWER(s.name))), " +
+            "COALESCE(word_similarity(remove_accents(LOWER(:term)), remove_accents(LOWER(s.brand))), 0), " +
+            "COALESCE(word_similarity(remove_accents(LOWER(:term)), remove_accents(LOWER(s.main_ingredient))), 0)) DESC, " +
+            "s.name ASC";
+
+    @Query(value = "SELECT s.* FROM supplements s WHERE s.active = true AND " + SIMILAR_FILTER + RELEVANCE_ORDER,
+            countQuery = "SELECT COUNT(*) FROM supplements s WHERE s.active = true AND " + SIMILAR_FILTER,
+            nativeQuery = true)
+    Page<Supplement> searchRanked(@Param("term") String term, Pageable pageable);
+
+    @Query(value = "SELECT s.* FROM supplements s WHERE s.active = true AND " + SIMILAR_FILTER + RELEVANCE_ORDER,
+            nativeQuery = true)
+    Slice<Supplement> searchRankedSlice(@Param("term") String term, Pageable pageable);
+
     Page<Supplement> findByCategoryAndActiveTrueOrderByNameAsc(Supplement.SupplementCategory category, Pageable pageable);
 
+    // Paginação por cursor (keyset) em (name, id), sem COUNT; o limite vem do Pageable
+    @Query("SELECT s FROM Supplement s WHERE s.active = true AND (:category IS NULL OR s.category = :category) " +
+            "ORDER BY s.name ASC, s.id ASC")
+    List<Supplement> findActiveFirstPage(@Param("category") Supplement.SupplementCategory category, Pageable pageable);
+
+    // s.name >= :name é redundante, mas permite ao planner usar o índice (name, id) como intervalo
+    @Query("SELECT s FROM Supplement s WHERE s.active = true AND (:category IS NULL OR s.category = :category) AND " +
+            "s.name >= :name AND (s.name > :name OR s.id > :id) " +
+            "ORDER BY s.name ASC, s.id ASC")
+    List<Supplement> findActivePageAfter(@Param("category") Supplement.SupplementCategory category,
+                                         @Param("name") String name,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
     @Query("SELECT s.category, COUNT(s) FROM Supplement s WHERE s.active = true GROUP BY s.category ORDER BY COUNT(s) DESC")
     List<Object[]> countSupplementsByCategory();
 
     Page<Supplement> findByFormAndActiveTrueOrderByNameAsc(Supplement.SupplementForm form, Pageable pageable);
 
-    @Query(value = "SELECT s.* FROM supplements s WHERE s.active = true AND " +
+    String ADVANCED_FILTERS_WHERE = "WHERE s.active = true AND " +
             "(:name IS NULL OR remove_accents(LOWER(s.name)) LIKE remove_accents(LOWER(CONCAT('%', :name, '%')))) AND " +
             "(:category IS NULL OR s.category = CAST(:category AS text)) AND " +
             "(:form IS NULL OR s.form = CAST(:form AS text)) AND " +
@@ -42,8 +87,9 @@ public interface SupplementRepository extends JpaRepository<Supplement, Long> {
             "(:servingUnit IS NULL OR s.serving_unit = CAST(:servingUnit AS text)) AND " +
             "(:hasNutritionalValue IS NULL OR " +
             "(:hasNutritionalValue = false) OR " +
-            "(:hasNutritionalValue = true AND s.calories_per_serving IS NOT NULL AND s.calories_per_serving > 0)) " +
-            "ORDER BY s.name ASC", nativeQuery = true)
+            "(:hasNutritionalValue = true AND s.calories_per_serving IS NOT NULL AND s.calories_per_serving > 0)) ";
+
+    @Query(value = "SELECT s.* FROM supplements s " + ADVANCED_FILTERS_WHERE + "ORDER BY s.name ASC", nativeQuery = true)
     Page<Supplement> findByAdvancedFilters(@Param("name") String name,
                                            @Param("category") String category,
                                            @Param("form") String form,
@@ -53,6 +99,17 @@ public interface SupplementRepository extends JpaRepository<Supplement, Long> {
                                            @Param("hasNutritionalValue") Boolean hasNutritionalValue,
                                            Pageable pageable);
 
+    // Variante Slice: sem consulta COUNT
+    @Query(value = "SELECT s.* FROM supplements s " + ADVANCED_FILTERS_WHERE + "ORDER BY s.name ASC", nativeQuery = true)
+    Slice<Supplement> findSliceByAdvancedFilters(@Param("name") String name,
+                                                 @Param("category") String category,
+                                                 @Param("form") String form,
+                                                 @Param("brand") String brand,
+                                                 @Param("ingredient") String ingredient,
+                                                 @Param("servingUnit") String servingUnit,
+                                                 @Param("hasNutritionalValue") Boolean hasNutritionalValue,
+                                                 Pageable pageable);
+
 
     @Query("SELECT COUNT(s) FROM Supplement s WHERE s.active = true")
     long countActiveSupplements();
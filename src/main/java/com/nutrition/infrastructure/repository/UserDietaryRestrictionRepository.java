@@ -0,0 +1,13 @@
+package com.nutrition.infrastructure.repository;
+
+import com.nutrition.domain.entity.food.UserDietaryRestriction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserDietaryRestrictionRepository extends JpaRepository<UserDietaryRestriction, Long> {
+
+    List<UserDietaryRestriction> findByUserIdAndActiveTrue(Long userId);
+}
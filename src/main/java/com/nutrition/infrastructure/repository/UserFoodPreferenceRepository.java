@@ -19,10 +19,18 @@ public interface UserFoodPreferenceRepository extends JpaRepository<UserFoodPref
 
     Optional<UserFoodPreference> findByUserAndFood(User user, Food food);
 
+    @Query("SELECT ufp.food.id, ufp.preferenceType FROM UserFoodPreference ufp WHERE ufp.user = :user AND " +
+            "ufp.food.id IN :foodIds")
+    List<Object[]> findPreferenceTypesByUserAndFoodIds(@Param("user") User user,
+                                                       @Param("foodIds") Collection<Long> foodIds);
 
     @Query("SELECT ufp FROM UserFoodPreference ufp WHERE ufp.user = :user AND ufp.preferenceType = 'FAVORITE'")
     Collection<UserFoodPreference> findByUserAndPreferenceTypeFavorite(@Param("user") User user);
 
+    @Query("SELECT ufp.food.id, ufp.preferenceType FROM UserFoodPreference ufp WHERE ufp.user.id = :userId " +
+            "ORDER BY ufp.createdAt DESC, ufp.id DESC")
+    List<Object[]> findFoodPreferencesByUserId(@Param("userId") Long userId);
+
     @Query("SELECT ufp FROM UserFoodPreference ufp WHERE ufp.user = :user AND " +
             "ufp.preferenceType IN :preferenceTypes ORDER BY ufp.createdAt DESC")
     List<UserFoodPreference> findByUserAndPreferenceTypes(@Param("user") User user,
@@ -4,8 +4,10 @@ import com.nutrition.domain.entity.auth.User;
 import com.nutrition.domain.entity.profile.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -15,6 +17,9 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
 
     boolean existsByUser(User user);
 
+    @Query("SELECT COALESCE(up.updatedAt, up.createdAt) FROM UserProfile up WHERE up.user.id = :userId")
+    Optional<LocalDateTime> findLastModifiedByUserId(@Param("userId") Long userId);
+
     @Query("SELECT COUNT(up) FROM UserProfile up WHERE up.basalMetabolicRate IS NOT NULL AND up.totalDailyEnergyExpenditure IS NOT NULL")
     long countProfilesWithCalculatedMetrics();
 
@@ -0,0 +1,91 @@
+package com.nutrition.infrastructure.search;
+
+import com.nutrition.infrastructure.cache.FoodCatalogChangedEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-food catalog changes applied on top of an index built from an earlier catalog version, the way
+ * {@link FoodSimilarityIndex} does it: changed foods are tombstoned in the built structures and their current
+ * versions are kept in a small list that readers scan linearly. Once the delta outgrows
+ * {@value #MIN_DELTA_FOR_REBUILD} entries or {@value #MAX_DELTA_RATIO} of the index, the owner rebuilds.
+ * <p>
+ * Immutable: every change returns a new instance.
+ */
+final class CatalogDelta<T> {
+
+    private static final int MIN_DELTA_FOR_REBUILD = 1024;
+    private static final double MAX_DELTA_RATIO = 0.05;
+
+    private final long version;
+    private final Set<Long> removed;
+    private final Map<Long, T> added;
+
+    private CatalogDelta(long version, Set<Long> removed, Map<Long, T> added) {
+        this.version = version;
+        this.removed = removed;
+        this.added = added;
+    }
+
+    /**
+     * Empty delta of an index just built from the catalog version.
+     */
+    static <T> CatalogDelta<T> empty(long version) {
+        return new CatalogDelta<>(version, Collections.emptySet(), Collections.emptyMap());
+    }
+
+    /**
+     * Whether the event is a single-food change right after this version, small enough to apply instead
+     * of rebuilding an index of {@code indexedSize} documents.
+     */
+    boolean canApply(FoodCatalogChangedEvent event, int indexedSize) {
+        if (event.getChangedFoodId() == null || version != event.getSnapshot().getVersion() - 1) {
+            return false;
+        }
+        int delta = removed.size() + added.size();
+        return delta <= Math.max(MIN_DELTA_FOR_REBUILD, indexedSize * MAX_DELTA_RATIO);
+    }
+
+    /**
+     * Copy with one food replaced; {@code entry} is null when the food left the active catalog.
+     */
+    CatalogDelta<T> apply(long newVersion, Long foodId, T entry) {
+        Set<Long> newRemoved = new HashSet<>(removed);
+        newRemoved.add(foodId);
+
+        Map<Long, T> newAdded = new LinkedHashMap<>(added);
+        newAdded.remove(foodId);
+        if (entry != null) {
+            newAdded.put(foodId, entry);
+        }
+        return new CatalogDelta<>(newVersion, Collections.unmodifiableSet(newRemoved),
+                Collections.unmodifiableMap(newAdded));
+    }
+
+    /**
+     * Whether a document of the built index is stale (changed or removed since the build).
+     */
+    boolean isRemoved(long foodId) {
+        return !removed.isEmpty() && removed.contains(foodId);
+    }
+
+    Set<Long> removed() {
+        return removed;
+    }
+
+    /**
+     * Current versions of the foods changed since the build that are still active.
+     */
+    Collection<T> added() {
+        return added.values();
+    }
+
+    boolean isEmpty() {
+        return removed.isEmpty();
+    }
+}
@@ -0,0 +1,428 @@
+package com.nutrition.infrastructure.search;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.FoodCatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix index for food name autocomplete.
+ * <p>
+ * Every word start of every accent-folded active food name becomes a key ("arroz integral" yields
+ * "arroz integral" and "integral"). Keys are kept in one sorted array, so a prefix lookup is a binary
+ * search plus a scan of the matching range that only keeps the best {@value #MAX_SUGGESTIONS} foods,
+ * without touching the database. One- and two-character prefixes, whose ranges span a large part of the
+ * catalog, are answered from lists computed when the snapshot is built.
+ * <p>
+ * Readers work on an immutable snapshot. Single-food catalog changes are applied as a {@link CatalogDelta}
+ * (matched linearly and merged into the ranking); other catalog versions rebuild the index.
+ */
+@Component
+@Slf4j
+public class FoodAutocompleteIndex {
+
+    /**
+     * Most suggestions returned by one lookup.
+     */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    // Prefixos até este tamanho têm as sugestões pré-calculadas em cada snapshot
+    private static final int SHORT_PREFIX_LENGTH = 2;
+
+    private static final long DOC_MASK = (1L << 31) - 1;
+    private static final long[] NO_RANKS = new long[0];
+
+    private volatile Snapshot snapshot;
+
+    @EventListener
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        try {
+            long start = System.currentTimeMillis();
+            FoodCatalog.Snapshot catalog = event.getSnapshot();
+            Snapshot current = snapshot;
+
+            if (current != null && current.delta.canApply(event, current.ids.length)) {
+                Long foodId = event.getChangedFoodId();
+                Food food = catalog.findById(foodId);
+                snapshot = current.withDelta(current.delta.apply(catalog.getVersion(), foodId,
+                        food != null ? new Doc(food, FoodCatalog.NameKey.of(food)) : null));
+                log.debug("Food autocomplete index updated for catalog version {} (food {})",
+                        catalog.getVersion(), foodId);
+                return;
+            }
+
+            List<Food> foods = catalog.getFoods();
+            List<FoodCatalog.NameKey> keys = catalog.getNameKeys();
+            List<Doc> docs = new ArrayList<>(foods.size());
+            for (int i = 0; i < foods.size(); i++) {
+                docs.add(new Doc(foods.get(i), keys.get(i)));
+            }
+            snapshot = Snapshot.build(catalog.getVersion(), docs);
+
+            log.debug("Food autocomplete index rebuilt for catalog version {}: {} foods, {} keys in {} ms",
+                    catalog.getVersion(), docs.size(), snapshot.keys.length,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error rebuilding food autocomplete index: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Returns up to {@code limit} (at most {@value #MAX_SUGGESTIONS}) foods with a name word starting with
+     * the prefix. Names that start with the prefix come first, then shorter names, then alphabetical order.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String term = TextNormalizer.normalizeTerm(prefix);
+        if (current == null || term == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        int size = Math.min(limit, MAX_SUGGESTIONS);
+        long[] ranks = null;
+        if (term.length() <= SHORT_PREFIX_LENGTH) {
+            // Prefixos curtos cobrem boa parte do catálogo: o resultado já vem calculado do snapshot
+            ranks = withoutRemoved(current, current.shortPrefixRanks.getOrDefault(term, NO_RANKS), size);
+        }
+        if (ranks == null) {
+            TopRanks top = new TopRanks(size);
+            for (int k = current.lowerBound(term); k < current.keys.length && current.keys[k].startsWith(term); k++) {
+                if (!current.delta.isRemoved(current.ids[current.keyDocs[k]])) {
+                    top.offer(current.rank(k));
+                }
+            }
+            ranks = top.bestFirst();
+        }
+
+        List<Doc> changed = new ArrayList<>();
+        for (Doc doc : current.delta.added()) {
+            if (doc.matchPosition(term) >= 0) {
+                changed.add(doc);
+            }
+        }
+        changed.sort(Comparator
+                .comparingInt((Doc doc) -> doc.matchPosition(term) > 0 ? 1 : 0)
+                .thenComparingInt(doc -> doc.key.getNormalizedName().length())
+                .thenComparing(doc -> doc.key));
+
+        // Intercala o índice construído com os alimentos alterados desde então
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(size, ranks.length + changed.size()));
+        int i = 0;
+        int j = 0;
+        while (suggestions.size() < size && (i < ranks.length || j < changed.size())) {
+            if (j == changed.size() || (i < ranks.length && current.precedes(ranks[i], changed.get(j), term))) {
+                int doc = doc(ranks[i++]);
+                suggestions.add(new Suggestion(current.ids[doc], current.displayNames[doc]));
+            } else {
+                Doc doc = changed.get(j++);
+                suggestions.add(new Suggestion(doc.id, doc.displayName));
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Precomputed ranks minus the foods changed since the build, or null when dropping them leaves fewer
+     * than {@code size} of a full list (the range has to be scanned then).
+     */
+    private static long[] withoutRemoved(Snapshot snapshot, long[] ranks, int size) {
+        if (snapshot.delta.isEmpty()) {
+            return ranks;
+        }
+        long[] kept = new long[ranks.length];
+        int count = 0;
+        for (long rank : ranks) {
+            if (!snapshot.delta.isRemoved(snapshot.ids[doc(rank)])) {
+                kept[count++] = rank;
+            }
+        }
+        if (count < size && ranks.length == MAX_SUGGESTIONS && count < ranks.length) {
+            return null;
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    /**
+     * Sort key of a match: word position flag (0 = start of the name), name length, then document (name
+     * order), packed so that a smaller value ranks better.
+     */
+    private static long rank(boolean nameStart, int nameLength, int doc) {
+        return (nameStart ? 0L : 1L << 62) | ((long) nameLength << 31) | doc;
+    }
+
+    private static int doc(long rank) {
+        return (int) (rank & DOC_MASK);
+    }
+
+    /**
+     * A food suggested for a prefix.
+     */
+    public static final class Suggestion {
+
+        private final long id;
+        private final String displayName;
+
+        private Suggestion(long id, String displayName) {
+            this.id = id;
+            this.displayName = displayName;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final class Doc {
+
+        private final Long id;
+        private final FoodCatalog.NameKey key;
+        private final String displayName;
+
+        private Doc(Food food, FoodCatalog.NameKey key) {
+            this.id = food.getId();
+            this.key = key;
+            // Mesmo formato de Food.getDisplayName()
+            String brand = food.getBrand();
+            this.displayName = brand != null && !brand.trim().isEmpty() ? brand + " " + food.getName() : food.getName();
+        }
+
+        /**
+         * Position of the first name word starting with the term, or -1 when none does.
+         */
+        int matchPosition(String term) {
+            String name = key.getNormalizedName();
+            int position = 0;
+            for (int i = 0; i < name.length(); i++) {
+                boolean wordStart = Character.isLetterOrDigit(name.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+                if (wordStart) {
+                    if (name.startsWith(term, i)) {
+                        return position;
+                    }
+                    position++;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class Snapshot {
+
+        // docs em ordem alfabética, para que o índice do doc sirva de desempate
+        private final long[] ids;
+        private final FoodCatalog.NameKey[] nameKeys;
+        private final String[] names;
+        private final String[] displayNames;
+
+        // chaves ordenadas; keyPositions[k] é a posição da palavra no nome (0 = início do nome)
+        private final String[] keys;
+        private final int[] keyDocs;
+        private final short[] keyPositions;
+
+        // prefixo curto -> melhores sugestões, já ordenadas
+        private final Map<String, long[]> shortPrefixRanks;
+        private final CatalogDelta<Doc> delta;
+
+        private Snapshot(long[] ids, FoodCatalog.NameKey[] nameKeys, String[] names, String[] displayNames,
+                         String[] keys, int[] keyDocs, short[] keyPositions,
+                         Map<String, long[]> shortPrefixRanks, CatalogDelta<Doc> delta) {
+            this.ids = ids;
+            this.nameKeys = nameKeys;
+            this.names = names;
+            this.displayNames = displayNames;
+            this.keys = keys;
+            this.keyDocs = keyDocs;
+            this.keyPositions = keyPositions;
+            this.shortPrefixRanks = shortPrefixRanks != null ? shortPrefixRanks : buildShortPrefixRanks();
+            this.delta = delta;
+        }
+
+        /**
+         * Docs come from the catalog already in name order, so document numbers follow it.
+         */
+        static Snapshot build(long version, List<Doc> sorted) {
+            long[] ids = new long[sorted.size()];
+            FoodCatalog.NameKey[] nameKeys = new FoodCatalog.NameKey[sorted.size()];
+            String[] names = new String[sorted.size()];
+            String[] displayNames = new String[sorted.size()];
+            List<Key> keyList = new ArrayList<>(sorted.size() * 3);
+
+            for (int doc = 0; doc < sorted.size(); doc++) {
+                ids[doc] = sorted.get(doc).id;
+                nameKeys[doc] = sorted.get(doc).key;
+                names[doc] = nameKeys[doc].getNormalizedName();
+                displayNames[doc] = sorted.get(doc).displayName;
+
+                String name = names[doc];
+                short position = 0;
+                for (int i = 0; i < name.length(); i++) {
+                    boolean wordStart = Character.isLetterOrDigit(name.charAt(i))
+                            && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+                    if (wordStart) {
+                        keyList.add(new Key(name.substring(i), doc, position));
+                        if (position < Short.MAX_VALUE) {
+                            position++;
+                        }
+                    }
+                }
+            }
+
+            keyList.sort(Comparator.comparing((Key key) -> key.text).thenComparingInt(key -> key.doc));
+
+            String[] keys = new String[keyList.size()];
+            int[] keyDocs = new int[keyList.size()];
+            short[] keyPositions = new short[keyList.size()];
+            for (int k = 0; k < keys.length; k++) {
+                Key key = keyList.get(k);
+                keys[k] = key.text;
+                keyDocs[k] = key.doc;
+                keyPositions[k] = key.position;
+            }
+            return new Snapshot(ids, nameKeys, names, displayNames, keys, keyDocs, keyPositions, null,
+                    CatalogDelta.empty(version));
+        }
+
+        Snapshot withDelta(CatalogDelta<Doc> newDelta) {
+            return new Snapshot(ids, nameKeys, names, displayNames, keys, keyDocs, keyPositions, shortPrefixRanks,
+                    newDelta);
+        }
+
+        /**
+         * Whether the indexed match of {@code rank} ranks before the changed food for the term.
+         */
+        boolean precedes(long rank, Doc changed, String term) {
+            int doc = doc(rank);
+            int nameStart = rank >>> 62 == 0 ? 0 : 1;
+            int changedNameStart = changed.matchPosition(term) > 0 ? 1 : 0;
+            if (nameStart != changedNameStart) {
+                return nameStart < changedNameStart;
+            }
+            int length = names[doc].length();
+            int changedLength = changed.key.getNormalizedName().length();
+            if (length != changedLength) {
+                return length < changedLength;
+            }
+            return nameKeys[doc].compareTo(changed.key) < 0;
+        }
+
+        long rank(int key) {
+            int doc = keyDocs[key];
+            return FoodAutocompleteIndex.rank(keyPositions[key] == 0, names[doc].length(), doc);
+        }
+
+        /**
+         * Keys sharing a prefix are contiguous in the sorted array, so each run of keys with the same first
+         * characters is ranked once, for every prefix length up to {@link #SHORT_PREFIX_LENGTH}.
+         */
+        private Map<String, long[]> buildShortPrefixRanks() {
+            Map<String, long[]> ranks = new HashMap<>();
+            for (int length = 1; length <= SHORT_PREFIX_LENGTH; length++) {
+                int k = 0;
+                while (k < keys.length) {
+                    if (keys[k].length() < length) {
+                        k++;
+                        continue;
+                    }
+                    String prefix = keys[k].substring(0, length);
+                    TopRanks top = new TopRanks(MAX_SUGGESTIONS);
+                    for (; k < keys.length && keys[k].startsWith(prefix); k++) {
+                        top.offer(rank(k));
+                    }
+                    ranks.put(prefix, top.bestFirst());
+                }
+            }
+            return ranks;
+        }
+
+        /**
+         * First key that is not smaller than the term.
+         */
+        int lowerBound(String term) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(term) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * The best ranks seen so far, one per document, kept sorted (the limit is small). A document matched
+     * by several of its words keeps its best rank.
+     */
+    private static final class TopRanks {
+
+        private final long[] ranks;
+        private int size;
+
+        private TopRanks(int limit) {
+            this.ranks = new long[limit];
+        }
+
+        void offer(long rank) {
+            if (size == ranks.length && rank >= ranks[size - 1]) {
+                return;
+            }
+
+            int doc = doc(rank);
+            for (int i = 0; i < size; i++) {
+                if (doc(ranks[i]) == doc) {
+                    if (ranks[i] <= rank) {
+                        return;
+                    }
+                    System.arraycopy(ranks, i + 1, ranks, i, size - i - 1);
+                    size--;
+                    break;
+                }
+            }
+
+            int position = size < ranks.length ? size++ : size - 1;
+            while (position > 0 && ranks[position - 1] > rank) {
+                ranks[position] = ranks[position - 1];
+                position--;
+            }
+            ranks[position] = rank;
+        }
+
+        long[] bestFirst() {
+            return Arrays.copyOf(ranks, size);
+        }
+    }
+
+    private static final class Key {
+
+        private final String text;
+        private final int doc;
+        private final short position;
+
+        private Key(String text, int doc, short position) {
+            this.text = text;
+            this.doc = doc;
+            this.position = position;
+        }
+    }
+}
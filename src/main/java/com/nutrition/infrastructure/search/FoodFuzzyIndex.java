@@ -0,0 +1,437 @@
+package com.nutrition.infrastructure.search;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.FoodCatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Typo-tolerant matching of food name words.
+ * <p>
+ * The distinct accent-folded words of all active food names form a dictionary kept in a BK-tree, so a
+ * lookup within a small Levenshtein distance only visits the branches the triangle inequality allows
+ * instead of comparing against every name. Each word points to the foods (in name order) containing it.
+ * Portuguese stopwords ("de", "com", ...) are neither indexed nor searched. Query words close to words found
+ * in a large share of the catalog only rank the candidates of the query's more selective words, so a common
+ * word cannot pull most of the catalog into the ranking. Only the best {@value #MAX_RESULTS} foods are kept.
+ * <p>
+ * Readers work on an immutable snapshot. Single-food catalog changes are applied as a {@link CatalogDelta}
+ * (whose words are compared linearly); other catalog versions rebuild the tree.
+ */
+@Component
+@Slf4j
+public class FoodFuzzyIndex {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    /**
+     * Most foods a search returns, best first.
+     */
+    public static final int MAX_RESULTS = 1000;
+
+    // Palavras em mais alimentos que isso (e que MIN_COMMON_DOCS) são comuns demais para selecionar
+    private static final double COMMON_TOKEN_RATIO = 0.05;
+    private static final int MIN_COMMON_DOCS = 1000;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "e", "as", "os", "ao", "aos", "da", "de", "do", "das", "dos", "em", "na", "no", "nas", "nos",
+            "com", "sem", "para", "por", "pra", "um", "uma", "ou");
+
+    private volatile Snapshot snapshot;
+
+    @EventListener
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        try {
+            long start = System.currentTimeMillis();
+            FoodCatalog.Snapshot catalog = event.getSnapshot();
+            Snapshot current = snapshot;
+
+            if (current != null && current.delta.canApply(event, current.ids.length)) {
+                Long foodId = event.getChangedFoodId();
+                Food food = catalog.findById(foodId);
+                snapshot = current.withDelta(current.delta.apply(catalog.getVersion(), foodId,
+                        food != null ? new Doc(food, FoodCatalog.NameKey.of(food)) : null));
+                log.debug("Food fuzzy index updated for catalog version {} (food {})", catalog.getVersion(), foodId);
+                return;
+            }
+
+            snapshot = Snapshot.build(catalog);
+
+            log.debug("Food fuzzy index rebuilt for catalog version {}: {} foods, {} words in {} ms",
+                    catalog.getVersion(), snapshot.ids.length, snapshot.tokens.length,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error rebuilding food fuzzy index: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Edits allowed for a query word: none up to 2 characters, one up to 5, two beyond.
+     */
+    static int maxEdits(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Active food ids whose name has a word close to at least one word of {@code name}, optionally with a
+     * brand containing {@code brand} and in a category. Foods matching more query words come first, then
+     * smaller total edit distance, then name order; at most {@link #MAX_RESULTS}.
+     */
+    public List<Long> search(String name, String brand, Food.FoodCategory category) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Índice de busca aproximada de alimentos não inicializado");
+        }
+
+        List<String> queryTokens = tokenize(TextNormalizer.normalizeTerm(name));
+        String brandTerm = TextNormalizer.normalizeTerm(brand);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        // Palavras do dicionário próximas de cada palavra da consulta: [palavra, distância]. Uma palavra da
+        // consulta é comum quando alguma delas está em muitos alimentos
+        List<List<int[]>> tokenMatches = new ArrayList<>(queryTokens.size());
+        boolean[] common = new boolean[queryTokens.size()];
+        boolean selective = false;
+        for (int q = 0; q < queryTokens.size(); q++) {
+            String queryToken = queryTokens.get(q);
+            List<int[]> matches = new ArrayList<>();
+            if (current.root != null) {
+                current.root.search(queryToken, maxEdits(queryToken.length()), current.tokens, matches);
+            }
+            for (int[] match : matches) {
+                common[q] |= current.isCommon(match[0]);
+            }
+            selective |= !common[q];
+            tokenMatches.add(matches);
+        }
+
+        // melhor distância de cada documento para cada palavra da consulta; com uma palavra seletiva, só ela
+        // traz candidatos
+        Map<Integer, int[]> bestDistances = new HashMap<>();
+        for (int q = 0; q < queryTokens.size(); q++) {
+            if (selective && common[q]) {
+                continue;
+            }
+            for (int[] match : tokenMatches.get(q)) {
+                for (int doc : current.postings[match[0]]) {
+                    if (current.delta.isRemoved(current.ids[doc])) {
+                        continue;
+                    }
+                    if (category != null && current.categories[doc] != category.ordinal()) {
+                        continue;
+                    }
+                    if (brandTerm != null && (current.brands[doc] == null || !current.brands[doc].contains(brandTerm))) {
+                        continue;
+                    }
+                    int[] distances = bestDistances.get(doc);
+                    if (distances == null) {
+                        distances = new int[queryTokens.size()];
+                        Arrays.fill(distances, Integer.MAX_VALUE);
+                        bestDistances.put(doc, distances);
+                    }
+                    distances[q] = Math.min(distances[q], match[1]);
+                }
+            }
+        }
+
+        // Palavras comuns ainda contam para o ranking dos candidatos: busca binária nas listas ordenadas
+        for (int q = 0; selective && q < queryTokens.size(); q++) {
+            if (!common[q]) {
+                continue;
+            }
+            for (Map.Entry<Integer, int[]> candidate : bestDistances.entrySet()) {
+                int[] distances = candidate.getValue();
+                for (int[] match : tokenMatches.get(q)) {
+                    if (match[1] < distances[q] && Arrays.binarySearch(current.postings[match[0]], candidate.getKey()) >= 0) {
+                        distances[q] = match[1];
+                    }
+                }
+            }
+        }
+
+        // Alimentos alterados desde a construção: comparados palavra a palavra; recebem números negativos
+        List<Doc> changed = new ArrayList<>(current.delta.added());
+        for (int i = 0; i < changed.size(); i++) {
+            Doc changedDoc = changed.get(i);
+            if (!changedDoc.matches(brandTerm, category)) {
+                continue;
+            }
+            int[] distances = null;
+            boolean candidate = false;
+            for (int q = 0; q < queryTokens.size(); q++) {
+                String queryToken = queryTokens.get(q);
+                int maxEdits = maxEdits(queryToken.length());
+                for (String token : changedDoc.tokens) {
+                    int d = distance(queryToken, token);
+                    if (d <= maxEdits) {
+                        if (distances == null) {
+                            distances = new int[queryTokens.size()];
+                            Arrays.fill(distances, Integer.MAX_VALUE);
+                        }
+                        distances[q] = Math.min(distances[q], d);
+                        candidate |= !(selective && common[q]);
+                    }
+                }
+            }
+            if (candidate) {
+                bestDistances.put(-1 - i, distances);
+            }
+        }
+
+        // [documento, palavras cobertas, distância total]; o heap guarda só os melhores, com o pior no topo
+        Comparator<int[]> order = (a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1])
+                : a[2] != b[2] ? Integer.compare(a[2], b[2])
+                : a[0] >= 0 && b[0] >= 0 ? Integer.compare(a[0], b[0])
+                : key(current, changed, a[0]).compareTo(key(current, changed, b[0]));
+        PriorityQueue<int[]> best = new PriorityQueue<>(Math.min(bestDistances.size(), MAX_RESULTS) + 1, order.reversed());
+        bestDistances.forEach((doc, distances) -> {
+            int covered = 0;
+            int total = 0;
+            for (int distance : distances) {
+                if (distance != Integer.MAX_VALUE) {
+                    covered++;
+                    total += distance;
+                }
+            }
+            int[] entry = {doc, covered, total};
+            if (best.size() < MAX_RESULTS) {
+                best.add(entry);
+            } else if (order.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        });
+
+        List<int[]> ranked = new ArrayList<>(best);
+        ranked.sort(order);
+
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (int[] entry : ranked) {
+            ids.add(entry[0] >= 0 ? current.ids[entry[0]] : changed.get(-1 - entry[0]).id);
+        }
+        return ids;
+    }
+
+    private static FoodCatalog.NameKey key(Snapshot snapshot, List<Doc> changed, int doc) {
+        return doc >= 0 ? snapshot.keys[doc] : changed.get(-1 - doc).key;
+    }
+
+    private static List<String> tokenize(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        if (normalized == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    String token = normalized.substring(start, i);
+                    if (!STOPWORDS.contains(token)) {
+                        tokens.add(token);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Levenshtein distance between two words, with two rolling rows.
+     */
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * BK-tree node: children are indexed by their distance to this node's word.
+     */
+    private static final class Node {
+
+        private final int token;
+        private Node[] children;
+
+        private Node(int token) {
+            this.token = token;
+        }
+
+        void add(int newToken, String[] tokens) {
+            Node node = this;
+            while (true) {
+                int d = distance(tokens[node.token], tokens[newToken]);
+                if (node.children == null || node.children.length <= d) {
+                    node.children = node.children == null
+                            ? new Node[d + 1]
+                            : Arrays.copyOf(node.children, d + 1);
+                }
+                if (node.children[d] == null) {
+                    node.children[d] = new Node(newToken);
+                    return;
+                }
+                node = node.children[d];
+            }
+        }
+
+        /**
+         * Collects [token, distance] pairs within {@code maxEdits} of the query word.
+         */
+        void search(String query, int maxEdits, String[] tokens, List<int[]> matches) {
+            int d = distance(query, tokens[token]);
+            if (d <= maxEdits) {
+                matches.add(new int[]{token, d});
+            }
+            if (children == null) {
+                return;
+            }
+            int from = Math.max(1, d - maxEdits);
+            int to = Math.min(children.length - 1, d + maxEdits);
+            for (int i = from; i <= to; i++) {
+                if (children[i] != null) {
+                    children[i].search(query, maxEdits, tokens, matches);
+                }
+            }
+        }
+    }
+
+    /**
+     * A food changed since the tree was built.
+     */
+    private static final class Doc {
+
+        private final Long id;
+        private final FoodCatalog.NameKey key;
+        private final String brand;
+        private final Food.FoodCategory category;
+        private final List<String> tokens;
+
+        private Doc(Food food, FoodCatalog.NameKey key) {
+            this.id = food.getId();
+            this.key = key;
+            this.brand = TextNormalizer.normalize(food.getBrand());
+            this.category = food.getCategory();
+            this.tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(key.getNormalizedName())));
+        }
+
+        boolean matches(String brandTerm, Food.FoodCategory category) {
+            return (category == null || this.category == category)
+                    && (brandTerm == null || (brand != null && brand.contains(brandTerm)));
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long[] ids;
+        private final FoodCatalog.NameKey[] keys;
+        private final String[] brands;
+        private final byte[] categories;
+        private final String[] tokens;
+        private final int[][] postings;
+        private final Node root;
+        // palavras em mais de commonDocs alimentos são comuns
+        private final int commonDocs;
+        private final CatalogDelta<Doc> delta;
+
+        private Snapshot(long[] ids, FoodCatalog.NameKey[] keys, String[] brands, byte[] categories, String[] tokens,
+                         int[][] postings, Node root, int commonDocs, CatalogDelta<Doc> delta) {
+            this.ids = ids;
+            this.keys = keys;
+            this.brands = brands;
+            this.categories = categories;
+            this.tokens = tokens;
+            this.postings = postings;
+            this.root = root;
+            this.commonDocs = commonDocs;
+            this.delta = delta;
+        }
+
+        /**
+         * Foods come from the catalog already in name order, so document numbers follow it.
+         */
+        static Snapshot build(FoodCatalog.Snapshot catalog) {
+            List<Food> foods = catalog.getFoods();
+            List<FoodCatalog.NameKey> nameKeys = catalog.getNameKeys();
+            long[] ids = new long[foods.size()];
+            FoodCatalog.NameKey[] keys = new FoodCatalog.NameKey[foods.size()];
+            String[] brands = new String[foods.size()];
+            byte[] categories = new byte[foods.size()];
+            Map<String, List<Integer>> docsByToken = new LinkedHashMap<>();
+
+            for (int doc = 0; doc < foods.size(); doc++) {
+                Food food = foods.get(doc);
+                ids[doc] = food.getId();
+                keys[doc] = nameKeys.get(doc);
+                brands[doc] = TextNormalizer.normalize(food.getBrand());
+                categories[doc] = (byte) food.getCategory().ordinal();
+
+                for (String token : tokenize(keys[doc].getNormalizedName())) {
+                    List<Integer> docs = docsByToken.computeIfAbsent(token, key -> new ArrayList<>());
+                    if (docs.isEmpty() || docs.get(docs.size() - 1) != doc) {
+                        docs.add(doc);
+                    }
+                }
+            }
+
+            String[] tokens = docsByToken.keySet().toArray(new String[0]);
+            int[][] postings = new int[tokens.length][];
+            int commonDocs = Math.max(MIN_COMMON_DOCS, (int) (ids.length * COMMON_TOKEN_RATIO));
+            Node root = tokens.length > 0 ? new Node(0) : null;
+            for (int t = 0; t < tokens.length; t++) {
+                postings[t] = docsByToken.get(tokens[t]).stream().mapToInt(Integer::intValue).toArray();
+                if (t > 0) {
+                    root.add(t, tokens);
+                }
+            }
+            return new Snapshot(ids, keys, brands, categories, tokens, postings, root, commonDocs,
+                    CatalogDelta.empty(catalog.getVersion()));
+        }
+
+        Snapshot withDelta(CatalogDelta<Doc> newDelta) {
+            return new Snapshot(ids, keys, brands, categories, tokens, postings, root, commonDocs, newDelta);
+        }
+
+        boolean isCommon(int token) {
+            return postings[token].length > commonDocs;
+        }
+    }
+}
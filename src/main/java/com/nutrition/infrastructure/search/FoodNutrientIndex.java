@@ -0,0 +1,429 @@
+package com.nutrition.infrastructure.search;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.FoodCatalogChangedEvent;
+import com.nutrition.infrastructure.repository.FoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar in-memory index of the per-100g nutrients of active foods.
+ * <p>
+ * Each nutrient is stored as a primitive column of hundredths (the database columns are DECIMAL(_, 2),
+ * so this is exact) plus a copy sorted by value. A range predicate is two binary searches on the
+ * sorted copy and produces a bitset of documents; predicates and the per-category bitsets are then
+ * combined with {@link BitSet#and}. Documents are numbered in name order, so results come back sorted
+ * by name, like {@link FoodRepository#findByAdvancedFilters}.
+ * <p>
+ * Readers work on an immutable snapshot. Single-food catalog changes are applied as a {@link CatalogDelta}
+ * (evaluated row by row and merged into results by name); other catalog versions rebuild the index.
+ */
+@Component
+@Slf4j
+public class FoodNutrientIndex {
+
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    public enum Nutrient {
+        CALORIES,
+        PROTEIN,
+        CARBS,
+        FAT,
+        FIBER,
+        SODIUM
+    }
+
+    private volatile Snapshot snapshot;
+
+    @EventListener
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        try {
+            long start = System.currentTimeMillis();
+            FoodCatalog.Snapshot catalog = event.getSnapshot();
+            Snapshot current = snapshot;
+
+            if (current != null && current.delta.canApply(event, current.size())) {
+                Long foodId = event.getChangedFoodId();
+                Food food = catalog.findById(foodId);
+                snapshot = current.withDelta(current.delta.apply(catalog.getVersion(), foodId,
+                        food != null ? new Row(food, FoodCatalog.NameKey.of(food)) : null));
+                log.debug("Food nutrient index updated for catalog version {} (food {})", catalog.getVersion(), foodId);
+                return;
+            }
+
+            List<Food> foods = catalog.getFoods();
+            List<FoodCatalog.NameKey> keys = catalog.getNameKeys();
+            List<Row> rows = new ArrayList<>(foods.size());
+            for (int i = 0; i < foods.size(); i++) {
+                rows.add(new Row(foods.get(i), keys.get(i)));
+            }
+            snapshot = Snapshot.build(catalog.getVersion(), rows);
+
+            log.debug("Food nutrient index rebuilt for catalog version {}: {} foods in {} ms",
+                    catalog.getVersion(), rows.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error rebuilding food nutrient index: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Evaluates every predicate of the filter against the current snapshot.
+     */
+    public Matches search(Filter filter) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Índice de nutrientes não inicializado");
+        }
+
+        BitSet result;
+        if (filter.category != null) {
+            BitSet categoryDocs = current.categories.get(filter.category);
+            result = categoryDocs != null ? (BitSet) categoryDocs.clone() : new BitSet();
+        } else {
+            result = new BitSet(current.size());
+            result.set(0, current.size());
+        }
+
+        for (Range range : filter.ranges) {
+            if (result.isEmpty()) {
+                break;
+            }
+            result.and(current.columns.get(range.nutrient).select(range));
+        }
+
+        List<Row> changed = new ArrayList<>();
+        if (!current.delta.isEmpty()) {
+            for (Long foodId : current.delta.removed()) {
+                Integer doc = current.docsById.get(foodId);
+                if (doc != null) {
+                    result.clear(doc);
+                }
+            }
+            for (Row row : current.delta.added()) {
+                if (row.matches(filter)) {
+                    changed.add(row);
+                }
+            }
+            changed.sort(Comparator.comparing((Row row) -> row.key));
+        }
+
+        return new Matches(current, result, changed);
+    }
+
+    private static long toCents(BigDecimal value, RoundingMode roundingMode) {
+        BigDecimal cents = value.movePointRight(2).setScale(0, roundingMode);
+        return cents.max(MIN_CENTS).min(MAX_CENTS).longValue();
+    }
+
+    /**
+     * Range predicates over per-100g nutrients, optionally restricted to a category. Bounds are inclusive.
+     */
+    public static final class Filter {
+
+        private Food.FoodCategory category;
+        private final List<Range> ranges = new ArrayList<>();
+
+        public Filter category(Food.FoodCategory category) {
+            this.category = category;
+            return this;
+        }
+
+        /**
+         * Requires {@code nutrient >= min}; a null bound is ignored. Foods without a value pass only
+         * when {@code nullMatches} is true, mirroring the {@code IS NULL OR} clauses of the SQL filters.
+         */
+        public Filter atLeast(Nutrient nutrient, BigDecimal min, boolean nullMatches) {
+            if (min != null) {
+                ranges.add(new Range(nutrient, toCents(min, RoundingMode.CEILING), Long.MAX_VALUE, nullMatches));
+            }
+            return this;
+        }
+
+        /**
+         * Requires {@code nutrient <= max}; a null bound is ignored.
+         */
+        public Filter atMost(Nutrient nutrient, BigDecimal max, boolean nullMatches) {
+            if (max != null) {
+                ranges.add(new Range(nutrient, Long.MIN_VALUE, toCents(max, RoundingMode.FLOOR), nullMatches));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Matching foods in name order.
+     */
+    public static final class Matches {
+
+        private final Snapshot snapshot;
+        private final BitSet docs;
+        // alimentos alterados desde a construção do índice, em ordem de nome
+        private final List<Row> changed;
+        private final int count;
+
+        private Matches(Snapshot snapshot, BitSet docs, List<Row> changed) {
+            this.snapshot = snapshot;
+            this.docs = docs;
+            this.changed = changed;
+            this.count = docs.cardinality() + changed.size();
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public boolean contains(Long foodId) {
+            for (Row row : changed) {
+                if (row.id.equals(foodId)) {
+                    return true;
+                }
+            }
+            Integer doc = snapshot.docsById.get(foodId);
+            return doc != null && docs.get(doc);
+        }
+
+        public List<Long> ids(int offset, int limit) {
+            if (offset >= count || limit <= 0) {
+                return Collections.emptyList();
+            }
+
+            List<Long> page = new ArrayList<>(Math.min(limit, count - offset));
+            int position = 0;
+            int next = 0;
+            for (int doc = docs.nextSetBit(0); page.size() < limit && (doc >= 0 || next < changed.size()); ) {
+                Long id;
+                if (next == changed.size()
+                        || (doc >= 0 && snapshot.keys[doc].compareTo(changed.get(next).key) < 0)) {
+                    id = snapshot.ids[doc];
+                    doc = docs.nextSetBit(doc + 1);
+                } else {
+                    id = changed.get(next++).id;
+                }
+                if (position++ >= offset) {
+                    page.add(id);
+                }
+            }
+            return page;
+        }
+    }
+
+    private static final class Range {
+
+        private final Nutrient nutrient;
+        private final long min;
+        private final long max;
+        private final boolean nullMatches;
+
+        private Range(Nutrient nutrient, long min, long max, boolean nullMatches) {
+            this.nutrient = nutrient;
+            this.min = min;
+            this.max = max;
+            this.nullMatches = nullMatches;
+        }
+    }
+
+    private static final class Row {
+
+        private final Long id;
+        private final FoodCatalog.NameKey key;
+        private final Food.FoodCategory category;
+        private final BigDecimal[] values;
+
+        private Row(Food food, FoodCatalog.NameKey key) {
+            this.id = food.getId();
+            this.key = key;
+            this.category = food.getCategory();
+            // Mesma ordem de Nutrient
+            this.values = new BigDecimal[]{food.getCaloriesPer100g(), food.getProteinPer100g(), food.getCarbsPer100g(),
+                    food.getFatPer100g(), food.getFiberPer100g(), food.getSodiumPer100g()};
+        }
+
+        /**
+         * Same predicates as the columns, for rows outside the built index.
+         */
+        boolean matches(Filter filter) {
+            if (filter.category != null && category != filter.category) {
+                return false;
+            }
+            for (Range range : filter.ranges) {
+                BigDecimal value = values[range.nutrient.ordinal()];
+                if (value == null) {
+                    if (!range.nullMatches) {
+                        return false;
+                    }
+                    continue;
+                }
+                long cents = toCents(value, RoundingMode.HALF_UP);
+                if (cents < range.min || cents > range.max) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Column {
+
+        private final BitSet nulls;
+        // documentos com valor, ordenados pelo valor
+        private final long[] sortedValues;
+        private final int[] sortedDocs;
+
+        private Column(BitSet nulls, long[] sortedValues, int[] sortedDocs) {
+            this.nulls = nulls;
+            this.sortedValues = sortedValues;
+            this.sortedDocs = sortedDocs;
+        }
+
+        static Column build(long[] values, BitSet nulls) {
+            Integer[] order = new Integer[values.length - nulls.cardinality()];
+            int size = 0;
+            for (int doc = 0; doc < values.length; doc++) {
+                if (!nulls.get(doc)) {
+                    order[size++] = doc;
+                }
+            }
+            Arrays.sort(order, Comparator.comparingLong(doc -> values[doc]));
+
+            long[] sortedValues = new long[order.length];
+            int[] sortedDocs = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedDocs[i] = order[i];
+                sortedValues[i] = values[order[i]];
+            }
+            return new Column(nulls, sortedValues, sortedDocs);
+        }
+
+        BitSet select(Range range) {
+            BitSet selected = new BitSet();
+            int from = lowerBound(range.min);
+            int to = upperBound(range.max);
+            for (int i = from; i < to; i++) {
+                selected.set(sortedDocs[i]);
+            }
+            if (range.nullMatches) {
+                selected.or(nulls);
+            }
+            return selected;
+        }
+
+        // primeiro índice com valor >= key
+        private int lowerBound(long key) {
+            int low = 0;
+            int high = sortedValues.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedValues[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // primeiro índice com valor > key
+        private int upperBound(long key) {
+            int low = 0;
+            int high = sortedValues.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedValues[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long[] ids;
+        private final FoodCatalog.NameKey[] keys;
+        private final Map<Long, Integer> docsById;
+        private final Map<Food.FoodCategory, BitSet> categories;
+        private final Map<Nutrient, Column> columns;
+        private final CatalogDelta<Row> delta;
+
+        private Snapshot(long[] ids, FoodCatalog.NameKey[] keys, Map<Long, Integer> docsById,
+                         Map<Food.FoodCategory, BitSet> categories, Map<Nutrient, Column> columns,
+                         CatalogDelta<Row> delta) {
+            this.ids = ids;
+            this.keys = keys;
+            this.docsById = docsById;
+            this.categories = categories;
+            this.columns = columns;
+            this.delta = delta;
+        }
+
+        /**
+         * Rows come from the catalog already in name order, so document numbers follow it.
+         */
+        static Snapshot build(long version, List<Row> rows) {
+            int size = rows.size();
+            long[] ids = new long[size];
+            FoodCatalog.NameKey[] keys = new FoodCatalog.NameKey[size];
+            Map<Long, Integer> docsById = new HashMap<>(size * 2);
+            Map<Food.FoodCategory, BitSet> categories = new EnumMap<>(Food.FoodCategory.class);
+
+            Nutrient[] nutrients = Nutrient.values();
+            long[][] columnValues = new long[nutrients.length][size];
+            BitSet[] nulls = new BitSet[nutrients.length];
+            for (int n = 0; n < nutrients.length; n++) {
+                nulls[n] = new BitSet(size);
+            }
+
+            for (int doc = 0; doc < size; doc++) {
+                Row row = rows.get(doc);
+                ids[doc] = row.id;
+                keys[doc] = row.key;
+                docsById.put(row.id, doc);
+                categories.computeIfAbsent(row.category, category -> new BitSet(size)).set(doc);
+
+                for (int n = 0; n < nutrients.length; n++) {
+                    BigDecimal value = row.values[n];
+                    if (value == null) {
+                        nulls[n].set(doc);
+                    } else {
+                        columnValues[n][doc] = toCents(value, RoundingMode.HALF_UP);
+                    }
+                }
+            }
+
+            Map<Nutrient, Column> columns = new EnumMap<>(Nutrient.class);
+            for (int n = 0; n < nutrients.length; n++) {
+                columns.put(nutrients[n], Column.build(columnValues[n], nulls[n]));
+            }
+            return new Snapshot(ids, keys, docsById, categories, columns, CatalogDelta.empty(version));
+        }
+
+        Snapshot withDelta(CatalogDelta<Row> newDelta) {
+            return new Snapshot(ids, keys, docsById, categories, columns, newDelta);
+        }
+
+        int size() {
+            return ids.length;
+        }
+    }
+}
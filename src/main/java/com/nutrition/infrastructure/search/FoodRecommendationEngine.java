@@ -0,0 +1,433 @@
+package com.nutrition.infrastructure.search;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.domain.entity.food.UserDietaryRestriction.DietaryRestrictionType;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.FoodCatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Ranks catalog foods for a user against what is left of their daily energy and macro budget.
+ * <p>
+ * Foods are addressed by their position in the {@link FoodCatalog.Snapshot} the index was built from. Each
+ * dietary restriction has a bitset of the foods that break it, built when the catalog changes, so a user's
+ * exclusions are the OR of a few bitsets. Single-food catalog changes are applied as a {@link CatalogDelta}
+ * whose foods carry their own restrictions and are scored linearly. Scoring runs as a parallel scan that
+ * keeps a bounded min-heap per worker.
+ */
+@Component
+@Slf4j
+public class FoodRecommendationEngine {
+
+    private static final double FAVORITE_BONUS = 0.1;
+    private static final double MILD_RESTRICTION_FACTOR = 0.5;
+
+    // Divisão padrão de energia (proteína, carboidratos, gordura) quando não sobra macro no orçamento
+    private static final double[] DEFAULT_ENERGY_SHARES = {0.25, 0.45, 0.30};
+
+    private static final BigDecimal HIGH_SUGAR_PER_100G = BigDecimal.valueOf(15);
+    private static final BigDecimal HIGH_SODIUM_PER_100G = BigDecimal.valueOf(400);
+    private static final BigDecimal LOW_CARB_MAX_PER_100G = BigDecimal.valueOf(20);
+    private static final BigDecimal KETO_MAX_CARBS_PER_100G = BigDecimal.valueOf(10);
+
+    // Palavras-chave sem acento, comparadas com o início das palavras do nome normalizado
+    private static final List<String> MEAT_KEYWORDS = List.of("carne", "frango", "bovin", "suin", "porco", "peru",
+            "bacon", "presunto", "linguica", "salsicha", "salame", "mortadela", "costela", "picanha", "file de",
+            "figado", "peixe", "atum", "sardinha", "salmao", "tilapia", "bacalhau", "camarao", "hamburguer");
+    private static final List<String> ANIMAL_PRODUCT_KEYWORDS = List.of("leite", "queijo", "iogurte", "manteiga",
+            "requeijao", "creme de leite", "ovo", "gelatina", "whey", "nata");
+    private static final List<String> LACTOSE_KEYWORDS = List.of("leite", "queijo", "iogurte", "manteiga",
+            "requeijao", "creme de leite", "nata", "whey");
+    private static final List<String> LACTOSE_FREE_KEYWORDS = List.of("sem lactose", "zero lactose", "vegetal");
+    private static final List<String> GLUTEN_KEYWORDS = List.of("trigo", "pao", "macarrao", "biscoito", "bolacha",
+            "bolo", "cevada", "centeio", "aveia", "massa", "pizza", "lasanha", "cuscuz marroquino", "cerveja");
+    private static final List<String> GLUTEN_FREE_KEYWORDS = List.of("sem gluten", "gluten free");
+    private static final List<String> PORK_KEYWORDS = List.of("porco", "suin", "bacon", "presunto", "toucinho",
+            "linguica", "salame", "mortadela", "pancetta");
+    private static final List<String> ALCOHOL_KEYWORDS = List.of("cerveja", "vinho", "cachaca", "vodka", "whisky", "licor");
+    private static final List<String> SHELLFISH_KEYWORDS = List.of("camarao", "lagosta", "caranguejo", "marisco",
+            "mexilhao", "ostra", "lula", "polvo");
+
+    private static final DietaryRestrictionType[] RESTRICTIONS = DietaryRestrictionType.values();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Energy and macros still available to the user today, in kcal and grams.
+     */
+    public static final class Budget {
+
+        private final double calories;
+        private final double protein;
+        private final double carbs;
+        private final double fat;
+
+        public Budget(double calories, double protein, double carbs, double fat) {
+            this.calories = Math.max(0, calories);
+            this.protein = Math.max(0, protein);
+            this.carbs = Math.max(0, carbs);
+            this.fat = Math.max(0, fat);
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        try {
+            long start = System.currentTimeMillis();
+            FoodCatalog.Snapshot catalog = event.getSnapshot();
+            Snapshot current = snapshot;
+
+            if (current != null && current.delta.canApply(event, current.foods.size())) {
+                Long foodId = event.getChangedFoodId();
+                Food food = catalog.findById(foodId);
+                snapshot = current.withDelta(current.delta.apply(catalog.getVersion(), foodId,
+                        food != null ? new Entry(food, FoodCatalog.NameKey.of(food)) : null), foodId);
+                log.debug("Food recommendation index updated for catalog version {} (food {})",
+                        catalog.getVersion(), foodId);
+                return;
+            }
+
+            snapshot = Snapshot.build(catalog);
+
+            log.debug("Food recommendation index rebuilt for catalog version {}: {} foods in {} ms",
+                    catalog.getVersion(), snapshot.foods.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error rebuilding food recommendation index: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Ids of the {@code limit} best active foods, best first; empty until the catalog is first loaded.
+     *
+     * @param excluded         restrictions whose breaking foods are left out
+     * @param penalized        restrictions whose breaking foods only score lower (mild severity)
+     * @param favoriteFoodIds  foods that get a small bonus
+     */
+    public List<Long> recommend(Budget budget,
+                                Collection<DietaryRestrictionType> excluded,
+                                Collection<DietaryRestrictionType> penalized,
+                                Set<Long> favoriteFoodIds, int limit) {
+        Snapshot index = snapshot;
+        if (index == null) {
+            return List.of();
+        }
+        List<Food> foods = index.foods;
+        List<FoodCatalog.NameKey> keys = index.keys;
+
+        BitSet excludedDocs = index.union(excluded);
+        BitSet penalizedDocs = index.union(penalized);
+        if (index.removedDocs != null) {
+            excludedDocs.or(index.removedDocs);
+        }
+        double[] shares = energyShares(budget.protein, budget.carbs, budget.fat);
+        double[] targetShares = shares != null ? shares : DEFAULT_ENERGY_SHARES;
+
+        TopK top = IntStream.range(0, foods.size())
+                .parallel()
+                .filter(doc -> !excludedDocs.get(doc))
+                .collect(() -> new TopK(limit),
+                        (acc, doc) -> {
+                            Food food = foods.get(doc);
+                            double score = score(food, budget, targetShares, penalizedDocs.get(doc),
+                                    favoriteFoodIds);
+                            acc.offer(food, keys.get(doc), score);
+                        },
+                        TopK::merge);
+
+        // Alimentos alterados desde a construção do índice
+        for (Entry entry : index.delta.added()) {
+            if (containsAny(entry.violations, excluded)) {
+                continue;
+            }
+            double score = score(entry.food, budget, targetShares, containsAny(entry.violations, penalized),
+                    favoriteFoodIds);
+            top.offer(entry.food, entry.key, score);
+        }
+
+        return top.bestFirstIds();
+    }
+
+    private static double score(Food food, Budget budget, double[] targetShares, boolean penalized,
+                                Set<Long> favoriteFoodIds) {
+        double score = score(food, budget, targetShares);
+        if (penalized) {
+            score *= MILD_RESTRICTION_FACTOR;
+        }
+        if (favoriteFoodIds.contains(food.getId())) {
+            score += FAVORITE_BONUS;
+        }
+        return score;
+    }
+
+    /**
+     * Score in [0, 1]: how close the food's energy split is to the split of the remaining budget,
+     * scaled down when one serving exceeds the remaining energy. Once the budget is spent,
+     * lighter foods rank first.
+     */
+    private static double score(Food food, Budget budget, double[] targetShares) {
+        double grams = food.getServingSize() != null && food.getServingSize().signum() > 0
+                ? food.getServingSize().doubleValue() : 100.0;
+        double factor = grams / 100.0;
+
+        double calories = value(food.getCaloriesPer100g()) * factor;
+        if (budget.calories <= 0) {
+            return 1.0 / (1.0 + calories);
+        }
+
+        double[] foodShares = energyShares(value(food.getProteinPer100g()) * factor,
+                value(food.getCarbsPer100g()) * factor, value(food.getFatPer100g()) * factor);
+        if (foodShares == null) {
+            return 0;
+        }
+
+        double distance = Math.abs(foodShares[0] - targetShares[0])
+                + Math.abs(foodShares[1] - targetShares[1])
+                + Math.abs(foodShares[2] - targetShares[2]);
+        double fit = 1.0 - distance / 2.0;
+        double fill = calories <= budget.calories ? 1.0 : budget.calories / calories;
+        return fit * fill;
+    }
+
+    /**
+     * Fraction of energy from protein, carbs and fat, or null when there is none.
+     */
+    private static double[] energyShares(double protein, double carbs, double fat) {
+        double proteinKcal = protein * 4;
+        double carbsKcal = carbs * 4;
+        double fatKcal = fat * 9;
+        double total = proteinKcal + carbsKcal + fatKcal;
+        if (total <= 0) {
+            return null;
+        }
+        return new double[]{proteinKcal / total, carbsKcal / total, fatKcal / total};
+    }
+
+    private static double value(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0;
+    }
+
+    private static boolean containsAny(Set<DietaryRestrictionType> violations,
+                                       Collection<DietaryRestrictionType> restrictions) {
+        for (DietaryRestrictionType restriction : restrictions) {
+            if (violations.contains(restriction)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a food breaks a dietary restriction, judged from its category, nutrients and name.
+     * FOOD_ALLERGY and OTHER depend on free-text notes and never exclude anything.
+     *
+     * @param name the food name as normalized by {@link TextNormalizer#normalize}
+     */
+    static boolean violates(DietaryRestrictionType restriction, Food food, String name) {
+        Food.FoodCategory category = food.getCategory();
+
+        return switch (restriction) {
+            case VEGETARIAN -> containsAny(name, MEAT_KEYWORDS);
+            case VEGAN -> category == Food.FoodCategory.DAIRY
+                    || containsAny(name, MEAT_KEYWORDS) || containsAny(name, ANIMAL_PRODUCT_KEYWORDS);
+            case LACTOSE_INTOLERANT -> !containsAny(name, LACTOSE_FREE_KEYWORDS)
+                    && (category == Food.FoodCategory.DAIRY || containsAny(name, LACTOSE_KEYWORDS));
+            case GLUTEN_FREE -> !containsAny(name, GLUTEN_FREE_KEYWORDS) && containsAny(name, GLUTEN_KEYWORDS);
+            case DIABETIC -> category == Food.FoodCategory.SWEETS_DESSERTS
+                    || exceeds(food.getSugarPer100g(), HIGH_SUGAR_PER_100G);
+            case HYPERTENSIVE, KIDNEY_DISEASE -> exceeds(food.getSodiumPer100g(), HIGH_SODIUM_PER_100G);
+            case LOW_CARB -> exceeds(food.getCarbsPer100g(), LOW_CARB_MAX_PER_100G);
+            case KETO -> exceeds(food.getCarbsPer100g(), KETO_MAX_CARBS_PER_100G);
+            case PALEO -> category == Food.FoodCategory.CEREALS_GRAINS
+                    || category == Food.FoodCategory.DAIRY
+                    || category == Food.FoodCategory.SWEETS_DESSERTS
+                    || category == Food.FoodCategory.PREPARED_FOODS
+                    || category == Food.FoodCategory.SNACKS;
+            case HALAL -> containsAny(name, PORK_KEYWORDS) || containsAny(name, ALCOHOL_KEYWORDS);
+            case KOSHER -> containsAny(name, PORK_KEYWORDS) || containsAny(name, SHELLFISH_KEYWORDS);
+            case FOOD_ALLERGY, OTHER -> false;
+        };
+    }
+
+    private static boolean containsAny(String text, List<String> keywords) {
+        if (text == null) {
+            return false;
+        }
+        for (String keyword : keywords) {
+            for (int from = text.indexOf(keyword); from >= 0; from = text.indexOf(keyword, from + 1)) {
+                if (from == 0 || !Character.isLetterOrDigit(text.charAt(from - 1))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean exceeds(BigDecimal value, BigDecimal limit) {
+        return value != null && value.compareTo(limit) > 0;
+    }
+
+    /**
+     * A food changed since the index was built, with the restrictions it breaks.
+     */
+    private static final class Entry {
+
+        private final Food food;
+        private final FoodCatalog.NameKey key;
+        private final Set<DietaryRestrictionType> violations = EnumSet.noneOf(DietaryRestrictionType.class);
+
+        private Entry(Food food, FoodCatalog.NameKey key) {
+            this.food = food;
+            this.key = key;
+            for (DietaryRestrictionType restriction : RESTRICTIONS) {
+                if (violates(restriction, food, key.getNormalizedName())) {
+                    violations.add(restriction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Foods breaking each restriction for the catalog version the index was built from, plus the
+     * single-food changes applied since.
+     */
+    private static final class Snapshot {
+
+        private final List<Food> foods;
+        private final List<FoodCatalog.NameKey> keys;
+        // violations[r] são os documentos que violam RESTRICTIONS[r]
+        private final BitSet[] violations;
+        private final CatalogDelta<Entry> delta;
+        // Documentos alterados ou removidos desde a construção; null sem delta
+        private final BitSet removedDocs;
+
+        private Snapshot(List<Food> foods, List<FoodCatalog.NameKey> keys, BitSet[] violations,
+                         CatalogDelta<Entry> delta, BitSet removedDocs) {
+            this.foods = foods;
+            this.keys = keys;
+            this.violations = violations;
+            this.delta = delta;
+            this.removedDocs = removedDocs;
+        }
+
+        static Snapshot build(FoodCatalog.Snapshot catalog) {
+            List<Food> foods = catalog.getFoods();
+            List<FoodCatalog.NameKey> keys = catalog.getNameKeys();
+
+            BitSet[] violations = new BitSet[RESTRICTIONS.length];
+            for (int r = 0; r < RESTRICTIONS.length; r++) {
+                violations[r] = new BitSet(foods.size());
+            }
+            for (int doc = 0; doc < foods.size(); doc++) {
+                Food food = foods.get(doc);
+                String name = keys.get(doc).getNormalizedName();
+                for (int r = 0; r < RESTRICTIONS.length; r++) {
+                    if (violates(RESTRICTIONS[r], food, name)) {
+                        violations[r].set(doc);
+                    }
+                }
+            }
+            return new Snapshot(foods, keys, violations, CatalogDelta.empty(catalog.getVersion()), null);
+        }
+
+        Snapshot withDelta(CatalogDelta<Entry> newDelta, Long changedFoodId) {
+            BitSet newRemoved = removedDocs;
+            for (int doc = 0; doc < foods.size(); doc++) {
+                if (foods.get(doc).getId().equals(changedFoodId)) {
+                    newRemoved = removedDocs != null ? (BitSet) removedDocs.clone() : new BitSet(foods.size());
+                    newRemoved.set(doc);
+                    break;
+                }
+            }
+            return new Snapshot(foods, keys, violations, newDelta, newRemoved);
+        }
+
+        BitSet union(Collection<DietaryRestrictionType> restrictions) {
+            BitSet result = new BitSet();
+            for (DietaryRestrictionType restriction : restrictions) {
+                result.or(violations[restriction.ordinal()]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best foods seen; ties go to the earlier food in name order.
+     */
+    private static final class TopK {
+
+        private static final Comparator<Candidate> WORST_FIRST = Comparator
+                .comparingDouble((Candidate candidate) -> candidate.score)
+                .thenComparing(candidate -> candidate.key, Comparator.reverseOrder());
+
+        private final int limit;
+        private final PriorityQueue<Candidate> heap;
+
+        private TopK(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.max(1, limit), WORST_FIRST);
+        }
+
+        void offer(Food food, FoodCatalog.NameKey key, double score) {
+            offer(new Candidate(food.getId(), key, score));
+        }
+
+        private void offer(Candidate candidate) {
+            if (limit <= 0) {
+                return;
+            }
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        void merge(TopK other) {
+            for (Candidate candidate : other.heap) {
+                offer(candidate);
+            }
+        }
+
+        List<Long> bestFirstIds() {
+            List<Candidate> candidates = new ArrayList<>(heap);
+            candidates.sort(WORST_FIRST.reversed());
+
+            List<Long> ids = new ArrayList<>(candidates.size());
+            for (Candidate candidate : candidates) {
+                ids.add(candidate.foodId);
+            }
+            return ids;
+        }
+    }
+
+    private static final class Candidate {
+
+        private final long foodId;
+        private final FoodCatalog.NameKey key;
+        private final double score;
+
+        private Candidate(long foodId, FoodCatalog.NameKey key, double score) {
+            this.foodId = foodId;
+            this.key = key;
+            this.score = score;
+        }
+    }
+}
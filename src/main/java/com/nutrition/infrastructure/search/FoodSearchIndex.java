@@ -0,0 +1,498 @@
+package com.nutrition.infrastructure.search;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.FoodCatalogChangedEvent;
+import com.nutrition.infrastructure.repository.FoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram inverted index over the names and brands of active foods.
+ * <p>
+ * Text is folded with {@link TextNormalizer}, so matching follows the same
+ * {@code remove_accents(LOWER(...)) LIKE '%term%'} semantics as
+ * {@link FoodRepository#findByAdvancedFilters}. Documents are numbered in name order,
+ * which keeps every posting list - and therefore every result - already sorted by name.
+ * <p>
+ * Readers work on an immutable snapshot. Single-food catalog changes are applied as a {@link CatalogDelta}
+ * (scanned linearly and merged into results by name); other catalog versions rebuild the index.
+ */
+@Component
+@Slf4j
+public class FoodSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int[] NO_DOCS = new int[0];
+    private static final int INITIAL_MATCHES = 64;
+    // Termos de um ou dois caracteres com varredura guardada por snapshot
+    private static final int MAX_CACHED_SHORT_TERMS = 128;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        try {
+            long start = System.currentTimeMillis();
+            FoodCatalog.Snapshot catalog = event.getSnapshot();
+            Snapshot current = snapshot;
+
+            if (current != null && current.delta.canApply(event, current.size())) {
+                Long foodId = event.getChangedFoodId();
+                Food food = catalog.findById(foodId);
+                snapshot = current.withDelta(current.delta.apply(catalog.getVersion(), foodId,
+                        food != null ? new Entry(food, FoodCatalog.NameKey.of(food)) : null), foodId);
+                log.debug("Food search index updated for catalog version {} (food {})", catalog.getVersion(), foodId);
+                return;
+            }
+
+            List<Food> foods = catalog.getFoods();
+            List<FoodCatalog.NameKey> keys = catalog.getNameKeys();
+            List<Entry> entries = new ArrayList<>(foods.size());
+            for (int i = 0; i < foods.size(); i++) {
+                entries.add(new Entry(foods.get(i), keys.get(i)));
+            }
+            snapshot = Snapshot.build(catalog.getVersion(), entries);
+
+            log.debug("Food search index rebuilt for catalog version {}: {} foods in {} ms",
+                    catalog.getVersion(), entries.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error rebuilding food search index: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Finds active foods whose name and brand contain the given terms (accent and case insensitive),
+     * optionally restricted to a category. Blank terms are ignored.
+     * <p>
+     * Terms of at least three characters narrow the search through the trigram postings and a category through
+     * its document list, so only those candidates are verified. Without either, the result is the whole
+     * catalog or the documents of one- and two-character terms, whose scans are cached per snapshot.
+     */
+    public Matches search(String name, String brand, Food.FoodCategory category) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Índice de busca de alimentos não inicializado");
+        }
+
+        String nameTerm = TextNormalizer.normalizeTerm(name);
+        String brandTerm = TextNormalizer.normalizeTerm(brand);
+        List<Entry> changed = current.changed(nameTerm, brandTerm, category);
+
+        int[] candidates = intersect(
+                current.candidates(current.nameGrams, nameTerm),
+                current.candidates(current.brandGrams, brandTerm));
+        if (candidates == null && category != null) {
+            candidates = current.categoryDocs[category.ordinal()];
+        }
+
+        if (candidates == null) {
+            // Sem trigramas nem categoria: catálogo inteiro ou termos curtos
+            BitSet docs = nameTerm != null ? current.shortTermDocs(false, nameTerm) : null;
+            if (brandTerm != null) {
+                BitSet brandDocs = current.shortTermDocs(true, brandTerm);
+                if (docs == null) {
+                    docs = brandDocs;
+                } else {
+                    docs = (BitSet) docs.clone();
+                    docs.and(brandDocs);
+                }
+            }
+            return new Matches(current, docs, changed);
+        }
+
+        if (nameTerm == null && brandTerm == null && current.removedDocs == null) {
+            // Só a categoria: a própria lista de documentos dela
+            return new Matches(current, candidates, candidates.length, changed);
+        }
+
+        int[] matched = new int[Math.min(candidates.length, INITIAL_MATCHES)];
+        int count = 0;
+        for (int doc : candidates) {
+            if (!current.matches(doc, nameTerm, brandTerm, category)) {
+                continue;
+            }
+            if (count == matched.length) {
+                matched = Arrays.copyOf(matched, Math.min(candidates.length, count * 2));
+            }
+            matched[count++] = doc;
+        }
+        return new Matches(current, matched, count, changed);
+    }
+
+    /**
+     * Intersects two ascending document lists; null means "every document".
+     */
+    private static int[] intersect(int[] left, int[] right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        int[] result = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long gramKey(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    /**
+     * Result of a search: matching food ids in name order. Documents of the built index are kept as the list
+     * or set the search produced and merged with the matching changed foods only when a page is read.
+     */
+    public static final class Matches {
+
+        private final Snapshot snapshot;
+        // documentos do índice em ordem crescente: lista (docs) ou conjunto (bits; todos quando nulo)
+        private final int[] docs;
+        private final BitSet bits;
+        private final int docCount;
+        // alimentos alterados desde a construção do índice, em ordem de nome
+        private final List<Entry> changed;
+
+        private Matches(Snapshot snapshot, int[] docs, int docCount, List<Entry> changed) {
+            this.snapshot = snapshot;
+            this.docs = docs;
+            this.bits = null;
+            this.docCount = docCount;
+            this.changed = changed;
+        }
+
+        private Matches(Snapshot snapshot, BitSet bits, List<Entry> changed) {
+            this.snapshot = snapshot;
+            this.docs = null;
+            this.bits = bits;
+            this.docCount = snapshot.countLive(bits);
+            this.changed = changed;
+        }
+
+        public int count() {
+            return docCount + changed.size();
+        }
+
+        public List<Long> ids(int offset, int limit) {
+            int count = count();
+            if (offset >= count || limit <= 0) {
+                return Collections.emptyList();
+            }
+
+            int end = (int) Math.min((long) offset + limit, count);
+            List<Long> page = new ArrayList<>(end - offset);
+            if (docs != null && changed.isEmpty()) {
+                for (int i = offset; i < end; i++) {
+                    page.add(snapshot.ids[docs[i]]);
+                }
+                return page;
+            }
+
+            int position = 0;
+            int index = 0;
+            int next = 0;
+            int doc = docs != null ? (docCount > 0 ? docs[0] : -1) : snapshot.nextLive(bits, 0);
+            while (position < end && (doc >= 0 || next < changed.size())) {
+                Long id;
+                if (next == changed.size()
+                        || (doc >= 0 && snapshot.keys[doc].compareTo(changed.get(next).key) < 0)) {
+                    id = snapshot.ids[doc];
+                    if (docs != null) {
+                        doc = ++index < docCount ? docs[index] : -1;
+                    } else {
+                        doc = snapshot.nextLive(bits, doc + 1);
+                    }
+                } else {
+                    id = changed.get(next++).id;
+                }
+                if (position++ >= offset) {
+                    page.add(id);
+                }
+            }
+            return page;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+        private final FoodCatalog.NameKey key;
+        private final String normalizedBrand;
+        private final Food.FoodCategory category;
+
+        private Entry(Food food, FoodCatalog.NameKey key) {
+            this.id = food.getId();
+            this.key = key;
+            this.normalizedBrand = TextNormalizer.normalize(food.getBrand());
+            this.category = food.getCategory();
+        }
+
+        boolean matches(String nameTerm, String brandTerm, Food.FoodCategory category) {
+            return (category == null || this.category == category)
+                    && (nameTerm == null || key.getNormalizedName().contains(nameTerm))
+                    && (brandTerm == null || (normalizedBrand != null && normalizedBrand.contains(brandTerm)));
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long[] ids;
+        private final FoodCatalog.NameKey[] keys;
+        private final String[] names;
+        private final String[] brands;
+        private final byte[] categories;
+        private final int[][] categoryDocs;
+        private final Map<Long, int[]> nameGrams;
+        private final Map<Long, int[]> brandGrams;
+        private final CatalogDelta<Entry> delta;
+        // documentos alterados ou removidos desde a construção; null sem delta
+        private final BitSet removedDocs;
+        // compartilhado com os snapshots derivados: depende só dos documentos construídos
+        private final Map<String, BitSet> shortTerms;
+
+        private Snapshot(long[] ids, FoodCatalog.NameKey[] keys, String[] names, String[] brands, byte[] categories,
+                         int[][] categoryDocs, Map<Long, int[]> nameGrams, Map<Long, int[]> brandGrams,
+                         CatalogDelta<Entry> delta, BitSet removedDocs, Map<String, BitSet> shortTerms) {
+            this.ids = ids;
+            this.keys = keys;
+            this.names = names;
+            this.brands = brands;
+            this.categories = categories;
+            this.categoryDocs = categoryDocs;
+            this.nameGrams = nameGrams;
+            this.brandGrams = brandGrams;
+            this.delta = delta;
+            this.removedDocs = removedDocs;
+            this.shortTerms = shortTerms;
+        }
+
+        /**
+         * Entries come from the catalog already in name order, so document numbers follow it.
+         */
+        static Snapshot build(long version, List<Entry> entries) {
+            long[] ids = new long[entries.size()];
+            FoodCatalog.NameKey[] keys = new FoodCatalog.NameKey[entries.size()];
+            String[] names = new String[entries.size()];
+            String[] brands = new String[entries.size()];
+            byte[] categories = new byte[entries.size()];
+            PostingBuilder[] categoryBuilders = new PostingBuilder[Food.FoodCategory.values().length];
+
+            for (int doc = 0; doc < ids.length; doc++) {
+                Entry entry = entries.get(doc);
+                ids[doc] = entry.id;
+                keys[doc] = entry.key;
+                names[doc] = entry.key.getNormalizedName();
+                brands[doc] = entry.normalizedBrand;
+                categories[doc] = (byte) entry.category.ordinal();
+
+                int category = entry.category.ordinal();
+                if (categoryBuilders[category] == null) {
+                    categoryBuilders[category] = new PostingBuilder();
+                }
+                categoryBuilders[category].add(doc);
+            }
+
+            int[][] categoryDocs = new int[categoryBuilders.length][];
+            for (int category = 0; category < categoryBuilders.length; category++) {
+                categoryDocs[category] = categoryBuilders[category] != null ? categoryBuilders[category].toArray() : NO_DOCS;
+            }
+            return new Snapshot(ids, keys, names, brands, categories, categoryDocs,
+                    buildPostings(names), buildPostings(brands), CatalogDelta.empty(version), null,
+                    new ConcurrentHashMap<>());
+        }
+
+        /**
+         * Copy with a new delta, after {@code changedFoodId} changed.
+         */
+        Snapshot withDelta(CatalogDelta<Entry> newDelta, Long changedFoodId) {
+            BitSet newRemoved = removedDocs;
+            for (int doc = 0; doc < ids.length; doc++) {
+                if (ids[doc] == changedFoodId) {
+                    newRemoved = removedDocs != null ? (BitSet) removedDocs.clone() : new BitSet(ids.length);
+                    newRemoved.set(doc);
+                    break;
+                }
+            }
+            return new Snapshot(ids, keys, names, brands, categories, categoryDocs, nameGrams, brandGrams,
+                    newDelta, newRemoved, shortTerms);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean matches(int doc, String nameTerm, String brandTerm, Food.FoodCategory category) {
+            return (category == null || categories[doc] == category.ordinal())
+                    && (nameTerm == null || names[doc].contains(nameTerm))
+                    && (brandTerm == null || (brands[doc] != null && brands[doc].contains(brandTerm)))
+                    && (removedDocs == null || !removedDocs.get(doc));
+        }
+
+        /**
+         * Changed foods that match, in name order.
+         */
+        List<Entry> changed(String nameTerm, String brandTerm, Food.FoodCategory category) {
+            if (delta.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<Entry> changed = new ArrayList<>();
+            for (Entry entry : delta.added()) {
+                if (entry.matches(nameTerm, brandTerm, category)) {
+                    changed.add(entry);
+                }
+            }
+            changed.sort(Comparator.comparing((Entry entry) -> entry.key));
+            return changed;
+        }
+
+        /**
+         * Built documents whose name (or brand) contains a term too short for the trigram postings. The scan
+         * runs once per term and snapshot, up to {@value #MAX_CACHED_SHORT_TERMS} terms.
+         */
+        BitSet shortTermDocs(boolean brand, String term) {
+            String key = (brand ? "b:" : "n:") + term;
+            BitSet docs = shortTerms.get(key);
+            if (docs != null) {
+                return docs;
+            }
+
+            String[] texts = brand ? brands : names;
+            docs = new BitSet(texts.length);
+            for (int doc = 0; doc < texts.length; doc++) {
+                if (texts[doc] != null && texts[doc].contains(term)) {
+                    docs.set(doc);
+                }
+            }
+            if (shortTerms.size() < MAX_CACHED_SHORT_TERMS) {
+                shortTerms.put(key, docs);
+            }
+            return docs;
+        }
+
+        /**
+         * Documents in the set (every document when null) that were not changed since the build.
+         */
+        int countLive(BitSet docs) {
+            int count = docs != null ? docs.cardinality() : ids.length;
+            if (removedDocs != null) {
+                for (int doc = removedDocs.nextSetBit(0); doc >= 0; doc = removedDocs.nextSetBit(doc + 1)) {
+                    if (docs == null || docs.get(doc)) {
+                        count--;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * First document from {@code from} in the set (every document when null) not changed since the build,
+         * or -1.
+         */
+        int nextLive(BitSet docs, int from) {
+            for (int doc = from; ; doc++) {
+                doc = docs != null ? docs.nextSetBit(doc) : (doc < ids.length ? doc : -1);
+                if (doc < 0 || removedDocs == null || !removedDocs.get(doc)) {
+                    return doc;
+                }
+            }
+        }
+
+        /**
+         * Documents that contain every trigram of the term, or null when the term is too short to narrow
+         * the search. Callers still verify the full substring match.
+         */
+        int[] candidates(Map<Long, int[]> grams, String term) {
+            if (term == null || term.length() < GRAM_SIZE) {
+                return null;
+            }
+
+            List<int[]> postings = new ArrayList<>();
+            for (int offset = 0; offset + GRAM_SIZE <= term.length(); offset++) {
+                int[] posting = grams.get(gramKey(term, offset));
+                if (posting == null) {
+                    return NO_DOCS;
+                }
+                postings.add(posting);
+            }
+
+            postings.sort(Comparator.comparingInt(posting -> posting.length));
+            int[] result = postings.get(0);
+            for (int i = 1; i < postings.size() && result.length > 0; i++) {
+                if (postings.get(i) != result) {
+                    result = intersect(result, postings.get(i));
+                }
+            }
+            return result;
+        }
+
+        private static Map<Long, int[]> buildPostings(String[] texts) {
+            Map<Long, PostingBuilder> builders = new HashMap<>();
+
+            for (int doc = 0; doc < texts.length; doc++) {
+                String text = texts[doc];
+                if (text == null) {
+                    continue;
+                }
+                for (int offset = 0; offset + GRAM_SIZE <= text.length(); offset++) {
+                    builders.computeIfAbsent(gramKey(text, offset), key -> new PostingBuilder()).add(doc);
+                }
+            }
+
+            Map<Long, int[]> postings = new HashMap<>(builders.size() * 2);
+            builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+            return postings;
+        }
+    }
+
+    private static final class PostingBuilder {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            // documents arrive in ascending order, so a repeated gram shows up as the last element
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(docs, size);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.nutrition.infrastructure.search;
+
+import com.nutrition.domain.entity.food.Food;
+import com.nutrition.infrastructure.cache.FoodCatalog;
+import com.nutrition.infrastructure.cache.FoodCatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * k-d tree over the per-100g nutrient vectors of active foods, for nearest-neighbour queries.
+ * <p>
+ * Each dimension is z-score normalized (missing values count as the mean), so calories and sodium do not
+ * dominate the distance. There is one tree for the whole catalog and one per category.
+ * <p>
+ * Single-food catalog changes are applied incrementally: the changed food is tombstoned in the trees and its
+ * new version goes to a small delta list scanned linearly at query time. Once the delta outgrows
+ * {@value #MIN_DELTA_FOR_REBUILD} entries or {@value #MAX_DELTA_RATIO} of the tree, the next change rebuilds
+ * everything, which also refreshes the normalization.
+ */
+@Component
+@Slf4j
+public class FoodSimilarityIndex {
+
+    private static final int DIMENSIONS = 8;
+    private static final int MIN_DELTA_FOR_REBUILD = 1024;
+    private static final double MAX_DELTA_RATIO = 0.05;
+
+    private volatile State state;
+
+    @EventListener
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        try {
+            long start = System.currentTimeMillis();
+            FoodCatalog.Snapshot snapshot = event.getSnapshot();
+            State current = state;
+
+            if (current != null && event.getChangedFoodId() != null
+                    && current.version == snapshot.getVersion() - 1 && !current.needsRebuild()) {
+                state = current.apply(snapshot.getVersion(), event.getChangedFoodId(),
+                        snapshot.findById(event.getChangedFoodId()));
+                log.debug("Food similarity index updated for catalog version {} (food {})",
+                        snapshot.getVersion(), event.getChangedFoodId());
+            } else {
+                state = State.build(snapshot);
+                log.debug("Food similarity index rebuilt for catalog version {}: {} foods in {} ms",
+                        snapshot.getVersion(), snapshot.size(), System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            log.error("Error updating food similarity index: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return state != null;
+    }
+
+    /**
+     * Ids of the {@code limit} foods nearest to {@code food} in normalized nutrient space, nearest first.
+     * The food itself is never returned.
+     */
+    public List<Long> findSimilar(Food food, int limit, boolean sameCategory) {
+        State current = state;
+        if (current == null) {
+            throw new IllegalStateException("Índice de similaridade de alimentos não inicializado");
+        }
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        double[] query = current.scaler.normalize(food);
+        Neighbors neighbors = new Neighbors(limit);
+        long excludedId = food.getId() != null ? food.getId() : Long.MIN_VALUE;
+
+        Tree tree = sameCategory ? current.byCategory.get(food.getCategory()) : current.all;
+        if (tree != null) {
+            tree.search(query, neighbors, current.removed, excludedId);
+        }
+        for (Point point : current.added) {
+            if (point.id != excludedId && (!sameCategory || point.category == food.getCategory())) {
+                neighbors.offer(point.id, distance(query, point.coordinates, 0));
+            }
+        }
+        return neighbors.ids();
+    }
+
+    private static double distance(double[] query, double[] coordinates, int offset) {
+        double sum = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double diff = query[d] - coordinates[offset + d];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    private static double[] rawVector(Food food) {
+        return new double[]{
+                raw(food.getCaloriesPer100g()),
+                raw(food.getCarbsPer100g()),
+                raw(food.getProteinPer100g()),
+                raw(food.getFatPer100g()),
+                raw(food.getFiberPer100g()),
+                raw(food.getSugarPer100g()),
+                raw(food.getSodiumPer100g()),
+                raw(food.getSaturatedFatPer100g())
+        };
+    }
+
+    private static double raw(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Immutable index version: trees built at the last rebuild plus the changes applied since.
+     */
+    private static final class State {
+
+        private final long version;
+        private final Scaler scaler;
+        private final Tree all;
+        private final Map<Food.FoodCategory, Tree> byCategory;
+        private final Set<Long> removed;
+        private final List<Point> added;
+
+        private State(long version, Scaler scaler, Tree all, Map<Food.FoodCategory, Tree> byCategory,
+                      Set<Long> removed, List<Point> added) {
+            this.version = version;
+            this.scaler = scaler;
+            this.all = all;
+            this.byCategory = byCategory;
+            this.removed = removed;
+            this.added = added;
+        }
+
+        static State build(FoodCatalog.Snapshot snapshot) {
+            List<Food> foods = snapshot.getFoods();
+            Scaler scaler = Scaler.fit(foods);
+
+            List<Point> points = new ArrayList<>(foods.size());
+            Map<Food.FoodCategory, List<Point>> pointsByCategory = new EnumMap<>(Food.FoodCategory.class);
+            for (Food food : foods) {
+                Point point = new Point(food.getId(), food.getCategory(), scaler.normalize(food));
+                points.add(point);
+                pointsByCategory.computeIfAbsent(food.getCategory(), category -> new ArrayList<>()).add(point);
+            }
+
+            Map<Food.FoodCategory, Tree> byCategory = new EnumMap<>(Food.FoodCategory.class);
+            pointsByCategory.forEach((category, categoryPoints) -> byCategory.put(category, Tree.build(categoryPoints)));
+
+            return new State(snapshot.getVersion(), scaler, Tree.build(points), byCategory,
+                    Collections.emptySet(), Collections.emptyList());
+        }
+
+        boolean needsRebuild() {
+            int delta = removed.size() + added.size();
+            return delta > Math.max(MIN_DELTA_FOR_REBUILD, all.size() * MAX_DELTA_RATIO);
+        }
+
+        /**
+         * Copy of this state with one food replaced; {@code food} is null when it left the active catalog.
+         */
+        State apply(long newVersion, Long foodId, Food food) {
+            Set<Long> newRemoved = new HashSet<>(removed);
+            newRemoved.add(foodId);
+
+            List<Point> newAdded = new ArrayList<>(added.size() + 1);
+            for (Point point : added) {
+                if (!point.id.equals(foodId)) {
+                    newAdded.add(point);
+                }
+            }
+            if (food != null) {
+                newAdded.add(new Point(food.getId(), food.getCategory(), scaler.normalize(food)));
+            }
+
+            return new State(newVersion, scaler, all, byCategory,
+                    Collections.unmodifiableSet(newRemoved), Collections.unmodifiableList(newAdded));
+        }
+    }
+
+    private static final class Scaler {
+
+        private final double[] mean;
+        private final double[] scale;
+
+        private Scaler(double[] mean, double[] scale) {
+            this.mean = mean;
+            this.scale = scale;
+        }
+
+        static Scaler fit(List<Food> foods) {
+            double[] sum = new double[DIMENSIONS];
+            double[] sumSquares = new double[DIMENSIONS];
+            int[] count = new int[DIMENSIONS];
+
+            for (Food food : foods) {
+                double[] vector = rawVector(food);
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    if (!Double.isNaN(vector[d])) {
+                        sum[d] += vector[d];
+                        sumSquares[d] += vector[d] * vector[d];
+                        count[d]++;
+                    }
+                }
+            }
+
+            double[] mean = new double[DIMENSIONS];
+            double[] scale = new double[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                mean[d] = count[d] > 0 ? sum[d] / count[d] : 0;
+                double variance = count[d] > 0 ? sumSquares[d] / count[d] - mean[d] * mean[d] : 0;
+                double deviation = Math.sqrt(Math.max(0, variance));
+                scale[d] = deviation > 0 ? deviation : 1;
+            }
+            return new Scaler(mean, scale);
+        }
+
+        double[] normalize(Food food) {
+            double[] vector = rawVector(food);
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = Double.isNaN(vector[d]) ? 0 : (vector[d] - mean[d]) / scale[d];
+            }
+            return vector;
+        }
+    }
+
+    private static final class Point {
+
+        private final Long id;
+        private final Food.FoodCategory category;
+        private final double[] coordinates;
+
+        private Point(Long id, Food.FoodCategory category, double[] coordinates) {
+            this.id = id;
+            this.category = category;
+            this.coordinates = coordinates;
+        }
+    }
+
+    /**
+     * Implicit balanced k-d tree: the node of range [lo, hi) sits at its midpoint, its subtrees are the
+     * halves on either side. Coordinates are stored flat, {@value #DIMENSIONS} per node.
+     */
+    private static final class Tree {
+
+        private final long[] ids;
+        private final double[] coordinates;
+        private final byte[] splitDimensions;
+
+        private Tree(long[] ids, double[] coordinates, byte[] splitDimensions) {
+            this.ids = ids;
+            this.coordinates = coordinates;
+            this.splitDimensions = splitDimensions;
+        }
+
+        static Tree build(List<Point> points) {
+            Point[] nodes = points.toArray(new Point[0]);
+            byte[] splitDimensions = new byte[nodes.length];
+            build(nodes, splitDimensions, 0, nodes.length);
+
+            long[] ids = new long[nodes.length];
+            double[] coordinates = new double[nodes.length * DIMENSIONS];
+            for (int i = 0; i < nodes.length; i++) {
+                ids[i] = nodes[i].id;
+                System.arraycopy(nodes[i].coordinates, 0, coordinates, i * DIMENSIONS, DIMENSIONS);
+            }
+            return new Tree(ids, coordinates, splitDimensions);
+        }
+
+        private static void build(Point[] nodes, byte[] splitDimensions, int lo, int hi) {
+            if (hi - lo <= 1) {
+                return;
+            }
+
+            // dividir pela dimensão de maior amplitude no intervalo
+            int dimension = 0;
+            double widest = -1;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = lo; i < hi; i++) {
+                    double value = nodes[i].coordinates[d];
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+                if (max - min > widest) {
+                    widest = max - min;
+                    dimension = d;
+                }
+            }
+
+            int mid = (lo + hi) >>> 1;
+            select(nodes, lo, hi - 1, mid, dimension);
+            splitDimensions[mid] = (byte) dimension;
+
+            build(nodes, splitDimensions, lo, mid);
+            build(nodes, splitDimensions, mid + 1, hi);
+        }
+
+        /**
+         * Quickselect: places the k-th smallest point (by one coordinate) at k, smaller ones before it.
+         */
+        private static void select(Point[] nodes, int left, int right, int k, int dimension) {
+            while (left < right) {
+                double pivot = nodes[(left + right) >>> 1].coordinates[dimension];
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (nodes[i].coordinates[dimension] < pivot) {
+                        i++;
+                    }
+                    while (nodes[j].coordinates[dimension] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        Point swap = nodes[i];
+                        nodes[i] = nodes[j];
+                        nodes[j] = swap;
+                        i++;
+                        j--;
+                    }
+                }
+                if (k <= j) {
+                    right = j;
+                } else if (k >= i) {
+                    left = i;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        void search(double[] query, Neighbors neighbors, Set<Long> removed, long excludedId) {
+            search(query, neighbors, removed, excludedId, 0, ids.length);
+        }
+
+        private void search(double[] query, Neighbors neighbors, Set<Long> removed, long excludedId, int lo, int hi) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+
+            long id = ids[mid];
+            if (id != excludedId && (removed.isEmpty() || !removed.contains(id))) {
+                neighbors.offer(id, distance(query, coordinates, mid * DIMENSIONS));
+            }
+            if (hi - lo == 1) {
+                return;
+            }
+
+            int dimension = splitDimensions[mid];
+            double diff = query[dimension] - coordinates[mid * DIMENSIONS + dimension];
+            if (diff < 0) {
+                search(query, neighbors, removed, excludedId, lo, mid);
+                if (diff * diff < neighbors.worstDistance()) {
+                    search(query, neighbors, removed, excludedId, mid + 1, hi);
+                }
+            } else {
+                search(query, neighbors, removed, excludedId, mid + 1, hi);
+                if (diff * diff < neighbors.worstDistance()) {
+                    search(query, neighbors, removed, excludedId, lo, mid);
+                }
+            }
+        }
+    }
+
+    /**
+     * The k nearest candidates seen so far, kept sorted by squared distance (k is small).
+     */
+    private static final class Neighbors {
+
+        private final long[] ids;
+        private final double[] distances;
+        private int size;
+
+        private Neighbors(int limit) {
+            this.ids = new long[limit];
+            this.distances = new double[limit];
+        }
+
+        double worstDistance() {
+            return size < ids.length ? Double.POSITIVE_INFINITY : distances[size - 1];
+        }
+
+        void offer(long id, double distance) {
+            if (size == ids.length && distance >= distances[size - 1]) {
+                return;
+            }
+            int position = size < ids.length ? size++ : size - 1;
+            while (position > 0 && distances[position - 1] > distance) {
+                ids[position] = ids[position - 1];
+                distances[position] = distances[position - 1];
+                position--;
+            }
+            ids[position] = id;
+            distances[position] = distance;
+        }
+
+        List<Long> ids() {
+            List<Long> result = new ArrayList<>(size);
+            for (long id : Arrays.copyOf(ids, size)) {
+                result.add(id);
+            }
+            return result;
+        }
+    }
+}
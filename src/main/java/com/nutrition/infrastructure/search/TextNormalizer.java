@@ -0,0 +1,59 @@
+package com.nutrition.infrastructure.search;
+
+import java.util.Locale;
+
+/**
+ * Java equivalent of remove_accents(LOWER(text)) from V2__Create_unaccent_function.sql,
+ * so in-memory indexes fold text exactly like the database search does.
+ */
+public final class TextNormalizer {
+
+    private static final String ACCENTED = "áàâãäéèêëíìîïóòôõöúùûüçñ";
+    private static final String PLAIN = "aaaaaeeeeiiiiooooouuuucn";
+
+    private static final char[] FOLD = new char[256];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            FOLD[c] = c;
+        }
+        for (int i = 0; i < ACCENTED.length(); i++) {
+            FOLD[ACCENTED.charAt(i)] = PLAIN.charAt(i);
+        }
+    }
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Lower-cases and removes Portuguese accents. Returns null for null input.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        char[] chars = null;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c < FOLD.length && FOLD[c] != c) {
+                if (chars == null) {
+                    chars = lower.toCharArray();
+                }
+                chars[i] = FOLD[c];
+            }
+        }
+        return chars != null ? new String(chars) : lower;
+    }
+
+    /**
+     * Normalizes a search term, returning null when there is nothing to search for.
+     */
+    public static String normalizeTerm(String term) {
+        if (term == null) {
+            return null;
+        }
+        String normalized = normalize(term.trim());
+        return normalized.isEmpty() ? null : normalized;
+    }
+}
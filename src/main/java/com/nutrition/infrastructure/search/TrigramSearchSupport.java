@@ -0,0 +1,69 @@
+package com.nutrition.infrastructure.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the configured similarity threshold to pg_trgm before a ranked search runs, and tells whether
+ * the extension is installed at all.
+ */
+@Component
+@Slf4j
+public class TrigramSearchSupport {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.search.similarity-threshold:0.3}")
+    private double similarityThreshold;
+
+    // null enquanto a verificação não foi concluída
+    private volatile Boolean available;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        isAvailable();
+    }
+
+    /**
+     * Whether pg_trgm is installed. The V12 migration skips the extension when the database user cannot
+     * create it; ranked searches then fall back to the LIKE search instead of failing. Checked once.
+     */
+    public boolean isAvailable() {
+        Boolean installed = available;
+        return installed != null ? installed : detect();
+    }
+
+    /**
+     * Sets pg_trgm.word_similarity_threshold (used by the {@code <%} operator) for the current
+     * transaction only, so pooled connections keep their defaults. Must run inside a transaction.
+     */
+    public void applySimilarityThreshold() {
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", String.valueOf(similarityThreshold))
+                .getSingleResult();
+    }
+
+    private boolean detect() {
+        try {
+            Object result = entityManager.createNativeQuery(
+                            "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')")
+                    .getSingleResult();
+            boolean installed = Boolean.TRUE.equals(result);
+            available = installed;
+            if (!installed) {
+                log.warn("pg_trgm extension is not installed: RANKED searches fall back to the LIKE search");
+            }
+            return installed;
+        } catch (Exception e) {
+            // Sem cache: tenta de novo na próxima busca
+            log.warn("Error checking for the pg_trgm extension: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.nutrition.presentation.controller;
 
+import com.nutrition.application.dto.food.FoodImportRequest;
+import com.nutrition.application.dto.food.FoodImportResponse;
 import com.nutrition.application.service.AdminService;
+import com.nutrition.application.service.FoodImportService;
+import com.nutrition.application.service.NutritionRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -11,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,6 +33,8 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminService adminService;
+    private final FoodImportService foodImportService;
+    private final NutritionRollupService nutritionRollupService;
 
     @GetMapping("/dashboard")
     @Operation(summary = "Dashboard administrativo", description = "Retorna estatísticas gerais do sistema")
@@ -59,6 +67,22 @@ public class AdminController {
         Map<String, Object> response = adminService.getUserStatistics();
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/foods/import")
+    @Operation(summary = "Importar alimentos em lote", description = "Importa alimentos de um arquivo CSV ou JSON (layouts NATIVE, TACO ou USDA) do diretório de importação")
+    public ResponseEntity<FoodImportResponse> importFoods(@Valid @RequestBody FoodImportRequest request) {
+        log.info("Food import request received: {}", request.getFile());
+        FoodImportResponse response = foodImportService.importFoods(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/maintenance/nutrition-rollups")
+    @Operation(summary = "Recalcular resumos diários", description = "Recalcula os totais nutricionais diários de todos os usuários a partir das refeições consumidas")
+    public ResponseEntity<Map<String, Object>> rebuildNutritionRollups() {
+        log.info("Nutrition rollup rebuild request received");
+        Map<String, Object> response = nutritionRollupService.rebuild();
+        return ResponseEntity.ok(response);
+    }
 //
 //
 //    @PostMapping("/maintenance/cleanup")
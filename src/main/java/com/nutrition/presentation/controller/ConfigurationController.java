@@ -13,6 +13,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,8 +30,11 @@ public class ConfigurationController {
     @GetMapping("/activity-levels")
     @Operation(summary = "Listar níveis de atividade", description = "Retorna todos os níveis de atividade disponíveis")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<ActivityLevelResponse>> getActivityLevels() {
+    public ResponseEntity<List<ActivityLevelResponse>> getActivityLevels(WebRequest webRequest) {
         log.info("Request to fetch activity levels");
+        if (webRequest.checkNotModified(configurationService.getConfigurationETag("activity-levels"))) {
+            return null;
+        }
         List<ActivityLevelResponse> activityLevels = configurationService.getActivityLevels();
         return ResponseEntity.ok(activityLevels);
     }
@@ -38,8 +42,11 @@ public class ConfigurationController {
     @GetMapping("/goals")
     @Operation(summary = "Listar objetivos", description = "Retorna todos os objetivos disponíveis")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<GoalResponse>> getGoals() {
+    public ResponseEntity<List<GoalResponse>> getGoals(WebRequest webRequest) {
         log.info("Request to fetch goals");
+        if (webRequest.checkNotModified(configurationService.getConfigurationETag("goals"))) {
+            return null;
+        }
         List<GoalResponse> goals = configurationService.getGoals();
         return ResponseEntity.ok(goals);
     }
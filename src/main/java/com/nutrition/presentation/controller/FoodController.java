@@ -1,11 +1,21 @@
 package com.nutrition.presentation.controller;
 
+import com.nutrition.application.dto.food.BarcodeBatchRequest;
+import com.nutrition.application.dto.food.BarcodeLookupResponse;
+import com.nutrition.application.dto.food.BatchLookupResponse;
 import com.nutrition.application.dto.food.CreateFoodRequest;
+import com.nutrition.application.dto.food.CursorPageResponse;
+import com.nutrition.application.dto.food.ExportFormat;
 import com.nutrition.application.dto.food.FoodResponse;
 import com.nutrition.application.dto.food.FoodSearchRequest;
+import com.nutrition.application.dto.food.FoodSuggestionResponse;
+import com.nutrition.application.dto.food.IdBatchRequest;
 import com.nutrition.application.dto.food.UpdateFoodRequest;
 import com.nutrition.application.dto.food.UserPreferenceRequest;
+import com.nutrition.application.service.CatalogExportService;
 import com.nutrition.application.service.FoodService;
+import com.nutrition.domain.entity.auth.User;
+import com.nutrition.infrastructure.security.CurrentUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -14,7 +24,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,10 +38,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -41,6 +57,7 @@ import java.util.List;
 public class FoodController {
 
     private final FoodService foodService;
+    private final CatalogExportService catalogExportService;
 
     @PostMapping
     @Operation(summary = "Criar alimento", description = "Cria um novo alimento (apenas admins)")
@@ -63,30 +80,119 @@ public class FoodController {
 
     @GetMapping("/search")
     @Operation(summary = "Buscar alimentos", description = "Busca alimentos com filtros opcionais")
-    public ResponseEntity<Page<FoodResponse>> searchFoods(
+    public ResponseEntity<Slice<FoodResponse>> searchFoods(
             @ModelAttribute FoodSearchRequest searchRequest,
             @Parameter(description = "Número da página (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Incluir o total de resultados (false evita a contagem e retorna apenas hasNext)") @RequestParam(defaultValue = "true") boolean withCount) {
         log.info("Food search request received");
-        Page<FoodResponse> response = foodService.searchFoods(searchRequest, page, size);
+        Slice<FoodResponse> response = foodService.searchFoods(searchRequest, page, size, withCount);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Listar alimentos por cursor", description = "Paginação por cursor (ordem por nome), sem contagem total; use nextCursor para a próxima página")
+    public ResponseEntity<CursorPageResponse<FoodResponse>> scrollFoods(
+            @Parameter(description = "Cursor retornado pela página anterior (vazio na primeira página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Categoria") @RequestParam(required = false) String category,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "20") int size) {
+        log.info("Food scroll request received");
+        CursorPageResponse<FoodResponse> response = foodService.scrollFoods(cursor, category, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocompletar alimentos", description = "Sugere alimentos cujo nome tem uma palavra começando com o prefixo informado")
+    public ResponseEntity<List<FoodSuggestionResponse>> autocompleteFoods(
+            @Parameter(description = "Prefixo digitado") @RequestParam String prefix,
+            @Parameter(description = "Número máximo de sugestões (máx. 20)") @RequestParam(defaultValue = "10") int limit) {
+        List<FoodSuggestionResponse> response = foodService.autocompleteFoods(prefix, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/barcode/{barcode}")
+    @Operation(summary = "Obter alimento por código de barras", description = "Retorna o alimento ativo com o código de barras informado")
+    public ResponseEntity<FoodResponse> getFoodByBarcode(
+            @Parameter(description = "Código de barras") @PathVariable String barcode) {
+        log.info("Get food by barcode request: {}", barcode);
+        FoodResponse response = foodService.getFoodByBarcode(barcode);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/barcode/batch")
+    @Operation(summary = "Obter alimentos por códigos de barras", description = "Resolve vários códigos de barras em uma única chamada (máx. 100)")
+    public ResponseEntity<BarcodeLookupResponse> getFoodsByBarcodes(
+            @Valid @RequestBody BarcodeBatchRequest request) {
+        log.info("Barcode batch lookup request received: {} barcodes", request.getBarcodes().size());
+        BarcodeLookupResponse response = foodService.getFoodsByBarcodes(request.getBarcodes());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Obter alimentos por IDs", description = "Resolve vários alimentos em uma única chamada (máx. 500), na ordem da requisição")
+    public ResponseEntity<BatchLookupResponse<FoodResponse>> getFoodsByIds(
+            @Valid @RequestBody IdBatchRequest request) {
+        log.info("Food batch lookup request received: {} ids", request.getIds().size());
+        BatchLookupResponse<FoodResponse> response = foodService.getFoodsByIds(request.getIds());
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Exportar alimentos", description = "Exporta todos os alimentos ativos em NDJSON ou CSV, em streaming; comprimido com gzip quando o cliente aceita")
+    public ResponseEntity<StreamingResponseBody> exportFoods(
+            @Parameter(description = "Formato: NDJSON ou CSV") @RequestParam(defaultValue = "NDJSON") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Food export request received");
+        ExportFormat exportFormat = catalogExportService.resolveFormat(format);
+        boolean gzip = catalogExportService.acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"foods." + exportFormat.getExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(catalogExportService.exportFoods(exportFormat, gzip));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obter alimento por ID", description = "Retorna detalhes de um alimento específico")
-    public ResponseEntity<FoodResponse> getFoodById(@Parameter(description = "ID do alimento") @PathVariable Long id) {
+    public ResponseEntity<FoodResponse> getFoodById(@Parameter(description = "ID do alimento") @PathVariable Long id,
+                                                    @CurrentUser(required = false) User user,
+                                                    WebRequest webRequest) {
         log.info("Get food by ID request: {}", id);
+        String etag = foodService.getFoodETag(id, user);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         FoodResponse response = foodService.getFoodById(id);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "Alimentos semelhantes", description = "Lista os alimentos com perfil nutricional mais próximo do alimento informado")
+    public ResponseEntity<List<FoodResponse>> getSimilarFoods(
+            @Parameter(description = "ID do alimento") @PathVariable Long id,
+            @Parameter(description = "Número máximo de resultados (máx. 50)") @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Restringir à mesma categoria") @RequestParam(defaultValue = "false") boolean sameCategory) {
+        List<FoodResponse> response = foodService.getSimilarFoods(id, limit, sameCategory);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/category/{category}")
     @Operation(summary = "Alimentos por categoria", description = "Lista alimentos de uma categoria específica")
     public ResponseEntity<Page<FoodResponse>> getFoodsByCategory(
             @Parameter(description = "Nome da categoria") @PathVariable String category,
             @Parameter(description = "Número da página") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size,
+            @CurrentUser(required = false) User user,
+            WebRequest webRequest) {
         log.info("Get foods by category request: {}", category);
+        String etag = foodService.getFoodsByCategoryETag(category, page, size, user);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Page<FoodResponse> response = foodService.getFoodsByCategory(category, page, size);
         return ResponseEntity.ok(response);
     }
@@ -131,7 +237,7 @@ public class FoodController {
     }
 
     @GetMapping("/recommended")
-    @Operation(summary = "Alimentos recomendados", description = "Lista alimentos recomendados baseados nas preferências do usuário")
+    @Operation(summary = "Alimentos recomendados", description = "Lista alimentos ordenados pelo encaixe nas calorias e macros que restam no dia, respeitando as restrições alimentares do usuário")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Page<FoodResponse>> getRecommendedFoods(
             @Parameter(description = "Número da página") @RequestParam(defaultValue = "0") int page,
@@ -15,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -63,8 +64,11 @@ public class MealController {
     @GetMapping
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Get all meal templates for the current user")
-    public ResponseEntity<List<MealTemplateResponseDTO>> getUserMealTemplates(@CurrentUser User user) {
+    public ResponseEntity<List<MealTemplateResponseDTO>> getUserMealTemplates(@CurrentUser User user, WebRequest webRequest) {
         log.info("Fetching meal templates for user: {}", user.getId());
+        if (webRequest.checkNotModified(mealService.getMealTemplatesETag(user))) {
+            return null;
+        }
         List<MealTemplateResponseDTO> meals = mealService.getUserMealTemplates(user);
         return ResponseEntity.ok(meals);
     }
@@ -127,27 +131,47 @@ public class MealController {
 
     @GetMapping("/consumed/history")
     @PreAuthorize("hasRole('USER')")
-    @Operation(summary = "Get meal consumption history for a date range")
+    @Operation(summary = "Get meal consumption history for a date range", description = "Whole range by default; with page and/or size, paged by day (size defaults to 31, max 92). With includeMeals=false only the daily nutritional summaries of the whole range are returned")
     public ResponseEntity<MealHistoryDTO> getMealHistory(
             @CurrentUser User user,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "true") boolean includeMeals,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
 
         log.info("Fetching meal history for user: {} from {} to {}",
                 user.getId(), startDate, endDate);
-        MealHistoryDTO history = mealService.getMealHistory(user, startDate, endDate);
+        MealHistoryDTO history = mealService.getMealHistory(user, startDate, endDate, includeMeals, page, size);
         return ResponseEntity.ok(history);
     }
 
     @GetMapping("/consumed/recent")
     @PreAuthorize("hasRole('USER')")
-    @Operation(summary = "Get recent meal consumption history")
+    @Operation(summary = "Get recent meal consumption history", description = "Whole range by default; with page and/or size, paged by day (size defaults to 31, max 92). With includeMeals=false only the daily nutritional summaries of the whole range are returned")
     public ResponseEntity<MealHistoryDTO> getRecentMealHistory(
             @CurrentUser User user,
-            @RequestParam(defaultValue = "7") int days) {
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "true") boolean includeMeals,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
 
         log.info("Fetching recent {} days meal history for user: {}", days, user.getId());
-        MealHistoryDTO history = mealService.getRecentMealHistory(user, days);
+        MealHistoryDTO history = mealService.getRecentMealHistory(user, days, includeMeals, page, size);
         return ResponseEntity.ok(history);
     }
+
+    @GetMapping("/consumed/aggregate")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get weekly or monthly nutrition aggregates", description = "Totals, daily averages and calorie target adherence per week or month, aggregated in the database; defaults to the last year")
+    public ResponseEntity<NutritionAggregateDTO> getNutritionAggregate(
+            @CurrentUser User user,
+            @RequestParam(defaultValue = "week") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        log.info("Fetching {} nutrition aggregate for user: {}", granularity, user.getId());
+        NutritionAggregateDTO aggregate = mealService.getNutritionAggregate(user, granularity, startDate, endDate);
+        return ResponseEntity.ok(aggregate);
+    }
 }
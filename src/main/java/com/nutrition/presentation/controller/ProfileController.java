@@ -29,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -64,8 +65,11 @@ public class ProfileController {
     @GetMapping
     @Operation(summary = "Obter perfil", description = "Retorna o perfil completo do usuário atual")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<ProfileResponse> getProfile(@CurrentUser User user) {
+    public ResponseEntity<ProfileResponse> getProfile(@CurrentUser User user, WebRequest webRequest) {
         log.info("Profile retrieval request received");
+        if (webRequest.checkNotModified(profileService.getProfileETag(user))) {
+            return null;
+        }
         ProfileResponse response = profileService.getProfile(user);
         return ResponseEntity.ok(response);
     }
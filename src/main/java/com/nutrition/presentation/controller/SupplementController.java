@@ -2,8 +2,12 @@ package com.nutrition.presentation.controller;
 
 import com.nutrition.application.dto.food.AddScheduleRequest;
 import com.nutrition.application.dto.food.AddSupplementRequest;
+import com.nutrition.application.dto.food.BatchLookupResponse;
 import com.nutrition.application.dto.food.CreateSupplementRequest;
+import com.nutrition.application.dto.food.CursorPageResponse;
+import com.nutrition.application.dto.food.ExportFormat;
 import com.nutrition.application.dto.food.FoodResponse;
+import com.nutrition.application.dto.food.IdBatchRequest;
 import com.nutrition.application.dto.food.ScheduleResponse;
 import com.nutrition.application.dto.food.SupplementResponse;
 import com.nutrition.application.dto.food.TimeRoutineRequest;
@@ -11,6 +15,7 @@ import com.nutrition.application.dto.food.UpdateScheduleRequest;
 import com.nutrition.application.dto.food.UpdateSupplementFrequencyRequest;
 import com.nutrition.application.dto.food.UserPreferenceRequest;
 import com.nutrition.application.dto.food.UserSupplementResponse;
+import com.nutrition.application.service.CatalogExportService;
 import com.nutrition.application.service.SupplementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,7 +25,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -30,10 +38,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -46,6 +56,7 @@ import java.util.List;
 public class SupplementController {
 
     private final SupplementService supplementService;
+    private final CatalogExportService catalogExportService;
 
     @PostMapping
     @Operation(summary = "Criar suplemento", description = "Cria um novo suplemento (apenas admins)")
@@ -59,17 +70,58 @@ public class SupplementController {
 
     @GetMapping("/search")
     @Operation(summary = "Buscar suplementos", description = "Busca suplementos com filtros opcionais")
-    public ResponseEntity<Page<SupplementResponse>> searchSupplements(
+    public ResponseEntity<Slice<SupplementResponse>> searchSupplements(
             @Parameter(description = "Termo de busca") @RequestParam(required = false) String searchTerm,
             @Parameter(description = "Categoria") @RequestParam(required = false) String category,
             @Parameter(description = "Forma") @RequestParam(required = false) String form,
             @Parameter(description = "Marca") @RequestParam(required = false) String brand,
             @Parameter(description = "Apenas verificados") @RequestParam(required = false) Boolean verified,
+            @Parameter(description = "Modo de busca: ALPHABETICAL (padrão) ou RANKED (por relevância)") @RequestParam(required = false) String mode,
             @Parameter(description = "Número da página (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Incluir o total de resultados (false evita a contagem e retorna apenas hasNext)") @RequestParam(defaultValue = "true") boolean withCount) {
         log.info("Supplement search request received");
-        Page<SupplementResponse> response = supplementService.searchSupplements(
-                searchTerm, category, form, brand, verified, page, size);
+        Slice<SupplementResponse> response = supplementService.searchSupplements(
+                searchTerm, category, form, brand, verified, mode, withCount, page, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Listar suplementos por cursor", description = "Paginação por cursor (ordem por nome), sem contagem total; use nextCursor para a próxima página")
+    public ResponseEntity<CursorPageResponse<SupplementResponse>> scrollSupplements(
+            @Parameter(description = "Cursor retornado pela página anterior (vazio na primeira página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Categoria") @RequestParam(required = false) String category,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "20") int size) {
+        log.info("Supplement scroll request received");
+        CursorPageResponse<SupplementResponse> response = supplementService.scrollSupplements(cursor, category, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar suplementos", description = "Exporta todos os suplementos ativos em NDJSON ou CSV, em streaming; comprimido com gzip quando o cliente aceita")
+    public ResponseEntity<StreamingResponseBody> exportSupplements(
+            @Parameter(description = "Formato: NDJSON ou CSV") @RequestParam(defaultValue = "NDJSON") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Supplement export request received");
+        ExportFormat exportFormat = catalogExportService.resolveFormat(format);
+        boolean gzip = catalogExportService.acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"supplements." + exportFormat.getExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(catalogExportService.exportSupplements(exportFormat, gzip));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Obter suplementos por IDs", description = "Resolve vários suplementos em uma única chamada (máx. 500), na ordem da requisição")
+    public ResponseEntity<BatchLookupResponse<SupplementResponse>> getSupplementsByIds(
+            @Valid @RequestBody IdBatchRequest request) {
+        log.info("Supplement batch lookup request received: {} ids", request.getIds().size());
+        BatchLookupResponse<SupplementResponse> response = supplementService.getSupplementsByIds(request.getIds());
         return ResponseEntity.ok(response);
     }
 
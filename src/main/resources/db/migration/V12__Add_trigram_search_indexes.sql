@@ -0,0 +1,39 @@
+-- Trigram indexes for ranked (similarity) search on foods and supplements
+-- The LIKE '%term%' searches cannot use the btree indexes from V2; pg_trgm GIN indexes
+-- serve the <% (word similarity) operator used by the RANKED search mode.
+
+-- Try to create the pg_trgm extension (available in PostgreSQL with contrib modules)
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION
+    WHEN OTHERS THEN
+        -- Without pg_trgm the RANKED search mode is unavailable; alphabetical search keeps working
+        NULL;
+END $$;
+
+-- Create the indexes only when the extension is installed
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_foods_name_trgm
+            ON foods USING gin (remove_accents(LOWER(name)) gin_trgm_ops)
+            WHERE active = true;
+
+        CREATE INDEX IF NOT EXISTS idx_foods_brand_trgm
+            ON foods USING gin (remove_accents(LOWER(brand)) gin_trgm_ops)
+            WHERE active = true;
+
+        CREATE INDEX IF NOT EXISTS idx_supplements_name_trgm
+            ON supplements USING gin (remove_accents(LOWER(name)) gin_trgm_ops)
+            WHERE active = true;
+
+        CREATE INDEX IF NOT EXISTS idx_supplements_brand_trgm
+            ON supplements USING gin (remove_accents(LOWER(brand)) gin_trgm_ops)
+            WHERE active = true;
+
+        CREATE INDEX IF NOT EXISTS idx_supplements_main_ingredient_trgm
+            ON supplements USING gin (remove_accents(LOWER(main_ingredient)) gin_trgm_ops)
+            WHERE active = true;
+    END IF;
+END $$;
@@ -0,0 +1,19 @@
+-- Indexes for keyset (cursor) pagination of the food and supplement catalogs
+-- Pages are read in (name, id) order, optionally within a category, seeking past the last row
+-- of the previous page instead of using OFFSET.
+
+CREATE INDEX IF NOT EXISTS idx_foods_active_name_id
+    ON foods (name, id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_foods_active_category_name_id
+    ON foods (category, name, id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_supplements_active_name_id
+    ON supplements (name, id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_supplements_active_category_name_id
+    ON supplements (category, name, id)
+    WHERE active = true;
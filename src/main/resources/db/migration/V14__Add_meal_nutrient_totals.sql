@@ -0,0 +1,52 @@
+-- Persisted nutrient totals of each meal, so reads do not need to load meal_foods and foods
+-- Each column holds the sum of the meal items rounded to 2 places; NULL when no item has a value for
+-- the nutrient (the application then reports zero, as when totals were derived on every read).
+
+ALTER TABLE meals
+    ADD COLUMN total_calories      NUMERIC(10, 2),
+    ADD COLUMN total_carbs         NUMERIC(10, 2),
+    ADD COLUMN total_protein       NUMERIC(10, 2),
+    ADD COLUMN total_fat           NUMERIC(10, 2),
+    ADD COLUMN total_fiber         NUMERIC(10, 2),
+    ADD COLUMN total_sodium        NUMERIC(10, 2),
+    ADD COLUMN total_sugar         NUMERIC(10, 2),
+    ADD COLUMN total_saturated_fat NUMERIC(10, 2);
+
+-- Backfill with the same arithmetic as the application: multiplier rounded to 4 places, each item
+-- rounded to 2 places (ROUND on NUMERIC rounds half away from zero, like HALF_UP)
+UPDATE meals m
+SET total_calories      = t.calories,
+    total_carbs         = t.carbs,
+    total_protein       = t.protein,
+    total_fat           = t.fat,
+    total_fiber         = t.fiber,
+    total_sodium        = t.sodium,
+    total_sugar         = t.sugar,
+    total_saturated_fat = t.saturated_fat
+FROM (SELECT i.meal_id,
+             SUM(ROUND(i.calories_per_100g * i.multiplier, 2))      AS calories,
+             SUM(ROUND(i.carbs_per_100g * i.multiplier, 2))         AS carbs,
+             SUM(ROUND(i.protein_per_100g * i.multiplier, 2))       AS protein,
+             SUM(ROUND(i.fat_per_100g * i.multiplier, 2))           AS fat,
+             SUM(ROUND(i.fiber_per_100g * i.multiplier, 2))         AS fiber,
+             SUM(ROUND(i.sodium_per_100g * i.multiplier, 2))        AS sodium,
+             SUM(ROUND(i.sugar_per_100g * i.multiplier, 2))         AS sugar,
+             SUM(ROUND(i.saturated_fat_per_100g * i.multiplier, 2)) AS saturated_fat
+      FROM (SELECT mf.meal_id,
+                   f.calories_per_100g,
+                   f.carbs_per_100g,
+                   f.protein_per_100g,
+                   f.fat_per_100g,
+                   f.fiber_per_100g,
+                   f.sodium_per_100g,
+                   f.sugar_per_100g,
+                   f.saturated_fat_per_100g,
+                   CASE
+                       WHEN mf.unit IN ('porção', 'serving') AND f.serving_size > 0
+                           THEN ROUND(mf.quantity * f.serving_size / 100, 4)
+                       ELSE ROUND(mf.quantity / 100, 4)
+                   END AS multiplier
+            FROM meal_foods mf
+                     JOIN foods f ON f.id = mf.food_id) i
+      GROUP BY i.meal_id) t
+WHERE m.id = t.meal_id;
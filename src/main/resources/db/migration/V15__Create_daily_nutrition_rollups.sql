@@ -0,0 +1,42 @@
+-- One row per user and day with the nutrient totals of the meals consumed that day, so range summaries
+-- read one row per day instead of loading consumptions, meals and foods
+-- Rows are recomputed from meal_consumptions and the persisted meal totals whenever a consumption,
+-- a consumed meal or the nutrients of one of its foods change; days without consumptions have no row.
+
+CREATE TABLE daily_nutrition_rollups (
+    id                  BIGSERIAL PRIMARY KEY,
+    user_id             BIGINT         NOT NULL,
+    date                DATE           NOT NULL,
+    total_calories      NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    total_carbs         NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    total_protein       NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    total_fat           NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    total_fiber         NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    total_sodium        NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    total_sugar         NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    total_saturated_fat NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    meals_count         INTEGER        NOT NULL DEFAULT 0,
+    updated_at          TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_daily_nutrition_rollups_user_id
+        FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT uk_daily_nutrition_rollups_user_date
+        UNIQUE (user_id, date)
+);
+
+-- Backfill from existing consumptions
+INSERT INTO daily_nutrition_rollups (user_id, date, total_calories, total_carbs, total_protein, total_fat,
+                                     total_fiber, total_sodium, total_sugar, total_saturated_fat, meals_count)
+SELECT mc.user_id,
+       mc.consumption_date,
+       COALESCE(SUM(m.total_calories), 0),
+       COALESCE(SUM(m.total_carbs), 0),
+       COALESCE(SUM(m.total_protein), 0),
+       COALESCE(SUM(m.total_fat), 0),
+       COALESCE(SUM(m.total_fiber), 0),
+       COALESCE(SUM(m.total_sodium), 0),
+       COALESCE(SUM(m.total_sugar), 0),
+       COALESCE(SUM(m.total_saturated_fat), 0),
+       COUNT(*)
+FROM meal_consumptions mc
+         JOIN meals m ON m.id = mc.meal_id
+GROUP BY mc.user_id, mc.consumption_date;
@@ -0,0 +1,9 @@
+-- Foods inserted by seed data or by the bulk importer were left with updated_at NULL, which keeps them
+-- out of the ETag and JSON cache paths that version a food by updated_at
+
+UPDATE foods
+SET updated_at = created_at
+WHERE updated_at IS NULL;
+
+ALTER TABLE foods
+    ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,224 @@
+package com.nutrition.domain.entity.meal;
+
+import com.nutrition.domain.entity.food.Food;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks {@link NutrientVector} against the BigDecimal formula it replaced: multiplier rounded HALF_UP to
+ * 4 places, each nutrient times the multiplier rounded HALF_UP to 2 places, summed from
+ * {@link BigDecimal#ZERO}. Results are compared with {@code equals}, so the scale must match too.
+ */
+class NutrientVectorTest {
+
+    private static final List<Function<Food, BigDecimal>> NUTRIENTS = List.of(
+            Food::getCaloriesPer100g, Food::getCarbsPer100g, Food::getProteinPer100g, Food::getFatPer100g,
+            Food::getFiberPer100g, Food::getSodiumPer100g, Food::getSugarPer100g, Food::getSaturatedFatPer100g);
+
+    private static final String[] UNITS = {"g", "ml", "porção", "serving", null};
+
+    @Test
+    void gramQuantitiesMatchLegacyFormula() {
+        Food food = food("52.00", "13.81", "0.26", "0.17", "2.40", "1.00", "10.39", "0.03", null);
+
+        assertMatchesLegacy(List.of(item(food, "150", "g")));
+        assertMatchesLegacy(List.of(item(food, "33.33", "g")));
+        assertMatchesLegacy(List.of(item(food, "0.01", "ml")));
+        assertMatchesLegacy(List.of(item(food, "87.5", null)));
+    }
+
+    @Test
+    void servingQuantitiesMatchLegacyFormula() {
+        Food food = food("250", "30.5", "8.25", "11.1", "3", "480", "4.4", "2.05", "30");
+
+        assertMatchesLegacy(List.of(item(food, "1", "porção")));
+        assertMatchesLegacy(List.of(item(food, "2.5", "serving")));
+        assertMatchesLegacy(List.of(item(food, "0.33", "porção")));
+    }
+
+    @Test
+    void servingUnitWithoutServingSizeIsReadAsGrams() {
+        Food noServing = food("100", "10", "10", "10", null, null, null, null, null);
+        Food zeroServing = food("100", "10", "10", "10", null, null, null, null, "0");
+
+        assertMatchesLegacy(List.of(item(noServing, "2", "porção")));
+        assertMatchesLegacy(List.of(item(zeroServing, "2", "serving")));
+        assertEquals(new BigDecimal("2.00"), NutrientVector.of(item(noServing, "2", "porção")).getCalories());
+    }
+
+    @Test
+    void roundsHalfUpAtHalfHundredth() {
+        // 1.00 * 0.0050 = 0.005 -> 0.01
+        Food food = food("1.00", "0.01", "0.99", "3.00", null, null, null, null, null);
+        NutrientVector totals = NutrientVector.of(item(food, "0.50", "g"));
+
+        assertEquals(new BigDecimal("0.01"), totals.getCalories());
+        assertEquals(new BigDecimal("0.00"), totals.getCarbs());
+        assertEquals(new BigDecimal("0.00"), totals.getProtein());
+        assertEquals(new BigDecimal("0.02"), totals.getFat());
+        assertMatchesLegacy(List.of(item(food, "0.50", "g")));
+    }
+
+    @Test
+    void roundsMultiplierBeforeNutrient() {
+        // 1.5 * 0.33 / 100 = 0.00495 -> 0.0050; 333.33 * 0.0050 = 1.66665 -> 1.67 (sem arredondar: 1.65)
+        Food food = food("333.33", null, null, null, null, null, null, null, "0.33");
+
+        assertEquals(new BigDecimal("0.0050"),
+                NutrientVector.quantityMultiplier(new BigDecimal("1.5"), "porção", food.getServingSize()));
+        assertEquals(new BigDecimal("1.67"), NutrientVector.of(item(food, "1.5", "porção")).getCalories());
+        assertMatchesLegacy(List.of(item(food, "1.5", "porção")));
+    }
+
+    @Test
+    void nullsContributeNothing() {
+        Food food = food("120", null, "5", null, null, null, null, null, null);
+        MealFood noQuantity = item(food, null, "g");
+        MealFood noFood = MealFood.builder().quantity(new BigDecimal("100")).unit("g").build();
+
+        NutrientVector totals = NutrientVector.sum(List.of(item(food, "50", "g"), noQuantity, noFood));
+        assertEquals(new BigDecimal("60.00"), totals.getCalories());
+        assertEquals(BigDecimal.ZERO, totals.getCarbs());
+        assertEquals(new BigDecimal("2.50"), totals.getProtein());
+        assertEquals(BigDecimal.ZERO, totals.getFiber());
+
+        assertEquals(BigDecimal.ZERO, NutrientVector.sum(null).getCalories());
+        assertEquals(BigDecimal.ZERO, NutrientVector.sum(List.of()).getSodium());
+        assertMatchesLegacy(List.of(item(food, "50", "g"), noQuantity, noFood));
+    }
+
+    @Test
+    void largeAndUnusualValuesFallBackExactly() {
+        // maior quantidade da coluna (8,2): produtos que estouram long e escalas fora de 0..2 usam BigDecimal
+        Food large = food("99999.99", "99999.99", "0.01", "1.005", "12.3456", "1E+3", null, null, "99999.99");
+
+        assertMatchesLegacy(List.of(item(large, "999999.99", "porção")));
+        assertMatchesLegacy(List.of(item(large, "999999.99", "g")));
+        assertMatchesLegacy(List.of(item(large, "0.125", "g")));
+    }
+
+    @Test
+    void addItemMatchesEntityItems() {
+        Food food = food("52.00", "13.81", "0.26", "0.17", "2.40", "1.00", "10.39", "0.03", "118");
+        MealFood item = item(food, "1.5", "porção");
+
+        NutrientVector fromValues = NutrientVector.empty().addItem(item.getQuantity(), item.getUnit(),
+                food.getServingSize(), food.getCaloriesPer100g(), food.getCarbsPer100g(), food.getProteinPer100g(),
+                food.getFatPer100g(), food.getFiberPer100g(), food.getSodiumPer100g(), food.getSugarPer100g(),
+                food.getSaturatedFatPer100g());
+
+        assertEquals(totals(NutrientVector.of(item)), totals(fromValues));
+    }
+
+    @Test
+    void ofTotalsKeepsPersistedTotals() {
+        NutrientVector totals = NutrientVector.ofTotals(new BigDecimal("10.5"), null, BigDecimal.ZERO,
+                new BigDecimal("1.234"), null, null, null, null);
+
+        assertEquals(new BigDecimal("10.50"), totals.getCalories());
+        assertEquals(BigDecimal.ZERO, totals.getCarbs());
+        assertEquals(new BigDecimal("0.00"), totals.getProtein());
+        assertEquals(new BigDecimal("1.23"), totals.getFat());
+    }
+
+    @Test
+    void randomMealsMatchLegacyFormula() {
+        Random random = new Random(42);
+        for (int meal = 0; meal < 5_000; meal++) {
+            List<MealFood> items = new ArrayList<>();
+            int count = 1 + random.nextInt(6);
+            for (int i = 0; i < count; i++) {
+                Food food = food(randomValue(random, 900_00), randomValue(random, 100_00),
+                        randomValue(random, 100_00), randomValue(random, 100_00), randomValue(random, 50_00),
+                        randomValue(random, 5000_00), randomValue(random, 100_00), randomValue(random, 50_00),
+                        randomValue(random, 500_00));
+                items.add(item(food, randomValue(random, 2000_00), UNITS[random.nextInt(UNITS.length)]));
+            }
+            assertMatchesLegacy(items);
+        }
+    }
+
+    private static void assertMatchesLegacy(List<MealFood> items) {
+        assertEquals(legacyTotals(items), totals(NutrientVector.sum(items)));
+        for (MealFood item : items) {
+            assertEquals(legacyTotals(List.of(item)), totals(item.getNutrientTotals()));
+        }
+    }
+
+    private static List<BigDecimal> totals(NutrientVector vector) {
+        return List.of(vector.getCalories(), vector.getCarbs(), vector.getProtein(), vector.getFat(),
+                vector.getFiber(), vector.getSodium(), vector.getSugar(), vector.getSaturatedFat());
+    }
+
+    // Soma das refeições antes do NutrientVector: BigDecimal.ZERO mais o total arredondado de cada item
+    private static List<BigDecimal> legacyTotals(List<MealFood> items) {
+        List<BigDecimal> totals = new ArrayList<>();
+        for (Function<Food, BigDecimal> nutrient : NUTRIENTS) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (MealFood item : items) {
+                Food food = item.getFood();
+                if (food == null || item.getQuantity() == null || nutrient.apply(food) == null) {
+                    continue;
+                }
+                total = total.add(nutrient.apply(food)
+                        .multiply(legacyMultiplier(item.getQuantity(), item.getUnit(), food.getServingSize()))
+                        .setScale(2, RoundingMode.HALF_UP));
+            }
+            totals.add(total);
+        }
+        return totals;
+    }
+
+    private static BigDecimal legacyMultiplier(BigDecimal quantity, String unit, BigDecimal servingSize) {
+        if ("porção".equals(unit) || "serving".equals(unit)) {
+            if (servingSize != null && servingSize.compareTo(BigDecimal.ZERO) > 0) {
+                return quantity.multiply(servingSize).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+            }
+        }
+        return quantity.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+    }
+
+    // Valores até maxHundredths com escala 0 a 3; às vezes nulos
+    private static String randomValue(Random random, int maxHundredths) {
+        int kind = random.nextInt(10);
+        if (kind == 0) {
+            return null;
+        }
+        if (kind == 1) {
+            return BigDecimal.valueOf(random.nextInt(maxHundredths * 10 + 1), 3).toPlainString();
+        }
+        return BigDecimal.valueOf(random.nextInt(maxHundredths + 1), kind % 3).toPlainString();
+    }
+
+    private static Food food(String calories, String carbs, String protein, String fat, String fiber,
+                             String sodium, String sugar, String saturatedFat, String servingSize) {
+        return Food.builder()
+                .name("Alimento")
+                .caloriesPer100g(decimal(calories))
+                .carbsPer100g(decimal(carbs))
+                .proteinPer100g(decimal(protein))
+                .fatPer100g(decimal(fat))
+                .fiberPer100g(decimal(fiber))
+                .sodiumPer100g(decimal(sodium))
+                .sugarPer100g(decimal(sugar))
+                .saturatedFatPer100g(decimal(saturatedFat))
+                .servingSize(decimal(servingSize))
+                .build();
+    }
+
+    private static MealFood item(Food food, String quantity, String unit) {
+        return MealFood.builder().food(food).quantity(decimal(quantity)).unit(unit).build();
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value != null ? new BigDecimal(value) : null;
+    }
+}